@@ -0,0 +1,38 @@
+package me.stinper.jwtauth.benchmark;
+
+import me.stinper.jwtauth.core.security.jwt.JwtKeyRing;
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureAlgorithm;
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureKeysProvider;
+import me.stinper.jwtauth.core.security.jwt.JwtSigningKey;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * Вспомогательные методы для бенчмарков: генерация ключей подписи и построение провайдера ключей
+ */
+final class BenchmarkKeys {
+    private BenchmarkKeys() {}
+
+    static KeyPair keyPair(JwtSignatureAlgorithm algorithm) throws GeneralSecurityException {
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance(algorithm.getKeyFactoryAlgorithm());
+
+        switch (algorithm) {
+            case RS256 -> keyPairGenerator.initialize(2048);
+            case ES256 -> keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+            case EdDSA -> {}
+        }
+
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    static JwtSignatureKeysProvider keysProvider(KeyPair keyPair, JwtSignatureAlgorithm algorithm) {
+        JwtKeyRing keyRing = JwtKeyRing.of(
+                1, new JwtSigningKey("benchmark", algorithm, keyPair.getPublic(), keyPair.getPrivate())
+        );
+
+        return () -> keyRing;
+    }
+}
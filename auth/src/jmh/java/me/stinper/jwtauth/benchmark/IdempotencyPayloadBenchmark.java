@@ -0,0 +1,81 @@
+package me.stinper.jwtauth.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Jwts;
+import me.stinper.jwtauth.core.idempotency.IdempotencyPayload;
+import me.stinper.jwtauth.core.idempotency.IdempotencyPayloadCodec;
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureAlgorithm;
+import me.stinper.jwtauth.dto.JwtResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает стоимость кодирования результата входа ({@link JwtResponse}) для хранения вместе с ключом идемпотентности:
+ * JSON-строка ({@code ObjectMapper#writeValueAsString}, как хранилось ранее) и Smile + Deflate ({@link IdempotencyPayloadCodec}). <br>
+ * Размеры закодированного результата в обоих форматах выводятся при подготовке бенчмарка. <br>
+ * Запуск: {@code ./gradlew :auth:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IdempotencyPayloadBenchmark {
+    private ObjectMapper objectMapper;
+    private IdempotencyPayloadCodec payloadCodec;
+    private JwtResponse response;
+    private String json;
+    private IdempotencyPayload payload;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPair keyPair = BenchmarkKeys.keyPair(JwtSignatureAlgorithm.RS256);
+        Date expiration = Date.from(Instant.now().plus(Duration.ofMinutes(10)));
+
+        String accessToken = Jwts.builder()
+                .subject(UUID.randomUUID().toString())
+                .expiration(expiration)
+                .claim("type", "ACCESS")
+                .claim("authorities", Map.of("roles", Set.of("ROLE_USER"), "permissions", Set.of("user.read", "user.update")))
+                .claim("email", "user@gmail.com")
+                .signWith(keyPair.getPrivate())
+                .compact();
+
+        this.objectMapper = new ObjectMapper();
+        this.payloadCodec = new IdempotencyPayloadCodec(this.objectMapper);
+        this.response = new JwtResponse(accessToken, "Jb0pJ0JxkFQnHz9cF5zX8Q2n4b1yq3QeZb8H2m1Kx7A");
+        this.json = this.objectMapper.writeValueAsString(this.response);
+        this.payload = this.payloadCodec.encode(this.response);
+
+        System.out.printf("%nРазмер результата: JSON - %d байт, Smile + Deflate - %d байт%n",
+                this.json.getBytes(StandardCharsets.UTF_8).length, this.payload.content().length
+        );
+    }
+
+    @Benchmark
+    public String encodeJson() throws Exception {
+        return this.objectMapper.writeValueAsString(this.response);
+    }
+
+    @Benchmark
+    public IdempotencyPayload encodeSmileDeflate() throws Exception {
+        return this.payloadCodec.encode(this.response);
+    }
+
+    @Benchmark
+    public JwtResponse decodeJson() throws Exception {
+        return this.objectMapper.readValue(this.json, JwtResponse.class);
+    }
+
+    @Benchmark
+    public JwtResponse decodeSmileDeflate() throws Exception {
+        return this.payloadCodec.decode(this.payload, JwtResponse.class);
+    }
+}
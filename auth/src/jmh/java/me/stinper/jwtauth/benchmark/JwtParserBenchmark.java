@@ -0,0 +1,58 @@
+package me.stinper.jwtauth.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import me.stinper.jwtauth.core.security.jwt.JwtParserProvider;
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureAlgorithm;
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureKeysProvider;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает пропускную способность разбора токена при построении {@link io.jsonwebtoken.JwtParser} на каждый вызов
+ * и при повторном использовании парсера, заранее построенного {@link JwtParserProvider}. <br>
+ * Запуск: {@code ./gradlew :auth:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtParserBenchmark {
+    private JwtSignatureKeysProvider keysProvider;
+    private JwtParserProvider jwtParserProvider;
+    private String accessToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPair keyPair = BenchmarkKeys.keyPair(JwtSignatureAlgorithm.RS256);
+
+        this.keysProvider = BenchmarkKeys.keysProvider(keyPair, JwtSignatureAlgorithm.RS256);
+        this.jwtParserProvider = new JwtParserProvider(this.keysProvider);
+        this.accessToken = Jwts.builder()
+                .subject(UUID.randomUUID().toString())
+                .expiration(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .signWith(keyPair.getPrivate())
+                .compact();
+    }
+
+    @Benchmark
+    public Claims parserPerCall() {
+        return Jwts.parser()
+                .verifyWith(this.keysProvider.keyRing().activeKey().publicKey())
+                .build()
+                .parseSignedClaims(this.accessToken)
+                .getPayload();
+    }
+
+    @Benchmark
+    public Claims prebuiltParser() {
+        return this.jwtParserProvider.parser()
+                .parseSignedClaims(this.accessToken)
+                .getPayload();
+    }
+}
@@ -0,0 +1,59 @@
+package me.stinper.jwtauth.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureAlgorithm;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает пропускную способность подписи и верификации токена для каждого из {@link JwtSignatureAlgorithm}. <br>
+ * Запуск: {@code ./gradlew :auth:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class JwtSignatureAlgorithmBenchmark {
+    @Param({"RS256", "ES256", "EdDSA"})
+    public JwtSignatureAlgorithm algorithm;
+
+    private KeyPair keyPair;
+    private JwtParser jwtParser;
+    private String signedToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        this.keyPair = BenchmarkKeys.keyPair(this.algorithm);
+        this.jwtParser = Jwts.parser()
+                .verifyWith(this.keyPair.getPublic())
+                .build();
+        this.signedToken = sign();
+    }
+
+    @Benchmark
+    public String sign() {
+        return Jwts.builder()
+                .subject(UUID.randomUUID().toString())
+                .expiration(Date.from(Instant.now().plus(Duration.ofMinutes(10))))
+                .claim("email", "user@gmail.com")
+                .claim("authorities", Map.of("roles", Set.of("ROLE_ADMIN"), "permissions", Set.of("user.read.find-all-users")))
+                .signWith(this.keyPair.getPrivate(), this.algorithm.getSignatureAlgorithm())
+                .compact();
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return this.jwtParser
+                .parseSignedClaims(this.signedToken)
+                .getPayload();
+    }
+}
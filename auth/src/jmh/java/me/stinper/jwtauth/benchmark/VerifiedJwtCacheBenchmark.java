@@ -0,0 +1,76 @@
+package me.stinper.jwtauth.benchmark;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.stinper.jwtauth.core.security.jwt.JwtParserProvider;
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureAlgorithm;
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureKeysProvider;
+import me.stinper.jwtauth.core.security.jwt.cache.CaffeineVerifiedJwtCache;
+import me.stinper.jwtauth.core.security.jwt.cache.NoOpVerifiedJwtCache;
+import me.stinper.jwtauth.core.security.jwt.service.JwtTokenType;
+import me.stinper.jwtauth.core.security.jwt.service.JwtVerificationService;
+import me.stinper.jwtauth.core.security.jwt.service.JwtVerificationServiceImpl;
+import me.stinper.jwtauth.core.security.jwt.service.UnverifiedJwtPrecheck;
+import me.stinper.jwtauth.core.security.jwt.service.VerifiedJwt;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает стоимость верификации Access-токена при попадании в кеш верифицированных токенов и при промахе
+ * (полный разбор токена и проверка RS256 подписи). <br>
+ * Запуск: {@code ./gradlew :auth:jmh}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class VerifiedJwtCacheBenchmark {
+    private JwtVerificationService cachingVerificationService;
+    private JwtVerificationService nonCachingVerificationService;
+    private String accessToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        KeyPair keyPair = BenchmarkKeys.keyPair(JwtSignatureAlgorithm.RS256);
+        JwtSignatureKeysProvider keysProvider = BenchmarkKeys.keysProvider(keyPair, JwtSignatureAlgorithm.RS256);
+
+        this.accessToken = Jwts.builder()
+                .subject(UUID.randomUUID().toString())
+                .expiration(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .claim(JwtTokenType.CLAIM_NAME, JwtTokenType.ACCESS.name())
+                .claim("email", "user@gmail.com")
+                .claim("authorities", Map.of("roles", Set.of("ROLE_ADMIN"), "permissions", Set.of("user.read.find-all-users")))
+                .signWith(keyPair.getPrivate())
+                .compact();
+
+        JwtParserProvider jwtParserProvider = new JwtParserProvider(keysProvider);
+        UnverifiedJwtPrecheck unverifiedJwtPrecheck = new UnverifiedJwtPrecheck(new SimpleMeterRegistry());
+
+        this.cachingVerificationService = new JwtVerificationServiceImpl(
+                jwtParserProvider, new CaffeineVerifiedJwtCache(10_000, new SimpleMeterRegistry()), unverifiedJwtPrecheck
+        );
+        this.nonCachingVerificationService = new JwtVerificationServiceImpl(
+                jwtParserProvider, new NoOpVerifiedJwtCache(), unverifiedJwtPrecheck
+        );
+
+        //Прогрев кеша: все последующие вызовы будут попаданиями
+        this.cachingVerificationService.verifyToken(this.accessToken, JwtTokenType.ACCESS);
+    }
+
+    @Benchmark
+    public VerifiedJwt cacheHit() {
+        return this.cachingVerificationService.verifyToken(this.accessToken, JwtTokenType.ACCESS);
+    }
+
+    @Benchmark
+    public VerifiedJwt cacheMiss() {
+        return this.nonCachingVerificationService.verifyToken(this.accessToken, JwtTokenType.ACCESS);
+    }
+}
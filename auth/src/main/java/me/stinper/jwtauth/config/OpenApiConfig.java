@@ -9,6 +9,7 @@ import io.swagger.v3.oas.models.media.Content;
 import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.parameters.Parameter;
 import io.swagger.v3.oas.models.responses.ApiResponse;
+import me.stinper.jwtauth.core.Headers;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
@@ -107,6 +108,16 @@ public class OpenApiConfig {
                 .example("Bearer ...")
         );
 
+        parameters.put("IdempotencyKey", new Parameter()
+                .name(Headers.X_IDEMPOTENCY_KEY)
+                .description("Уникальный ключ идемпотентности в формате UUID. Повторный запрос с тем же ключом " +
+                        "получает сохраненный ответ, операция не выполняется повторно")
+                .required(false)
+                .in(ParameterIn.HEADER.toString())
+                .schema(new Schema<String>().type("string").format("uuid"))
+                .example("019555f7-af82-70d3-914d-271fbcb87b40")
+        );
+
         return parameters;
     }
 }
@@ -1,9 +1,13 @@
 package me.stinper.jwtauth.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import me.stinper.jwtauth.core.security.AuthorityChecker;
 import me.stinper.jwtauth.core.security.UserModelAuthorityChecker;
 import me.stinper.jwtauth.core.security.jwt.JwtAuthenticationFilter;
+import me.stinper.jwtauth.core.security.password.BoundedExecutorPasswordEncoder;
+import me.stinper.jwtauth.core.security.password.CalibratedPasswordEncoderFactory;
+import me.stinper.jwtauth.core.security.password.PasswordHashingAlgorithm;
 import me.stinper.jwtauth.repository.UserRepository;
 import me.stinper.jwtauth.service.security.PermissionSecurityServiceImpl;
 import me.stinper.jwtauth.service.security.RoleSecurityServiceImpl;
@@ -11,6 +15,7 @@ import me.stinper.jwtauth.service.security.contract.PermissionSecurityService;
 import me.stinper.jwtauth.service.security.contract.RoleSecurityService;
 import me.stinper.jwtauth.service.security.contract.UserSecurityService;
 import me.stinper.jwtauth.service.security.UserSecurityServiceImpl;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -20,11 +25,12 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.time.Duration;
+
 @Configuration
 @RequiredArgsConstructor
 @EnableMethodSecurity
@@ -61,8 +67,17 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${app.auth.security.password-hashing.algorithm}") PasswordHashingAlgorithm algorithm,
+                                           @Value("${app.auth.security.password-hashing.latency-budget}") Duration latencyBudget,
+                                           @Value("${app.auth.security.password-hashing.threads}") int threads,
+                                           @Value("${app.auth.security.password-hashing.queue-capacity}") int queueCapacity,
+                                           MeterRegistry meterRegistry) {
+        return new BoundedExecutorPasswordEncoder(
+                CalibratedPasswordEncoderFactory.create(algorithm, latencyBudget),
+                threads,
+                queueCapacity,
+                meterRegistry
+        );
     }
 
     @Bean
@@ -1,8 +1,8 @@
 package me.stinper.jwtauth.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,11 +11,11 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
 import me.stinper.jwtauth.core.Headers;
+import me.stinper.jwtauth.core.idempotency.annotation.Idempotent;
 import me.stinper.jwtauth.core.security.jwt.JwtAuthUserDetails;
 import me.stinper.jwtauth.dto.JwtResponse;
 import me.stinper.jwtauth.dto.user.LoginRequest;
 import me.stinper.jwtauth.service.authentication.contract.AuthService;
-import me.stinper.jwtauth.service.entity.contract.IdempotencyService;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.AuthenticationException;
@@ -23,7 +23,6 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Set;
-import java.util.UUID;
 
 @Tag(
         name = "Операции аутентификации"
@@ -33,10 +32,10 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AuthController {
     private final AuthService authService;
-    private final IdempotencyService idempotencyService;
     private final jakarta.validation.Validator validator;
 
     @PostMapping("/login")
+    @Idempotent(required = true)
     @Operation(
             summary = "Вход",
             description = "Предназначен для получения пары (Access/Refresh) JWT токенов",
@@ -63,22 +62,18 @@ public class AuthController {
                             name = Headers.X_IDEMPOTENCY_KEY,
                             description = "Уникальный ключ идемпотентности в формате UUID",
                             required = true,
+                            in = ParameterIn.HEADER,
                             example = "019555f7-af82-70d3-914d-271fbcb87b40"
                     )
             }
     )
-    public ResponseEntity<JwtResponse> login(@RequestHeader(Headers.X_IDEMPOTENCY_KEY) UUID idempotencyKey,
-                                             @RequestBody LoginRequest loginRequest)
-            throws AuthenticationException, JsonProcessingException {
+    public ResponseEntity<JwtResponse> login(@RequestBody LoginRequest loginRequest) throws AuthenticationException {
         Set<ConstraintViolation<LoginRequest>> constraintViolations = this.validator.validate(loginRequest);
 
         if (!constraintViolations.isEmpty())
             throw new ConstraintViolationException(constraintViolations);
 
-        return ResponseEntity
-                .ok(
-                        idempotencyService.process(idempotencyKey, () -> authService.login(loginRequest), JwtResponse.class)
-                );
+        return ResponseEntity.ok(authService.login(loginRequest));
     }
 
     @PostMapping("/logout")
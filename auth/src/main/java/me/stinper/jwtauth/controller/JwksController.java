@@ -1,38 +1,70 @@
 package me.stinper.jwtauth.controller;
 
-import me.stinper.jwtauth.dto.JwksDto;
+import me.stinper.jwtauth.dto.JwksDocument;
+import me.stinper.jwtauth.service.authentication.contract.JwksService;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.security.interfaces.RSAPublicKey;
-import java.util.Base64;
-import java.util.List;
+import java.time.Duration;
 
 @RestController
 public class JwksController {
-    private final RSAPublicKey publicKey;
+    private final JwksService jwksService;
+    private final CacheControl cacheControl;
 
-    public JwksController(@Value("${app.auth.security.jwt.public-key}") RSAPublicKey publicKey) {
-        this.publicKey = publicKey;
+    public JwksController(JwksService jwksService,
+                          @Value("${app.auth.security.jwt.jwks.cache-max-age}") Duration cacheMaxAge) {
+        this.jwksService = jwksService;
+        this.cacheControl = CacheControl.maxAge(cacheMaxAge).cachePublic();
     }
 
-    @GetMapping("/.well-known/jwks.json")
-    public ResponseEntity<JwksDto> getJwks() {
+    @GetMapping(value = "/.well-known/jwks.json", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<byte[]> getJwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+                                          @Nullable String ifNoneMatch) {
+        JwksDocument jwksDocument = jwksService.getJwksDocument();
 
-        String modulus = Base64.getUrlEncoder().encodeToString(publicKey.getModulus().toByteArray());
-        String exponent = Base64.getUrlEncoder().encodeToString(publicKey.getPublicExponent().toByteArray());
+        if (matchesETag(ifNoneMatch, jwksDocument.eTag()))
+            return ResponseEntity
+                    .status(HttpStatus.NOT_MODIFIED)
+                    .eTag(jwksDocument.eTag())
+                    .cacheControl(cacheControl)
+                    .build();
 
         return ResponseEntity
-                .ok(new JwksDto(
-                        List.of(
-                                JwksDto.KeyBody.RSA_KEY
-                                        .n(modulus)
-                                        .e(exponent)
-                                        .build()
-                        )
-                ));
+                .ok()
+                .eTag(jwksDocument.eTag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(jwksDocument.content());
+    }
+
+    /**
+     * Сравнивает значения заголовка If-None-Match с ETag документа. Для If-None-Match используется слабое сравнение
+     * (RFC 9110, 13.1.2), поэтому префикс {@code W/} игнорируется
+     */
+    private static boolean matchesETag(@Nullable String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null)
+            return false;
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.strip();
+
+            if (value.startsWith("W/"))
+                value = value.substring(2);
+
+            if (value.equals("*") || value.equals(eTag))
+                return true;
+        }
+
+        return false;
     }
 
 }
@@ -10,8 +10,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
+import me.stinper.jwtauth.core.idempotency.annotation.Idempotent;
+import me.stinper.jwtauth.core.pagination.KeysetSortFields;
 import me.stinper.jwtauth.core.security.permission.annotation.OperationPermission;
 import me.stinper.jwtauth.dto.EntityPaginationRequest;
+import me.stinper.jwtauth.dto.EntityScrollRequest;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.permission.PermissionCreationRequest;
 import me.stinper.jwtauth.dto.permission.PermissionDescriptionUpdateRequest;
 import me.stinper.jwtauth.dto.permission.PermissionDto;
@@ -66,6 +70,42 @@ public class PermissionController {
     }
 
 
+    @GetMapping(params = "scroll=true")
+    @PreAuthorize("@permissionSecurityService.isAllowedToFindAllPermissions(principal)")
+    @Operation(
+            summary = "Получение прав доступа порциями по курсору",
+            description = """
+                    Предназначен для последовательного обхода прав доступа (keyset-пагинация). В отличие от постраничного
+                    формата, порция выбирается условием по значению поля сортировки последней записи предыдущей порции,
+                    поэтому время получения порции не зависит от ее удаленности от начала списка. Общее количество записей
+                    подсчитывается только при withTotal = true
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Порция успешно получена")
+            },
+            parameters = {
+                    @Parameter(
+                            name = "scroll",
+                            description = "Включает обход по курсору вместо постраничного формата",
+                            required = true,
+                            in = ParameterIn.QUERY,
+                            example = "true"
+                    ),
+                    @Parameter(ref = "Authorization")
+            }
+    )
+    public ResponseEntity<ScrollResponse<PermissionDto>> scroll(@ModelAttribute @ParameterObject EntityScrollRequest entityScrollRequest) {
+        Set<ConstraintViolation<EntityScrollRequest>> constraintViolations = this.validator.validate(entityScrollRequest);
+
+        if (!constraintViolations.isEmpty())
+            throw new ConstraintViolationException(constraintViolations);
+
+        return ResponseEntity.ok(
+                permissionService.scroll(entityScrollRequest.buildScrollQueryFromRequest(KeysetSortFields.PERMISSIONS))
+        );
+    }
+
+
     @GetMapping("/{id}")
     @OperationPermission(
             permission = "permission.read.find-by-id",
@@ -104,6 +144,7 @@ public class PermissionController {
 
 
     @PostMapping
+    @Idempotent
     @OperationPermission(
             permission = "permission.create.create-permission",
             description = "Пользователь с этим правом может создать новое право доступа"
@@ -123,7 +164,8 @@ public class PermissionController {
                     @ApiResponse(responseCode = "201", ref = "Created")
             },
             parameters = {
-                    @Parameter(ref = "Authorization")
+                    @Parameter(ref = "Authorization"),
+                    @Parameter(ref = "IdempotencyKey")
             }
     )
     public ResponseEntity<PermissionDto> create(@RequestBody PermissionCreationRequest permissionCreationRequest) {
@@ -146,6 +188,7 @@ public class PermissionController {
 
 
     @PatchMapping("/{id}/description")
+    @Idempotent
     @OperationPermission(
             permission = "permission.update.description",
             description = "Пользователь с этим правом может обновлять описание права доступа по его идентификатору"
@@ -180,7 +223,8 @@ public class PermissionController {
                             required = true,
                             in = ParameterIn.PATH
                     ),
-                    @Parameter(ref = "Authorization")
+                    @Parameter(ref = "Authorization"),
+                    @Parameter(ref = "IdempotencyKey")
             }
     )
     public ResponseEntity<PermissionDto> updateDescription(@PathVariable Long id,
@@ -197,6 +241,7 @@ public class PermissionController {
 
 
     @DeleteMapping("/{id}")
+    @Idempotent
     @OperationPermission(
             permission = "permission.delete.delete-by-id",
             description = "Пользователь с этим правом может удалить право доступа по его идентификатору"
@@ -222,7 +267,8 @@ public class PermissionController {
                             required = true,
                             in = ParameterIn.PATH
                     ),
-                    @Parameter(ref = "Authorization")
+                    @Parameter(ref = "Authorization"),
+                    @Parameter(ref = "IdempotencyKey")
             }
     )
     public ResponseEntity<?> delete(@PathVariable Long id) throws RelatedEntityExistsException {
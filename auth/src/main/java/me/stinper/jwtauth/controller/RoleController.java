@@ -10,8 +10,12 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
+import me.stinper.jwtauth.core.idempotency.annotation.Idempotent;
+import me.stinper.jwtauth.core.pagination.KeysetSortFields;
 import me.stinper.jwtauth.core.security.permission.annotation.OperationPermission;
 import me.stinper.jwtauth.dto.EntityPaginationRequest;
+import me.stinper.jwtauth.dto.EntityScrollRequest;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.role.RolePermissionUpdateRequest;
 import me.stinper.jwtauth.dto.role.RoleCreationRequest;
 import me.stinper.jwtauth.dto.role.RoleDto;
@@ -65,6 +69,42 @@ public class RoleController {
     }
 
 
+    @GetMapping(params = "scroll=true")
+    @PreAuthorize("@roleSecurityService.isAllowedToFindAllRoles(principal)")
+    @Operation(
+            summary = "Получение ролей порциями по курсору",
+            description = """
+                    Предназначен для последовательного обхода ролей (keyset-пагинация). В отличие от постраничного
+                    формата, порция выбирается условием по значению поля сортировки последней записи предыдущей порции,
+                    поэтому время получения порции не зависит от ее удаленности от начала списка. Общее количество записей
+                    подсчитывается только при withTotal = true
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Порция успешно получена")
+            },
+            parameters = {
+                    @Parameter(
+                            name = "scroll",
+                            description = "Включает обход по курсору вместо постраничного формата",
+                            required = true,
+                            in = ParameterIn.QUERY,
+                            example = "true"
+                    ),
+                    @Parameter(ref = "Authorization")
+            }
+    )
+    public ResponseEntity<ScrollResponse<RoleDto>> scroll(@ModelAttribute @ParameterObject EntityScrollRequest entityScrollRequest) {
+        Set<ConstraintViolation<EntityScrollRequest>> constraintViolations = this.validator.validate(entityScrollRequest);
+
+        if (!constraintViolations.isEmpty())
+            throw new ConstraintViolationException(constraintViolations);
+
+        return ResponseEntity.ok(
+                roleService.scroll(entityScrollRequest.buildScrollQueryFromRequest(KeysetSortFields.ROLES))
+        );
+    }
+
+
     @GetMapping("/{roleName}")
     @OperationPermission(
             permission = "role.read.find-role-by-name",
@@ -104,6 +144,7 @@ public class RoleController {
 
 
     @PostMapping
+    @Idempotent
     @OperationPermission(
             permission = "role.create.create-role",
             description = "Пользователь с этим правом может создавать новую роль в системе"
@@ -124,7 +165,8 @@ public class RoleController {
                     @ApiResponse(responseCode = "201", ref = "Created")
             },
             parameters = {
-                    @Parameter(ref = "Authorization")
+                    @Parameter(ref = "Authorization"),
+                    @Parameter(ref = "IdempotencyKey")
             }
     )
     public ResponseEntity<RoleDto> create(@RequestBody RoleCreationRequest roleCreationRequest) {
@@ -148,6 +190,7 @@ public class RoleController {
 
 
     @PatchMapping("/{roleName}/permissions")
+    @Idempotent
     @OperationPermission(
             permission = "role.update.partial.permissions-list",
             description = "Пользователь с этим правом может обновлять список прав доступа для роли по ее идентификатору"
@@ -182,7 +225,8 @@ public class RoleController {
                             required = true,
                             in = ParameterIn.PATH
                     ),
-                    @Parameter(ref = "Authorization")
+                    @Parameter(ref = "Authorization"),
+                    @Parameter(ref = "IdempotencyKey")
             }
     )
     public ResponseEntity<RoleDto> updatePermissions(@PathVariable String roleName, @RequestBody RolePermissionUpdateRequest permissionUpdateRequest) {
@@ -198,6 +242,7 @@ public class RoleController {
 
 
     @DeleteMapping("/{roleName}")
+    @Idempotent
     @OperationPermission(
             permission = "role.delete.delete-role-by-name",
             description = "Пользователь с этим правом может удалять роли"
@@ -224,7 +269,8 @@ public class RoleController {
                             required = true,
                             in = ParameterIn.PATH
                     ),
-                    @Parameter(ref = "Authorization")
+                    @Parameter(ref = "Authorization"),
+                    @Parameter(ref = "IdempotencyKey")
             }
     )
     public ResponseEntity<?> delete(@PathVariable String roleName) throws RelatedEntityExistsException {
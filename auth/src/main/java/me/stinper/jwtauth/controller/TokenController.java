@@ -48,7 +48,8 @@ public class TokenController {
                             description =
                                     """
                                     Успешное обновление Access-токена, возвращает новый сгенерированный
-                                    Access-токен и старый Refresh-токен (тот, который был использован для его генерации)
+                                    Access-токен и новый Refresh-токен. Использованный Refresh-токен становится
+                                    недействительным, его повторное предъявление отзывает всю цепочку выданных из него токенов
                                     """,
                             content = @Content(
                                     schema = @Schema(implementation = JwtResponse.class),
@@ -10,10 +10,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.RequiredArgsConstructor;
+import me.stinper.jwtauth.core.idempotency.annotation.Idempotent;
+import me.stinper.jwtauth.core.pagination.KeysetSortFields;
 import me.stinper.jwtauth.core.security.jwt.JwtAuthUserDetails;
 import me.stinper.jwtauth.core.security.permission.annotation.OperationPermission;
 import me.stinper.jwtauth.core.security.permission.annotation.Permissions;
 import me.stinper.jwtauth.dto.EntityPaginationRequest;
+import me.stinper.jwtauth.dto.EntityScrollRequest;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.user.PasswordChangeRequest;
 import me.stinper.jwtauth.dto.user.UserCreationRequest;
 import me.stinper.jwtauth.dto.user.UserDto;
@@ -81,6 +85,43 @@ public class UserController {
 
 
 
+    @GetMapping(params = "scroll=true")
+    @PreAuthorize("@userSecurityService.isAllowedToFindAllUsers(principal)")
+    @Operation(
+            summary = "Получение пользователей порциями по курсору",
+            description = """
+                    Предназначен для последовательного обхода пользователей (keyset-пагинация). В отличие от постраничного
+                    формата, порция выбирается условием по значению поля сортировки последней записи предыдущей порции,
+                    поэтому время получения порции не зависит от ее удаленности от начала списка. Общее количество записей
+                    подсчитывается только при withTotal = true
+                    """,
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Порция успешно получена")
+            },
+            parameters = {
+                    @Parameter(
+                            name = "scroll",
+                            description = "Включает обход по курсору вместо постраничного формата",
+                            required = true,
+                            in = ParameterIn.QUERY,
+                            example = "true"
+                    ),
+                    @Parameter(ref = "Authorization")
+            }
+    )
+    public ResponseEntity<ScrollResponse<UserDto>> scroll(@ModelAttribute @ParameterObject EntityScrollRequest entityScrollRequest,
+                                                          @AuthenticationPrincipal JwtAuthUserDetails user) {
+        Set<ConstraintViolation<EntityScrollRequest>> constraintViolations = this.validator.validate(entityScrollRequest);
+
+        if (!constraintViolations.isEmpty())
+            throw new ConstraintViolationException(constraintViolations);
+
+        return ResponseEntity.ok(
+                userService.scroll(entityScrollRequest.buildScrollQueryFromRequest(KeysetSortFields.USERS), userSecurityService.chooseUserFilterStrategy(user))
+        );
+    }
+
+
     @GetMapping("/{uuid}")
     @OperationPermission(
             permission = "user.read.find-by-uuid",
@@ -121,6 +162,7 @@ public class UserController {
 
 
     @PostMapping
+    @Idempotent
     @Operation(
             summary = "Создание пользователя",
             description = "Предназначен для создания (регистрации) нового пользователя",
@@ -134,6 +176,9 @@ public class UserController {
             ),
             responses = {
                 @ApiResponse(responseCode = "201", ref = "Created")
+            },
+            parameters = {
+                    @Parameter(ref = "IdempotencyKey")
             }
     )
     public ResponseEntity<?> create(@RequestBody UserCreationRequest userCreationRequest) {
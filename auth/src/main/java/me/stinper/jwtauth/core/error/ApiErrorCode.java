@@ -10,6 +10,7 @@ public enum ApiErrorCode {
     INVALID_INPUT_VALIDATION_ERROR("invalid-input.validation-error"),
 
     INTERNAL_SERVER_ERROR("internal-server-error"),
+    SERVICE_OVERLOADED("service-overloaded"),
     NOT_FOUND("not-found");
 
     private final String code;
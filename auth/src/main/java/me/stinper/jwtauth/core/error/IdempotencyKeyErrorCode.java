@@ -6,7 +6,9 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 @Getter
 public enum IdempotencyKeyErrorCode {
-    KEY_IS_EXPIRED("idempotency-keys.expired");
+    KEY_IS_EXPIRED("idempotency-keys.expired"),
+    KEY_IS_IN_PROGRESS("idempotency-keys.in-progress"),
+    KEY_IS_REUSED("idempotency-keys.reused");
 
     private final String code;
 }
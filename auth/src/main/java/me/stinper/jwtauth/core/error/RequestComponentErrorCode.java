@@ -10,7 +10,11 @@ public enum RequestComponentErrorCode {
 
     REQUEST_PARAMETER_TYPE_MISMATCH("request.components.parameter.type-mismatch"),
 
-    UNRESOLVED_PROPERTY("request.components.query-params.unresolved-property");
+    UNRESOLVED_PROPERTY("request.components.query-params.unresolved-property"),
+
+    UNSUPPORTED_SORT_PROPERTY("request.components.query-params.unsupported-sort-property"),
+
+    INVALID_CURSOR("request.components.query-params.invalid-cursor");
 
     private final String code;
 
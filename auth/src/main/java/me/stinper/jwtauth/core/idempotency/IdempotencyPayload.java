@@ -0,0 +1,11 @@
+package me.stinper.jwtauth.core.idempotency;
+
+import org.springframework.lang.NonNull;
+
+/**
+ * Сохраненный результат выполнения идемпотентной операции
+ * @param content закодированный результат операции
+ * @param contentType формат, в котором закодирован результат (см. {@link IdempotencyPayloadCodec})
+ */
+public record IdempotencyPayload(@NonNull byte[] content, @NonNull String contentType) {
+}
@@ -0,0 +1,129 @@
+package me.stinper.jwtauth.core.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Кодирует результаты идемпотентных операций для хранения. Результат сериализуется в бинарный формат Smile
+ * и сжимается алгоритмом Deflate ({@value #SMILE_DEFLATE}). Результаты, сохраненные до появления бинарного формата,
+ * хранятся в виде JSON ({@value #JSON}) и по-прежнему могут быть прочитаны.
+ * <p>
+ * Экземпляры {@link ObjectReader} и {@link ObjectWriter} потокобезопасны и создаются один раз для каждого типа
+ */
+@Component
+public class IdempotencyPayloadCodec {
+    public static final String SMILE_DEFLATE = "application/x-jackson-smile+deflate";
+    public static final String JSON = "application/json";
+
+    private final ObjectMapper smileMapper;
+    private final ObjectMapper jsonMapper;
+    private final Map<Class<?>, ObjectWriter> smileWriters = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> smileReaders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectReader> jsonReaders = new ConcurrentHashMap<>();
+
+    public IdempotencyPayloadCodec(ObjectMapper objectMapper) {
+        this.jsonMapper = objectMapper;
+        this.smileMapper = objectMapper.copyWith(new SmileFactory());
+    }
+
+    /**
+     * @param value результат операции
+     * @return закодированный результат в формате {@value #SMILE_DEFLATE}
+     * @throws JsonProcessingException если результат не может быть сериализован
+     */
+    public IdempotencyPayload encode(@NonNull Object value) throws JsonProcessingException {
+        byte[] smile = smileWriters
+                .computeIfAbsent(value.getClass(), smileMapper::writerFor)
+                .writeValueAsBytes(value);
+
+        return new IdempotencyPayload(deflate(smile), SMILE_DEFLATE);
+    }
+
+    /**
+     * @param payload закодированный результат операции
+     * @param targetType тип результата операции
+     * @return результат операции
+     * @throws IllegalArgumentException если формат результата не поддерживается
+     * @throws IllegalStateException если сохраненный результат поврежден или усечен (сжатые данные не распаковываются
+     * либо распакованные данные не соответствуют типу результата)
+     */
+    public <T> T decode(@NonNull IdempotencyPayload payload, @NonNull Class<T> targetType) {
+        try {
+            return switch (payload.contentType()) {
+                case SMILE_DEFLATE -> smileReaders
+                        .computeIfAbsent(targetType, smileMapper::readerFor)
+                        .readValue(inflate(payload.content()));
+                case JSON -> jsonReaders
+                        .computeIfAbsent(targetType, jsonMapper::readerFor)
+                        .readValue(payload.content());
+                default -> throw new IllegalArgumentException("Неподдерживаемый формат результата: " + payload.contentType());
+            };
+        }
+        catch (IOException | DataFormatException e) {
+            //Чтение из массива байт не выполняет ввод-вывод, поэтому любая ошибка чтения означает поврежденные данные
+            throw new IllegalStateException(
+                    "Сохраненный результат операции поврежден (формат '%s', размер %d байт) и не может быть прочитан как %s"
+                            .formatted(payload.contentType(), payload.content().length, targetType.getSimpleName()),
+                    e
+            );
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(data.length);
+            byte[] buffer = new byte[512];
+
+            while (!deflater.finished())
+                output.write(buffer, 0, deflater.deflate(buffer));
+
+            return output.toByteArray();
+        }
+        finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) throws DataFormatException {
+        Inflater inflater = new Inflater();
+
+        try {
+            inflater.setInput(data);
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream(data.length * 2);
+            byte[] buffer = new byte[512];
+
+            while (!inflater.finished()) {
+                int inflated = inflater.inflate(buffer);
+
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    throw new DataFormatException("Неожиданный конец сжатых данных");
+
+                output.write(buffer, 0, inflated);
+            }
+
+            return output.toByteArray();
+        }
+        finally {
+            inflater.end();
+        }
+    }
+}
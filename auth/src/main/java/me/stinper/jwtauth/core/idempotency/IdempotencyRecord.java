@@ -0,0 +1,24 @@
+package me.stinper.jwtauth.core.idempotency;
+
+import me.stinper.jwtauth.entity.IdempotencyKeyStatus;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Состояние ключа идемпотентности, хранящееся в {@link IdempotencyStore}
+ * @param key ключ идемпотентности
+ * @param status состояние ключа
+ * @param issuedAt момент захвата ключа
+ * @param payload результат выполнения операции, отсутствует в состоянии {@link IdempotencyKeyStatus#PENDING}
+ */
+public record IdempotencyRecord(@NonNull UUID key,
+                                @NonNull IdempotencyKeyStatus status,
+                                @NonNull Instant issuedAt,
+                                @Nullable IdempotencyPayload payload) {
+    public boolean isCompleted() {
+        return this.status == IdempotencyKeyStatus.COMPLETED;
+    }
+}
@@ -0,0 +1,45 @@
+package me.stinper.jwtauth.core.idempotency;
+
+import org.springframework.lang.NonNull;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Хранилище ключей идемпотентности. Захват ключа должен быть атомарным: из нескольких одновременных вызовов
+ * {@link #claim(UUID, Instant)} с одним ключом (в т.ч. на разных узлах) успешным может быть только один
+ *
+ * @see JpaIdempotencyStore
+ * @see TieredIdempotencyStore
+ */
+public interface IdempotencyStore {
+    /**
+     * Атомарно захватывает ключ, переводя его в состояние {@link me.stinper.jwtauth.entity.IdempotencyKeyStatus#PENDING}
+     * @param key ключ идемпотентности
+     * @param issuedAt момент захвата ключа, от которого отсчитывается срок его действия
+     * @return true, если ключ захвачен этим вызовом, false - если ключ уже существует
+     */
+    boolean claim(@NonNull UUID key, @NonNull Instant issuedAt);
+
+    /**
+     * @param key ключ идемпотентности
+     * @return состояние ключа, либо пустой {@link Optional}, если ключ не существует
+     */
+    Optional<IdempotencyRecord> find(@NonNull UUID key);
+
+    /**
+     * Сохраняет результат выполнения операции для захваченного ключа
+     * @param key ключ идемпотентности
+     * @param issuedAt момент захвата ключа (тот же, что был передан в {@link #claim(UUID, Instant)})
+     * @param payload закодированный результат выполнения операции
+     * @return true, если результат сохранен, false - если ключ не находится в состоянии PENDING
+     */
+    boolean complete(@NonNull UUID key, @NonNull Instant issuedAt, @NonNull IdempotencyPayload payload);
+
+    /**
+     * Освобождает захваченный ключ, если операция завершилась ошибкой
+     * @param key ключ идемпотентности
+     */
+    void release(@NonNull UUID key);
+}
@@ -0,0 +1,431 @@
+package me.stinper.jwtauth.core.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import me.stinper.jwtauth.core.Headers;
+import me.stinper.jwtauth.core.idempotency.annotation.Idempotent;
+import me.stinper.jwtauth.exception.IdempotencyKeyExpiredException;
+import me.stinper.jwtauth.exception.IdempotencyKeyInProgressException;
+import me.stinper.jwtauth.exception.IdempotencyKeyReusedException;
+import me.stinper.jwtauth.service.entity.contract.IdempotencyService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.HttpMediaTypeException;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import org.springframework.web.bind.MissingRequestHeaderException;
+import org.springframework.web.bind.UnsatisfiedServletRequestParameterException;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Обеспечивает идемпотентность методов контроллеров, помеченных {@link Idempotent}. Выполнение запроса оборачивается
+ * в {@link IdempotencyService#process}, а результатом операции считается отправленный ответ: статус, заголовки
+ * {@code Content-Type} и {@code Location} и тело. Повторный запрос с тем же ключом получает сохраненный ответ,
+ * контроллер при этом не вызывается.
+ * <p>
+ * Ответы с ошибкой не сохраняются: ключ освобождается, и запрос можно повторить с тем же ключом.
+ * <p>
+ * Ключ из заголовка объединяется с методом и URI запроса и именем пользователя, поэтому один и тот же ключ,
+ * использованный для разных операций или разными пользователями, не приводит к возврату чужого ответа. Вместе
+ * с ответом сохраняется SHA-256 дайджест тела запроса: повторное использование ключа с другим телом запроса
+ * отклоняется ({@link IdempotencyKeyReusedException}, статус 422), а не выполняет операцию повторно и не возвращает
+ * ответ на другой запрос. Это важно для эндпоинтов, доступных анонимно (вход, регистрация): все анонимные клиенты
+ * имеют одно и то же имя пользователя. Дайджест вычисляется по мере чтения тела контроллером, тело не буферизуется.
+ * <p>
+ * Безопасные методы (GET, HEAD, OPTIONS, TRACE) не изменяют состояние, поэтому для них фильтр не выполняется
+ * и обработчик запроса не ищется. Фильтр выполняется после фильтров Spring Security, чтобы пользователь уже был
+ * аутентифицирован
+ */
+@Component
+@Slf4j
+public class IdempotentRequestFilter extends OncePerRequestFilter {
+    private static final String ANONYMOUS_PRINCIPAL = "anonymous";
+    private static final Set<String> SAFE_METHODS = Set.of(
+            HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name(), HttpMethod.TRACE.name()
+    );
+
+    private final IdempotencyService idempotencyService;
+    private final RequestMappingHandlerMapping handlerMapping;
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public IdempotentRequestFilter(IdempotencyService idempotencyService,
+                                   @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
+                                   @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) {
+        this.idempotencyService = idempotencyService;
+        this.handlerMapping = handlerMapping;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return SAFE_METHODS.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        HandlerMethod handlerMethod = this.resolveHandlerMethod(request);
+        Idempotent idempotent = handlerMethod == null ? null : handlerMethod.getMethodAnnotation(Idempotent.class);
+
+        if (idempotent == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String headerValue = request.getHeader(Headers.X_IDEMPOTENCY_KEY);
+
+        if (!StringUtils.hasText(headerValue)) {
+            if (idempotent.required())
+                this.handlerExceptionResolver.resolveException(request, response, handlerMethod,
+                        new MissingRequestHeaderException(Headers.X_IDEMPOTENCY_KEY, handlerMethod.getReturnType())
+                );
+            else
+                filterChain.doFilter(request, response);
+
+            return;
+        }
+
+        UUID clientKey;
+
+        try {
+            clientKey = UUID.fromString(headerValue);
+        }
+        catch (IllegalArgumentException iae) {
+            this.handlerExceptionResolver.resolveException(request, response, handlerMethod,
+                    new MethodArgumentTypeMismatchException(headerValue, UUID.class, Headers.X_IDEMPOTENCY_KEY, handlerMethod.getReturnType(), iae)
+            );
+            return;
+        }
+
+        this.processIdempotently(new DigestingRequest(request), response, filterChain, handlerMethod, clientKey);
+    }
+
+    private void processIdempotently(DigestingRequest request,
+                                     HttpServletResponse response,
+                                     FilterChain filterChain,
+                                     HandlerMethod handlerMethod,
+                                     UUID clientKey) throws ServletException, IOException {
+        UUID idempotencyKey = this.scopeKey(request, clientKey);
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        AtomicBoolean executed = new AtomicBoolean();
+        IdempotentResponse idempotentResponse;
+
+        try {
+            idempotentResponse = idempotencyService.process(
+                    idempotencyKey,
+                    () -> {
+                        executed.set(true);
+                        return this.execute(request, responseWrapper, filterChain);
+                    },
+                    IdempotentResponse.class
+            );
+        }
+        catch (UnsuccessfulResponseException ure) {
+            //Ответ с ошибкой не сохранен, ключ освобожден - отправляем ответ как есть
+            this.writeResponse(request, response, responseWrapper, handlerMethod, clientKey, executed.get(), ure.getResponse());
+            return;
+        }
+        catch (FilterChainException fce) {
+            if (fce.getCause() instanceof ServletException se)
+                throw se;
+
+            throw (IOException) fce.getCause();
+        }
+        catch (IdempotencyKeyInProgressException | IdempotencyKeyExpiredException | JsonProcessingException e) {
+            this.handlerExceptionResolver.resolveException(request, response, handlerMethod, e);
+            return;
+        }
+
+        this.writeResponse(request, response, responseWrapper, handlerMethod, clientKey, executed.get(), idempotentResponse);
+    }
+
+    /**
+     * Выполняет запрос и возвращает отправленный ответ. Ответ с ошибкой передается через исключение, чтобы ключ
+     * идемпотентности был освобожден
+     */
+    private IdempotentResponse execute(DigestingRequest request,
+                                       ContentCachingResponseWrapper responseWrapper,
+                                       FilterChain filterChain) {
+        String requestDigest;
+
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            requestDigest = request.digest();
+        }
+        catch (ServletException se) {
+            throw new FilterChainException(se);
+        }
+        catch (IOException ioe) {
+            throw new FilterChainException(ioe);
+        }
+
+        IdempotentResponse idempotentResponse = new IdempotentResponse(
+                responseWrapper.getStatus(),
+                responseWrapper.getContentType(),
+                responseWrapper.getHeader(HttpHeaders.LOCATION),
+                responseWrapper.getContentAsByteArray(),
+                requestDigest
+        );
+
+        if (!idempotentResponse.isSuccessful())
+            throw new UnsuccessfulResponseException(idempotentResponse);
+
+        return idempotentResponse;
+    }
+
+    /**
+     * Отправляет ответ клиенту. Если запрос был выполнен в текущем потоке, ответ уже записан в {@code responseWrapper}
+     * и остается только передать тело, иначе (результат взят из хранилища или получен от одновременного запроса
+     * с тем же ключом) ответ восстанавливается из сохраненного результата. Сохраненный ответ возвращается, только
+     * если он получен на запрос с тем же телом
+     */
+    private void writeResponse(DigestingRequest request,
+                               HttpServletResponse response,
+                               ContentCachingResponseWrapper responseWrapper,
+                               HandlerMethod handlerMethod,
+                               UUID clientKey,
+                               boolean executed,
+                               IdempotentResponse idempotentResponse) throws IOException {
+        if (executed) {
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+
+        //Результаты, сохраненные до появления дайджеста, не содержат его и возвращаются без проверки
+        if (idempotentResponse.requestDigest() != null && !idempotentResponse.requestDigest().equals(request.digest())) {
+            log.atWarn().log("[#writeResponse]: Ключ идемпотентности '{}' повторно использован для запроса {} {} с другим телом",
+                    clientKey, request.getMethod(), request.getRequestURI()
+            );
+
+            this.handlerExceptionResolver.resolveException(request, response, handlerMethod,
+                    new IdempotencyKeyReusedException("messages.idempotency-key.reused", clientKey)
+            );
+            return;
+        }
+
+        log.atDebug().log("[#writeResponse]: Ответ на запрос {} {} взят из хранилища, операция не выполнена повторно",
+                request.getMethod(), request.getRequestURI()
+        );
+
+        response.setStatus(idempotentResponse.status());
+
+        if (idempotentResponse.contentType() != null)
+            response.setContentType(idempotentResponse.contentType());
+
+        if (idempotentResponse.location() != null)
+            response.setHeader(HttpHeaders.LOCATION, idempotentResponse.location());
+
+        response.setContentLength(idempotentResponse.body().length);
+        response.getOutputStream().write(idempotentResponse.body());
+    }
+
+    /**
+     * Ограничивает область действия ключа клиента методом и URI запроса и пользователем, выполняющим запрос
+     */
+    private UUID scopeKey(HttpServletRequest request, UUID clientKey) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        String principal = authentication == null || authentication instanceof AnonymousAuthenticationToken
+                ? ANONYMOUS_PRINCIPAL
+                : authentication.getName();
+
+        String scope = request.getMethod() + ' ' + request.getRequestURI() + '\n' + principal + '\n' + clientKey;
+
+        return UUID.nameUUIDFromBytes(scope.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("Алгоритм SHA-256 не поддерживается JVM", nsae);
+        }
+    }
+
+    /**
+     * @return обработчик запроса, либо {@code null}, если обработчик не найден. Запросы, для которых обработчик
+     * не найден (неподдерживаемый метод, тип содержимого и т.п.), передаются дальше по цепочке, чтобы
+     * {@code DispatcherServlet} ответил на них обычным статусом (405, 415 и т.п.)
+     */
+    @Nullable
+    private HandlerMethod resolveHandlerMethod(HttpServletRequest request) throws ServletException {
+        //Фильтр выполняется до DispatcherServlet, поэтому путь запроса, необходимый для поиска обработчика, еще не разобран
+        boolean pathParsed = ServletRequestPathUtils.hasParsedRequestPath(request);
+
+        if (!pathParsed)
+            ServletRequestPathUtils.parseAndCache(request);
+
+        try {
+            HandlerExecutionChain handlerExecutionChain = handlerMapping.getHandler(request);
+
+            return handlerExecutionChain != null && handlerExecutionChain.getHandler() instanceof HandlerMethod handlerMethod
+                    ? handlerMethod
+                    : null;
+        }
+        catch (HttpRequestMethodNotSupportedException | HttpMediaTypeException | UnsatisfiedServletRequestParameterException e) {
+            log.atDebug().log("[#resolveHandlerMethod]: Обработчик запроса {} {} не найден: {}",
+                    request.getMethod(), request.getRequestURI(), e.getMessage()
+            );
+            return null;
+        }
+        catch (ServletException se) {
+            throw se;
+        }
+        catch (Exception e) {
+            throw new ServletException(e);
+        }
+        finally {
+            if (!pathParsed)
+                ServletRequestPathUtils.clearParsedRequestPath(request);
+        }
+    }
+
+    /**
+     * Запрос, для тела которого по мере чтения вычисляется SHA-256 дайджест
+     */
+    private static class DigestingRequest extends HttpServletRequestWrapper {
+        private final MessageDigest messageDigest = sha256();
+        private ServletInputStream inputStream;
+        private BufferedReader reader;
+        private String digest;
+
+        DigestingRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        /**
+         * Дочитывает тело запроса, не прочитанное контроллером, чтобы дайджест не зависел от того, какую часть тела
+         * прочитал контроллер
+         * @return SHA-256 дайджест тела запроса в шестнадцатеричном виде
+         */
+        String digest() throws IOException {
+            if (this.digest == null) {
+                this.getInputStream().transferTo(OutputStream.nullOutputStream());
+                this.digest = HexFormat.of().formatHex(this.messageDigest.digest());
+            }
+
+            return this.digest;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (this.inputStream != null)
+                return this.inputStream;
+
+            ServletInputStream originalStream = super.getInputStream();
+            DigestInputStream digestStream = new DigestInputStream(originalStream, this.messageDigest);
+
+            this.inputStream = new ServletInputStream() {
+                @Override
+                public int read() throws IOException {
+                    return digestStream.read();
+                }
+
+                @Override
+                public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+                    return digestStream.read(buffer, offset, length);
+                }
+
+                /**
+                 * Поток закрывается контейнером сервлетов: после выполнения контроллера (который может закрыть
+                 * поток, например, при чтении JSON) оставшаяся часть тела дочитывается для вычисления дайджеста
+                 */
+                @Override
+                public void close() {
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return originalStream.isFinished();
+                }
+
+                @Override
+                public boolean isReady() {
+                    return originalStream.isReady();
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Асинхронное чтение тела запроса не поддерживается");
+                }
+            };
+
+            return this.inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            if (this.reader == null) {
+                Charset charset = this.getCharacterEncoding() == null
+                        ? StandardCharsets.UTF_8
+                        : Charset.forName(this.getCharacterEncoding());
+
+                this.reader = new BufferedReader(new InputStreamReader(this.getInputStream(), charset));
+            }
+
+            return this.reader;
+        }
+    }
+
+    /**
+     * Переносит проверяемое исключение цепочки фильтров через {@link java.util.function.Supplier}
+     */
+    private static class FilterChainException extends RuntimeException {
+        FilterChainException(Exception cause) {
+            super(cause);
+        }
+    }
+
+    /**
+     * Ответ с ошибкой, который не должен сохраняться под ключом идемпотентности
+     */
+    private static class UnsuccessfulResponseException extends RuntimeException {
+        private final IdempotentResponse response;
+
+        UnsuccessfulResponseException(IdempotentResponse response) {
+            super(null, null, false, false);
+            this.response = response;
+        }
+
+        IdempotentResponse getResponse() {
+            return response;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package me.stinper.jwtauth.core.idempotency;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Ответ идемпотентного метода контроллера в том виде, в котором он был отправлен клиенту
+ * @param status HTTP статус ответа
+ * @param contentType значение заголовка {@code Content-Type}
+ * @param location значение заголовка {@code Location}
+ * @param body тело ответа
+ * @param requestDigest SHA-256 дайджест тела запроса, на который получен ответ, в шестнадцатеричном виде
+ */
+public record IdempotentResponse(int status,
+                                 @Nullable String contentType,
+                                 @Nullable String location,
+                                 @NonNull byte[] body,
+                                 @Nullable String requestDigest) {
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+}
@@ -0,0 +1,64 @@
+package me.stinper.jwtauth.core.idempotency;
+
+import me.stinper.jwtauth.repository.IdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Хранилище ключей идемпотентности в таблице {@code idempotency_keys}. Является источником истины.
+ * <p>
+ * Таблица секционирована по {@code issued_at}, а уникальное ограничение секционированной таблицы обязано включать
+ * ключ секционирования, поэтому атомарность захвата ключа обеспечивается транзакционной рекомендательной блокировкой
+ * на значение ключа. Все запросы просматривают только записи, выданные в пределах срока хранения ключей
+ * ({@code app.idempotency-retention}), что позволяет PostgreSQL отсекать старые секции
+ */
+@Component
+public class JpaIdempotencyStore implements IdempotencyStore {
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final Duration retention;
+
+    public JpaIdempotencyStore(IdempotencyKeyRepository idempotencyKeyRepository,
+                               @Value("${app.idempotency-retention}") Duration retention) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.retention = retention;
+    }
+
+    @Override
+    @Transactional
+    public boolean claim(@NonNull UUID key, @NonNull Instant issuedAt) {
+        idempotencyKeyRepository.lockKey(key);
+        return idempotencyKeyRepository.insertIfAbsent(key, issuedAt, this.notBefore()).isPresent();
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(@NonNull UUID key) {
+        return idempotencyKeyRepository.findByKey(key, this.notBefore())
+                .map(k -> new IdempotencyRecord(
+                        k.getKey(),
+                        k.getStatus(),
+                        k.getIssuedAt(),
+                        k.getResponsePayload() == null ? null : new IdempotencyPayload(k.getResponsePayload(), k.getContentType())
+                ));
+    }
+
+    @Override
+    public boolean complete(@NonNull UUID key, @NonNull Instant issuedAt, @NonNull IdempotencyPayload payload) {
+        return idempotencyKeyRepository.complete(key, this.notBefore(), payload.content(), payload.contentType()) > 0;
+    }
+
+    @Override
+    public void release(@NonNull UUID key) {
+        idempotencyKeyRepository.release(key, this.notBefore());
+    }
+
+    private Instant notBefore() {
+        return Instant.now().minus(this.retention);
+    }
+}
@@ -0,0 +1,170 @@
+package me.stinper.jwtauth.core.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import me.stinper.jwtauth.entity.IdempotencyKeyStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Двухуровневое хранилище ключей идемпотентности: ограниченный по объему кеш в памяти узла перед {@link JpaIdempotencyStore}.
+ * <p>
+ * В кеше хранятся только ключи в состоянии COMPLETED - их содержимое больше не меняется, поэтому кеши разных узлов
+ * не требуют согласования. Запись попадает в кеш при сохранении результата (write-through) и при чтении из БД
+ * (read-through) и удаляется из него по истечении срока действия ключа ({@code app.idempotency-period}). <br>
+ * Метрики кеша публикуются под именем {@value #CACHE_NAME}, время обращения к уровням - в {@value #LATENCY_METER}
+ * (тег {@code tier}), оценка занимаемой памяти - в {@value #MEMORY_METER}
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "app.idempotency-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class TieredIdempotencyStore implements IdempotencyStore {
+    public static final String CACHE_NAME = "idempotency.keys";
+    public static final String LATENCY_METER = "idempotency.store.latency";
+    public static final String MEMORY_METER = "idempotency.store.memory";
+
+    /**
+     * Приблизительный объем памяти, занимаемый записью кеша без учета результата операции (ключ, запись, узел кеша)
+     */
+    private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+    private final JpaIdempotencyStore databaseTier;
+    private final Cache<UUID, IdempotencyRecord> memoryTier;
+    private final Timer memoryTierTimer;
+    private final Timer databaseTierTimer;
+
+    @Autowired
+    public TieredIdempotencyStore(JpaIdempotencyStore databaseTier,
+                                  @Value("${app.idempotency-period}") Duration idempotencyPeriod,
+                                  @Value("${app.idempotency-cache.maximum-size}") DataSize maximumSize,
+                                  MeterRegistry meterRegistry) {
+        this(databaseTier, idempotencyPeriod, maximumSize, meterRegistry, Ticker.systemTicker());
+    }
+
+    TieredIdempotencyStore(JpaIdempotencyStore databaseTier,
+                           Duration idempotencyPeriod,
+                           DataSize maximumSize,
+                           MeterRegistry meterRegistry,
+                           Ticker ticker) {
+        this.databaseTier = databaseTier;
+        this.memoryTier = Caffeine.newBuilder()
+                .maximumWeight(maximumSize.toBytes())
+                .weigher((UUID key, IdempotencyRecord record) -> weightOf(record))
+                .expireAfter(new KeyExpirationExpiry(idempotencyPeriod, ticker))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.memoryTier, CACHE_NAME);
+
+        Gauge.builder(MEMORY_METER, this.memoryTier,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .description("Приблизительный объем памяти, занимаемый кешем ключей идемпотентности")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+
+        this.memoryTierTimer = Timer.builder(LATENCY_METER).tag("tier", "memory").register(meterRegistry);
+        this.databaseTierTimer = Timer.builder(LATENCY_METER).tag("tier", "database").register(meterRegistry);
+    }
+
+    @Override
+    public boolean claim(@NonNull UUID key, @NonNull Instant issuedAt) {
+        //Ключ с сохраненным результатом не может быть захвачен повторно, обращение к БД не требуется
+        if (this.findInMemory(key) != null)
+            return false;
+
+        return databaseTierTimer.record(() -> databaseTier.claim(key, issuedAt));
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> find(@NonNull UUID key) {
+        IdempotencyRecord cachedRecord = this.findInMemory(key);
+
+        if (cachedRecord != null)
+            return Optional.of(cachedRecord);
+
+        Optional<IdempotencyRecord> storedRecord = databaseTierTimer.record(() -> databaseTier.find(key));
+
+        storedRecord
+                .filter(IdempotencyRecord::isCompleted)
+                .ifPresent(record -> memoryTier.put(key, record));
+
+        return storedRecord;
+    }
+
+    @Override
+    public boolean complete(@NonNull UUID key, @NonNull Instant issuedAt, @NonNull IdempotencyPayload payload) {
+        boolean completed = databaseTierTimer.record(() -> databaseTier.complete(key, issuedAt, payload));
+
+        if (completed)
+            memoryTier.put(key, new IdempotencyRecord(key, IdempotencyKeyStatus.COMPLETED, issuedAt, payload));
+
+        return completed;
+    }
+
+    @Override
+    public void release(@NonNull UUID key) {
+        databaseTierTimer.record(() -> databaseTier.release(key));
+    }
+
+    private IdempotencyRecord findInMemory(UUID key) {
+        return memoryTierTimer.record(() -> memoryTier.getIfPresent(key));
+    }
+
+    private static int weightOf(IdempotencyRecord record) {
+        IdempotencyPayload payload = record.payload();
+        return ENTRY_OVERHEAD_BYTES + (payload == null ? 0 : payload.content().length);
+    }
+
+    /**
+     * Устанавливает время жизни записи равным оставшемуся сроку действия ключа. Текущий момент берется из того же
+     * источника времени, что использует кеш, чтобы запись истекала ровно в момент issuedAt + idempotencyPeriod
+     */
+    private static final class KeyExpirationExpiry implements Expiry<UUID, IdempotencyRecord> {
+        private final Duration idempotencyPeriod;
+        private final long originNanos;
+        private final Instant origin;
+
+        KeyExpirationExpiry(Duration idempotencyPeriod, Ticker ticker) {
+            this.idempotencyPeriod = idempotencyPeriod;
+            this.originNanos = ticker.read();
+            this.origin = Instant.now();
+        }
+
+        @Override
+        public long expireAfterCreate(UUID key, IdempotencyRecord value, long currentTime) {
+            Instant expiresAt = value.issuedAt().plus(this.idempotencyPeriod);
+            return Math.max(0, Duration.between(this.toInstant(currentTime), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(UUID key, IdempotencyRecord value, long currentTime, long currentDuration) {
+            return this.expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(UUID key, IdempotencyRecord value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private Instant toInstant(long tickerNanos) {
+            return this.origin.plusNanos(tickerNanos - this.originNanos);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package me.stinper.jwtauth.core.idempotency.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Помечает метод контроллера как идемпотентный по заголовку {@link me.stinper.jwtauth.core.Headers#X_IDEMPOTENCY_KEY}.
+ * Успешный ответ (статус 2xx) сохраняется и при повторном запросе с тем же ключом возвращается без вызова
+ * контроллера. Ключ действует в пределах метода и URI запроса и аутентифицированного пользователя; повторный
+ * запрос с тем же ключом, но другим телом отклоняется.
+ * Аннотация учитывается только для методов, изменяющих состояние (POST, PUT, PATCH, DELETE)
+ * @see me.stinper.jwtauth.core.idempotency.IdempotentRequestFilter
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Idempotent {
+    /**
+     * Обязателен ли заголовок с ключом идемпотентности. Если заголовок не обязателен и отсутствует,
+     * запрос выполняется как обычно
+     */
+    boolean required() default false;
+}
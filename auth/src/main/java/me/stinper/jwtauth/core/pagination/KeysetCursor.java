@@ -0,0 +1,69 @@
+package me.stinper.jwtauth.core.pagination;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.stinper.jwtauth.exception.InvalidScrollCursorException;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Позиция постраничного обхода по курсору: поле и направление сортировки, а также значение ключа сортировки
+ * последней выданной записи. Клиенту передается в виде непрозрачной строки (Base64URL от JSON)
+ * @param sortBy поле сортировки
+ * @param direction направление сортировки
+ * @param keys значение поля сортировки последней выданной записи
+ */
+public record KeysetCursor(@NonNull String sortBy, @NonNull Sort.Direction direction, @NonNull Map<String, Object> keys) {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(OBJECT_MAPPER.writeValueAsBytes(this));
+        }
+        catch (JsonProcessingException jpe) {
+            throw new IllegalStateException("Не удалось сформировать курсор", jpe);
+        }
+    }
+
+    /**
+     * Восстанавливает курсор и приводит значения ключей к типам полей сущности
+     * @throws InvalidScrollCursorException если курсор поврежден или содержит поля, недопустимые для сущности
+     */
+    public static KeysetCursor decode(@NonNull String cursor, @NonNull KeysetSortFields sortFields) {
+        KeysetCursor decoded;
+
+        try {
+            decoded = OBJECT_MAPPER.readValue(Base64.getUrlDecoder().decode(cursor), KeysetCursor.class);
+        }
+        catch (IllegalArgumentException | IOException e) {
+            throw new InvalidScrollCursorException("messages.request-components.query-params.invalid-cursor");
+        }
+
+        if (decoded.sortBy() == null || decoded.direction() == null || decoded.keys() == null
+                || !sortFields.isSupported(decoded.sortBy())
+                || !decoded.keys().keySet().equals(Set.of(decoded.sortBy())))
+            throw new InvalidScrollCursorException("messages.request-components.query-params.invalid-cursor");
+
+        Map<String, Object> typedKeys = new HashMap<>();
+
+        try {
+            decoded.keys().forEach((property, value) -> {
+                if (value == null)
+                    throw new IllegalArgumentException("Значение ключа '" + property + "' отсутствует");
+
+                typedKeys.put(property, OBJECT_MAPPER.convertValue(value, sortFields.properties().get(property)));
+            });
+        }
+        catch (IllegalArgumentException iae) {
+            throw new InvalidScrollCursorException("messages.request-components.query-params.invalid-cursor");
+        }
+
+        return new KeysetCursor(decoded.sortBy(), decoded.direction(), typedKeys);
+    }
+}
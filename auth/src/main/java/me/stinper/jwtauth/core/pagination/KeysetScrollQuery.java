@@ -0,0 +1,98 @@
+package me.stinper.jwtauth.core.pagination;
+
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Запрос порции записей при постраничном обходе по курсору. В отличие от {@link org.springframework.data.domain.Pageable},
+ * не использует {@code OFFSET}: следующая порция выбирается условием по ключу сортировки последней выданной записи,
+ * поэтому время выборки не зависит от того, насколько далеко продвинулся обход.
+ * <p>
+ * {@code Repository#scroll} не используется: Spring Data всегда дополняет сортировку идентификатором и строит условие
+ * вида {@code (key > ?) OR (key = ? AND id > ?)}, которое не сводится к диапазону индекса. Поля сортировки уникальны
+ * (см. {@link KeysetSortFields}), поэтому условие строится по одному полю
+ * @param sortBy поле сортировки
+ * @param direction направление сортировки
+ * @param position позиция, с которой начинается порция
+ * @param size максимальное количество записей в порции
+ * @param withTotal требуется ли подсчитать общее количество записей
+ * @param sortFields допустимые поля сортировки сущности
+ */
+public record KeysetScrollQuery(@NonNull String sortBy,
+                                @NonNull Sort.Direction direction,
+                                @NonNull KeysetScrollPosition position,
+                                int size,
+                                boolean withTotal,
+                                @NonNull KeysetSortFields sortFields) {
+    public Sort sort() {
+        return Sort.by(direction, sortBy);
+    }
+
+    /**
+     * Дополняет спецификацию условием {@code key > ?} ({@code key < ?} при сортировке по убыванию) по ключу
+     * последней выданной записи. Для первой порции спецификация возвращается без изменений
+     */
+    @NonNull
+    public <T> Specification<T> applyTo(@NonNull Specification<T> specification) {
+        if (position.isInitial())
+            return specification;
+
+        @SuppressWarnings("unchecked")
+        Comparable<Object> lastKey = (Comparable<Object>) position.getKeys().get(sortBy);
+
+        Specification<T> afterLastKey = (root, query, criteriaBuilder) -> direction.isAscending()
+                ? criteriaBuilder.greaterThan(root.<Comparable<Object>>get(sortBy), lastKey)
+                : criteriaBuilder.lessThan(root.<Comparable<Object>>get(sortBy), lastKey);
+
+        return specification.and(afterLastKey);
+    }
+
+    /**
+     * @return количество выбираемых записей: на одну больше размера порции, чтобы определить, есть ли следующая порция
+     */
+    public int limit() {
+        return size + 1;
+    }
+
+    /**
+     * Формирует порцию из записей, выбранных с ограничением {@link #limit()}
+     */
+    @NonNull
+    public <T> Window<T> toWindow(@NonNull List<T> fetched) {
+        boolean hasNext = fetched.size() > size;
+        List<T> content = hasNext ? fetched.subList(0, size) : fetched;
+
+        return Window.from(
+                content,
+                index -> ScrollPosition.forward(Map.of(
+                        sortBy, PropertyAccessorFactory.forBeanPropertyAccess(content.get(index)).getPropertyValue(sortBy)
+                )),
+                hasNext
+        );
+    }
+
+    /**
+     * @return курсор для получения следующей порции записей, либо {@code null}, если выбранная порция последняя
+     */
+    @Nullable
+    public String nextCursor(@NonNull Window<?> window) {
+        if (!window.hasNext() || window.isEmpty())
+            return null;
+
+        ScrollPosition lastPosition = window.positionAt(window.size() - 1);
+
+        if (!(lastPosition instanceof KeysetScrollPosition keysetPosition))
+            throw new IllegalStateException("Ожидалась позиция типа KeysetScrollPosition, получено: " + lastPosition);
+
+        return new KeysetCursor(sortBy, direction, keysetPosition.getKeys()).encode();
+    }
+}
@@ -0,0 +1,36 @@
+package me.stinper.jwtauth.core.pagination;
+
+import org.springframework.lang.NonNull;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Поля сущности, по которым допускается постраничный обход по курсору (keyset pagination). Допускаются только
+ * уникальные поля с ограничением NOT NULL: сортировка по такому полю однозначна без дополнительного поля, поэтому
+ * следующая порция выбирается одним сравнением {@code key > ?} ({@code key < ?} при сортировке по убыванию),
+ * которое вместе с сортировкой выполняется как просмотр диапазона уникального индекса поля, без просмотра уже
+ * пройденных записей
+ * @param idProperty имя идентификатора сущности, по которому записи сортируются по умолчанию
+ * @param properties допустимые поля сортировки (включая идентификатор) и их типы
+ */
+public record KeysetSortFields(@NonNull String idProperty, @NonNull Map<String, Class<?>> properties) {
+    public static final KeysetSortFields USERS = new KeysetSortFields(
+            "uuid",
+            Map.of("uuid", UUID.class, "email", String.class)
+    );
+
+    public static final KeysetSortFields ROLES = new KeysetSortFields(
+            "id",
+            Map.of("id", Long.class, "roleName", String.class)
+    );
+
+    public static final KeysetSortFields PERMISSIONS = new KeysetSortFields(
+            "id",
+            Map.of("id", Long.class, "permission", String.class)
+    );
+
+    public boolean isSupported(String property) {
+        return properties.containsKey(property);
+    }
+}
@@ -0,0 +1,62 @@
+package me.stinper.jwtauth.core.scheduling;
+
+import org.springframework.lang.NonNull;
+
+import java.time.Duration;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Удаление большого количества записей небольшими порциями. Каждая порция удаляется в отдельной короткой транзакции,
+ * поэтому блокировки строк и индексов не удерживаются на все время очистки, а между порциями делается пауза,
+ * чтобы очистка не конкурировала с основной нагрузкой за ресурсы БД
+ */
+public final class ChunkedDeletion {
+    private ChunkedDeletion() {}
+
+    /**
+     * Итог выполнения очистки
+     * @param deleted общее количество удаленных записей
+     * @param chunks количество выполненных порций
+     * @param elapsed время выполнения очистки (включая паузы между порциями)
+     */
+    public record Result(long deleted, int chunks, Duration elapsed) {}
+
+    /**
+     * Выполняет удаление порциями, пока очередная порция не окажется неполной, не будет достигнут лимит порций
+     * или поток не будет прерван
+     * @param chunkDeletion функция, удаляющая не более переданного количества записей и возвращающая количество удаленных
+     * @param chunkSize максимальный размер порции
+     * @param pause пауза между порциями
+     * @param maxChunks максимальное количество порций за один запуск
+     * @return итог выполнения очистки
+     */
+    public static Result run(@NonNull IntUnaryOperator chunkDeletion, int chunkSize, @NonNull Duration pause, int maxChunks) {
+        if (chunkSize <= 0 || maxChunks <= 0)
+            throw new IllegalArgumentException("Размер порции и количество порций должны быть положительными");
+
+        long startedAt = System.nanoTime();
+        long deleted = 0;
+        int chunks = 0;
+
+        while (chunks < maxChunks) {
+            int deletedInChunk = chunkDeletion.applyAsInt(chunkSize);
+            deleted += deletedInChunk;
+            chunks++;
+
+            if (deletedInChunk < chunkSize || chunks == maxChunks)
+                break;
+
+            if (!pause.isZero()) {
+                try {
+                    Thread.sleep(pause);
+                }
+                catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+
+        return new Result(deleted, chunks, Duration.ofNanos(System.nanoTime() - startedAt));
+    }
+}
@@ -0,0 +1,223 @@
+package me.stinper.jwtauth.core.scheduling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Обслуживает часовые секции таблицы {@code idempotency_keys}: заранее создает секции на ближайшие часы и удаляет
+ * секции, все ключи которых старше срока хранения ({@code app.idempotency-retention}). Удаление секции целиком
+ * не порождает "мертвых" строк и не требует последующей очистки таблицы (VACUUM), в отличие от построчного удаления.
+ * <p>
+ * Секция сначала отсоединяется с {@code DETACH PARTITION CONCURRENTLY}, которое не блокирует чтение и запись
+ * в остальные секции, поэтому все команды выполняются в режиме автофиксации. Если отсоединение было прервано (например,
+ * по таймауту или при остановке узла), секция остается в состоянии "ожидает отсоединения"
+ * ({@code pg_inherits.inhdetachpending}) и повторное {@code DETACH CONCURRENTLY} для нее завершается ошибкой - такое
+ * отсоединение завершается командой {@code DETACH PARTITION ... FINALIZE}. Одновременное обслуживание с нескольких
+ * узлов исключается сессионной рекомендательной блокировкой
+ */
+@Component
+@Slf4j
+public class IdempotencyKeysPartitionMaintenanceScheduler {
+    private static final String PARENT_TABLE = "idempotency_keys";
+    private static final String PARTITION_PREFIX = PARENT_TABLE + "_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHH");
+    static final long MAINTENANCE_LOCK_ID = 0x6964656d706f74L; //"idempot"
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration retention;
+    private final int precreateHours;
+    private final Counter createdPartitionsCounter;
+    private final Counter droppedPartitionsCounter;
+
+    public IdempotencyKeysPartitionMaintenanceScheduler(JdbcTemplate jdbcTemplate,
+                                                        @Value("${app.idempotency-retention}") Duration retention,
+                                                        @Value("${app.idempotency-partitions.precreate-hours}") int precreateHours,
+                                                        MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.retention = retention;
+        this.precreateHours = precreateHours;
+        this.createdPartitionsCounter = Counter.builder("idempotency.partitions.created")
+                .description("Количество созданных секций таблицы ключей идемпотентности")
+                .register(meterRegistry);
+        this.droppedPartitionsCounter = Counter.builder("idempotency.partitions.dropped")
+                .description("Количество удаленных секций таблицы ключей идемпотентности с истекшими ключами")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Выполняется также при запуске приложения, чтобы секция на текущий час существовала даже после длительного простоя
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.idempotency-partitions.cron}")
+    @Async
+    public void maintainPartitions() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!this.tryLock(connection)) {
+                log.info("[#maintainPartitions]: Обслуживание секций ключей идемпотентности уже выполняется другим узлом");
+                return null;
+            }
+
+            try {
+                Instant currentHour = Instant.now().truncatedTo(ChronoUnit.HOURS);
+                int created = this.createPartitions(connection, currentHour);
+                int dropped = this.dropExpiredPartitions(connection, Instant.now().minus(this.retention));
+
+                log.info("[#maintainPartitions]: Проведено обслуживание секций ключей идемпотентности. Создано секций: {}, удалено секций: {}",
+                        created, dropped
+                );
+            }
+            finally {
+                this.unlock(connection);
+            }
+
+            return null;
+        });
+    }
+
+    private int createPartitions(Connection connection, Instant currentHour) throws SQLException {
+        int created = 0;
+
+        try (Statement statement = connection.createStatement()) {
+            for (int i = 0; i <= this.precreateHours; i++) {
+                Instant from = currentHour.plus(i, ChronoUnit.HOURS);
+                String partitionName = partitionName(from);
+
+                if (this.partitionExists(connection, partitionName))
+                    continue;
+
+                statement.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')",
+                        partitionName, PARENT_TABLE, from, from.plus(1, ChronoUnit.HOURS)
+                ));
+
+                createdPartitionsCounter.increment();
+                created++;
+            }
+        }
+
+        return created;
+    }
+
+    private int dropExpiredPartitions(Connection connection, Instant retainedFrom) throws SQLException {
+        int dropped = 0;
+
+        for (Partition partition : this.findPartitions(connection)) {
+            String partitionName = partition.name();
+            Instant from;
+
+            try {
+                from = LocalDateTime.parse(partitionName.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX_FORMAT)
+                        .toInstant(ZoneOffset.UTC);
+            }
+            catch (DateTimeParseException | IndexOutOfBoundsException ex) {
+                log.warn("[#dropExpiredPartitions]: Секция {} не соответствует формату имени и пропущена", partitionName);
+                continue;
+            }
+
+            if (from.plus(1, ChronoUnit.HOURS).isAfter(retainedFrom))
+                continue;
+
+            try (Statement statement = connection.createStatement()) {
+                if (partition.detachPending()) {
+                    log.warn("[#dropExpiredPartitions]: Отсоединение секции {} было прервано ранее и будет завершено", partitionName);
+                    statement.execute(String.format("ALTER TABLE %s DETACH PARTITION %s FINALIZE", PARENT_TABLE, partitionName));
+                }
+                else
+                    statement.execute(String.format("ALTER TABLE %s DETACH PARTITION %s CONCURRENTLY", PARENT_TABLE, partitionName));
+
+                statement.execute(String.format("DROP TABLE %s", partitionName));
+            }
+            catch (SQLException sqle) {
+                log.warn("[#dropExpiredPartitions]: Не удалось удалить секцию {}: {}", partitionName, sqle.getMessage());
+                continue;
+            }
+
+            droppedPartitionsCounter.increment();
+            dropped++;
+        }
+
+        return dropped;
+    }
+
+    /**
+     * Секции, отсоединение которых было прервано, возвращаются первыми: пока такая секция существует,
+     * PostgreSQL не позволяет начать отсоединение других секций с {@code CONCURRENTLY}
+     */
+    private List<Partition> findPartitions(Connection connection) throws SQLException {
+        List<Partition> partitions = new ArrayList<>();
+
+        try (var statement = connection.prepareStatement("""
+                SELECT child.relname, i.inhdetachpending
+                FROM pg_inherits i
+                    JOIN pg_class parent ON parent.oid = i.inhparent
+                    JOIN pg_class child ON child.oid = i.inhrelid
+                WHERE parent.relname = ?
+                ORDER BY i.inhdetachpending DESC, child.relname
+                """)) {
+            statement.setString(1, PARENT_TABLE);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next())
+                    partitions.add(new Partition(rs.getString(1), rs.getBoolean(2)));
+            }
+        }
+
+        return partitions;
+    }
+
+    private boolean partitionExists(Connection connection, String partitionName) throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            statement.setString(1, partitionName);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, MAINTENANCE_LOCK_ID);
+
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (var statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, MAINTENANCE_LOCK_ID);
+            statement.execute();
+        }
+    }
+
+    private static String partitionName(Instant from) {
+        return PARTITION_PREFIX + PARTITION_SUFFIX_FORMAT.format(LocalDateTime.ofInstant(from, ZoneOffset.UTC));
+    }
+
+    private record Partition(String name, boolean detachPending) {}
+}
@@ -0,0 +1,68 @@
+package me.stinper.jwtauth.core.scheduling;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import me.stinper.jwtauth.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Периодически удаляет из БД Refresh-токены с истекшим сроком действия. Удаление выполняется порциями
+ * (см. {@link ChunkedDeletion}), чтобы не удерживать блокировки на таблице {@code refresh_tokens} длительное время
+ */
+@Component
+@Slf4j
+public class RefreshTokensPurgeScheduler {
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Counter purgedTokensCounter;
+    private final Timer purgeTimer;
+
+    @Value("${app.auth.security.refresh-token.purge.chunk-size}")
+    private int chunkSize;
+
+    @Value("${app.auth.security.refresh-token.purge.chunk-pause}")
+    private Duration chunkPause;
+
+    @Value("${app.auth.security.refresh-token.purge.max-chunks}")
+    private int maxChunks;
+
+    public RefreshTokensPurgeScheduler(RefreshTokenRepository refreshTokenRepository, MeterRegistry meterRegistry) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.purgedTokensCounter = Counter.builder("refresh.tokens.purged")
+                .description("Количество удаленных Refresh-токенов с истекшим сроком действия")
+                .register(meterRegistry);
+        this.purgeTimer = Timer.builder("refresh.tokens.purge")
+                .description("Время выполнения очистки Refresh-токенов с истекшим сроком действия")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.auth.security.refresh-token.purge.cron}")
+    @Async
+    public void purgeExpiredRefreshTokens() {
+        Instant now = Instant.now();
+
+        ChunkedDeletion.Result result = ChunkedDeletion.run(
+                limit -> refreshTokenRepository.deleteExpiredChunk(now, limit),
+                this.chunkSize,
+                this.chunkPause,
+                this.maxChunks
+        );
+
+        purgedTokensCounter.increment(result.deleted());
+        purgeTimer.record(result.elapsed());
+
+        if (result.deleted() > 0)
+            log.info("[#purgeExpiredRefreshTokens]: Проведена очистка истекших Refresh-токенов. Удалено записей: {}, порций: {}, время: {} мс",
+                    result.deleted(), result.chunks(), result.elapsed().toMillis()
+            );
+        else
+            log.info("[#purgeExpiredRefreshTokens]: Очистка истекших Refresh-токенов была запущена, но не затронула ни одной записи");
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.security.core.userdetails.UserDetails;
  *
  * @see AbstractAuthorityChecker
  * @see UserModelAuthorityChecker
+ * @see TokenClaimsAuthorityChecker
  */
 public interface AuthorityChecker {
 
@@ -0,0 +1,29 @@
+package me.stinper.jwtauth.core.security;
+
+import me.stinper.jwtauth.core.security.jwt.JwtClaimsUserDetails;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Проверяет права доступа, вшитые в Access-токен. Используется в режиме аутентификации STATELESS, когда
+ * объект пользователя строится из полезной нагрузки токена ({@link JwtClaimsUserDetails})
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.security.authentication-mode", havingValue = "STATELESS")
+public class TokenClaimsAuthorityChecker extends AbstractAuthorityChecker {
+    public TokenClaimsAuthorityChecker(AdminRoleNameHolder adminRoleNameHolder) {
+        super(adminRoleNameHolder);
+    }
+
+    @Override
+    public boolean hasAuthority(@NonNull UserDetails userDetails, @NonNull String name) {
+        if (userDetails instanceof JwtClaimsUserDetails claimsUserDetails)
+            return claimsUserDetails.hasAuthority(name);
+
+        return userDetails.getAuthorities()
+                .stream()
+                .anyMatch(authority -> name.equals(authority.getAuthority()));
+    }
+}
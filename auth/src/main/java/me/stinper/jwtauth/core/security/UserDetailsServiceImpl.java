@@ -3,16 +3,20 @@ package me.stinper.jwtauth.core.security;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.stinper.jwtauth.core.security.jwt.JwtAuthUserDetails;
+import me.stinper.jwtauth.entity.User;
 import me.stinper.jwtauth.repository.UserRepository;
 import me.stinper.jwtauth.utils.MessageSourceHelper;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
     private final UserRepository userRepository;
     private final MessageSourceHelper messageSourceHelper;
 
@@ -28,4 +32,28 @@ public class UserDetailsServiceImpl implements UserDetailsService {
                     );
                 });
     }
+
+    /**
+     * Вызывается {@link org.springframework.security.authentication.dao.DaoAuthenticationProvider} после успешной
+     * аутентификации, если хэш пароля пользователя создан устаревшим алгоритмом или с устаревшей стоимостью
+     * (см. {@link org.springframework.security.crypto.password.PasswordEncoder#upgradeEncoding(String)})
+     * @param user аутентифицированный пользователь
+     * @param newPassword новый хэш пароля
+     * @return пользователь с обновленным хэшем пароля
+     */
+    @Override
+    @Transactional
+    public JwtAuthUserDetails updatePassword(UserDetails user, String newPassword) {
+        User storedUser = userRepository
+                .findByEmailIgnoreCase(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException(
+                        messageSourceHelper.getLocalizedMessage("messages.user.not-found.email", user.getUsername())
+                ));
+
+        storedUser.setPassword(newPassword);
+
+        log.atInfo().log("[#updatePassword]: Хэш пароля пользователя с UUID '{}' обновлен", storedUser.getUuid());
+
+        return userRepository.save(storedUser);
+    }
 }
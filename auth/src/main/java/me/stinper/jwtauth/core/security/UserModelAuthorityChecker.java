@@ -1,5 +1,6 @@
 package me.stinper.jwtauth.core.security;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.lang.NonNull;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -8,6 +9,7 @@ import org.springframework.stereotype.Component;
 import java.util.Collection;
 
 @Component
+@ConditionalOnProperty(name = "app.auth.security.authentication-mode", havingValue = "STATEFUL", matchIfMissing = true)
 public class UserModelAuthorityChecker extends AbstractAuthorityChecker {
     public UserModelAuthorityChecker(AdminRoleNameHolder adminRoleNameHolder) {
         super(adminRoleNameHolder);
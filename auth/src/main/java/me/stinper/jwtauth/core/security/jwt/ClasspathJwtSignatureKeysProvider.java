@@ -1,28 +1,39 @@
 package me.stinper.jwtauth.core.security.jwt;
 
+import me.stinper.jwtauth.utils.PemKeyUtils;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
-import java.security.PrivateKey;
 import java.security.PublicKey;
-import java.security.interfaces.RSAPrivateKey;
-import java.security.interfaces.RSAPublicKey;
 
+/**
+ * Провайдер единственной пары ключей, загружаемой из classpath. Идентификатор ключа вычисляется из публичного ключа
+ */
 @Component
+@ConditionalOnProperty(name = "app.auth.security.jwt.keys-source", havingValue = "CLASSPATH", matchIfMissing = true)
 public class ClasspathJwtSignatureKeysProvider implements JwtSignatureKeysProvider {
-    @Value("${app.auth.security.jwt.public-key}")
-    private RSAPublicKey publicKey;
+    private final JwtKeyRing keyRing;
 
-    @Value("${app.auth.security.jwt.private-key}")
-    private RSAPrivateKey privateKey;
+    public ClasspathJwtSignatureKeysProvider(@Value("${app.auth.security.jwt.public-key}") Resource publicKey,
+                                             @Value("${app.auth.security.jwt.private-key}") Resource privateKey,
+                                             @Value("${app.auth.security.jwt.signature-algorithm}") JwtSignatureAlgorithm algorithm) {
+        PublicKey loadedPublicKey = PemKeyUtils.readPublicKey(publicKey, algorithm.getKeyFactoryAlgorithm());
 
-    @Override
-    public PublicKey publicKey() {
-        return this.publicKey;
+        this.keyRing = JwtKeyRing.of(
+                1,
+                new JwtSigningKey(
+                        JwtSigningKey.keyIdOf(loadedPublicKey),
+                        algorithm,
+                        loadedPublicKey,
+                        PemKeyUtils.readPrivateKey(privateKey, algorithm.getKeyFactoryAlgorithm())
+                )
+        );
     }
 
     @Override
-    public PrivateKey privateKey() {
-        return this.privateKey;
+    public JwtKeyRing keyRing() {
+        return this.keyRing;
     }
 }
@@ -0,0 +1,184 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.stinper.jwtauth.utils.PemKeyUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Провайдер набора ключей, загружаемого из локальной директории. <br>
+ * Каждый ключ представлен файлами {@code <kid>.pub} (X.509 PEM) и, для ключей, которыми можно подписывать токены,
+ * {@code <kid>.key} (PKCS#8 PEM). Активный ключ задается идентификатором в файле {@code active-kid}; если файл
+ * отсутствует, активным считается ключ с наибольшим идентификатором среди ключей, имеющих приватный ключ. <br>
+ * Директория отслеживается на изменения, и набор ключей перезагружается без перезапуска приложения. Если новое
+ * содержимое директории некорректно, продолжает использоваться предыдущий набор
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.auth.security.jwt.keys-source", havingValue = "DIRECTORY")
+public class DirectoryJwtSignatureKeysProvider implements JwtSignatureKeysProvider {
+    static final String PUBLIC_KEY_EXTENSION = ".pub";
+    static final String PRIVATE_KEY_EXTENSION = ".key";
+    static final String ACTIVE_KID_FILE_NAME = "active-kid";
+
+    /**
+     * Время ожидания последующих изменений, чтобы копирование нескольких файлов ключа приводило к одной перезагрузке
+     */
+    private static final long RELOAD_DEBOUNCE_MILLIS = 250;
+
+    private final Path keysDirectory;
+    private final JwtSignatureAlgorithm algorithm;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    private volatile JwtKeyRing keyRing;
+    private WatchService watchService;
+
+    public DirectoryJwtSignatureKeysProvider(@Value("${app.auth.security.jwt.keys-directory}") Path keysDirectory,
+                                             @Value("${app.auth.security.jwt.signature-algorithm}") JwtSignatureAlgorithm algorithm,
+                                             ApplicationEventPublisher eventPublisher) throws IOException {
+        this.keysDirectory = keysDirectory.toAbsolutePath();
+        this.algorithm = algorithm;
+        this.eventPublisher = eventPublisher;
+        this.keyRing = loadKeyRing();
+
+        log.atInfo().log("[#init]: Загружено ключей подписи: {}, активный ключ: '{}'",
+                keyRing.keysById().size(), keyRing.activeKey().kid()
+        );
+    }
+
+    @Override
+    public JwtKeyRing keyRing() {
+        return this.keyRing;
+    }
+
+    @PostConstruct
+    void startWatching() throws IOException {
+        this.watchService = keysDirectory.getFileSystem().newWatchService();
+
+        keysDirectory.register(
+                watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE
+        );
+
+        Thread.ofPlatform()
+                .name("jwt-keys-watcher")
+                .daemon()
+                .start(this::watchKeysDirectory);
+    }
+
+    @PreDestroy
+    void stopWatching() throws IOException {
+        this.watchService.close();
+    }
+
+    void reload() {
+        try {
+            JwtKeyRing reloadedKeyRing = loadKeyRing();
+            this.keyRing = reloadedKeyRing;
+
+            log.atInfo().log("[#reload]: Набор ключей подписи перезагружен (версия {}), ключей: {}, активный ключ: '{}'",
+                    reloadedKeyRing.version(), reloadedKeyRing.keysById().size(), reloadedKeyRing.activeKey().kid()
+            );
+
+            eventPublisher.publishEvent(new JwtKeyRingChangedEvent(reloadedKeyRing));
+        }
+        catch (IOException | RuntimeException e) {
+            log.atError().setCause(e).log("[#reload]: Не удалось перезагрузить ключи подписи из директории '{}', " +
+                    "продолжает использоваться набор ключей версии {}", keysDirectory, keyRing.version()
+            );
+        }
+    }
+
+    private void watchKeysDirectory() {
+        try {
+            while (true) {
+                WatchKey watchKey = watchService.take();
+
+                do {
+                    //Содержимое событий не важно: при любом изменении директория перечитывается целиком
+                    watchKey.pollEvents();
+
+                    if (!watchKey.reset()) {
+                        log.atError().log("[#watchKeysDirectory]: Директория ключей '{}' больше недоступна, " +
+                                "отслеживание изменений остановлено", keysDirectory
+                        );
+                        return;
+                    }
+
+                    watchKey = watchService.poll(RELOAD_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+                } while (watchKey != null);
+
+                reload();
+            }
+        }
+        catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ClosedWatchServiceException ignored) {
+            //Приложение останавливается
+        }
+    }
+
+    private JwtKeyRing loadKeyRing() throws IOException {
+        Map<String, JwtSigningKey> keys = new HashMap<>();
+
+        try (DirectoryStream<Path> publicKeyFiles = Files.newDirectoryStream(keysDirectory, "*" + PUBLIC_KEY_EXTENSION)) {
+            for (Path publicKeyFile : publicKeyFiles) {
+                String fileName = publicKeyFile.getFileName().toString();
+                String kid = fileName.substring(0, fileName.length() - PUBLIC_KEY_EXTENSION.length());
+                Path privateKeyFile = keysDirectory.resolve(kid + PRIVATE_KEY_EXTENSION);
+
+                PublicKey publicKey = PemKeyUtils.readPublicKey(
+                        new FileSystemResource(publicKeyFile), algorithm.getKeyFactoryAlgorithm()
+                );
+                PrivateKey privateKey = Files.exists(privateKeyFile)
+                        ? PemKeyUtils.readPrivateKey(new FileSystemResource(privateKeyFile), algorithm.getKeyFactoryAlgorithm())
+                        : null;
+
+                keys.put(kid, new JwtSigningKey(kid, algorithm, publicKey, privateKey));
+            }
+        }
+
+        String activeKid = resolveActiveKid(keys);
+        JwtSigningKey activeKey = keys.get(activeKid);
+
+        if (activeKey == null)
+            throw new IllegalStateException("Активный ключ '" + activeKid + "' отсутствует в директории " + keysDirectory);
+
+        return new JwtKeyRing(versionSequence.incrementAndGet(), activeKey, keys);
+    }
+
+    private String resolveActiveKid(Map<String, JwtSigningKey> keys) throws IOException {
+        Path activeKidFile = keysDirectory.resolve(ACTIVE_KID_FILE_NAME);
+
+        if (Files.exists(activeKidFile))
+            return Files.readString(activeKidFile).strip();
+
+        return keys.values()
+                .stream()
+                .filter(JwtSigningKey::canSign)
+                .map(JwtSigningKey::kid)
+                .max(Comparator.naturalOrder())
+                .orElseThrow(() -> new IllegalStateException(
+                        "В директории " + keysDirectory + " нет ни одного ключа с приватным ключом"
+                ));
+    }
+}
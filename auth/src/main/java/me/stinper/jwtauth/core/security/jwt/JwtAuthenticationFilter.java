@@ -1,20 +1,19 @@
 package me.stinper.jwtauth.core.security.jwt;
 
-import io.jsonwebtoken.*;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import me.stinper.jwtauth.core.security.jwt.service.JwtClaimsService;
+import me.stinper.jwtauth.core.security.jwt.service.JwtTokenType;
 import me.stinper.jwtauth.core.security.jwt.service.JwtVerificationService;
+import me.stinper.jwtauth.core.security.jwt.service.VerifiedJwt;
 import org.springframework.lang.NonNull;
 import org.springframework.lang.Nullable;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -26,9 +25,8 @@ import java.io.IOException;
 @Slf4j
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    private final JwtClaimsService jwtClaimsService;
     private final JwtVerificationService jwtVerificationService;
-    private final UserDetailsService userDetailsService;
+    private final JwtPrincipalResolver jwtPrincipalResolver;
     private final HandlerExceptionResolver handlerExceptionResolver;
 
     @Override
@@ -39,33 +37,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String token = this.getTokenFromRequest(request);
 
             if (token != null) {
-                Claims tokenClaims = jwtClaimsService.parseTokenClaims(token);
-
-                final String tokenType = tokenClaims.get("type", String.class);
-
-                if (tokenType == null) {
-                    log.atError().log("[#doFilterInternal]: Предоставленный токен не имеет в полезной нагрузке обязательного поля 'type' " +
-                            "\n\tЗначение токена: {}", token
-                    );
-
-                    throw new JwtException("");
-                }
-
-                if (!tokenType.equals("ACCESS")) {
-                    log.atWarn().log("""
-                            [#doFilterInternal]: Тип токена не соответствует ожидаемому\s
-                            \tОжидался тип: ACCESS\s
-                            \tФактический тип: {}""", tokenType
-                    );
-
-                    throw new JwtException("");
-                }
-
-                jwtVerificationService.verifyTokenSignature(token);
+                VerifiedJwt verifiedToken = jwtVerificationService.verifyToken(token, JwtTokenType.ACCESS);
 
                 log.atDebug().log("[#doFilterInternal]: Access-токен успешно верифицирован \n\tЗначение токена: {}", token);
 
-                UserDetails userDetails = userDetailsService.loadUserByUsername(tokenClaims.get("email", String.class));
+                JwtAuthUserDetails userDetails = jwtPrincipalResolver.resolvePrincipal(verifiedToken);
 
                 UsernamePasswordAuthenticationToken authentication =
                         new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -0,0 +1,89 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.Serial;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Облегченная реализация {@link JwtAuthUserDetails}, которая строится из полезной нагрузки верифицированного
+ * Access-токена без обращения к БД. <br>
+ * Токен не содержит пароля, даты регистрации, признака подтверждения эл. почты и даты деактивации учетной записи,
+ * поэтому соответствующие методы всегда возвращают NULL
+ *
+ * @see TokenClaimsJwtPrincipalResolver
+ */
+@Getter
+@ToString
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class JwtClaimsUserDetails implements JwtAuthUserDetails {
+    @Serial
+    private static final long serialVersionUID = 2815320591750624372L;
+
+    @EqualsAndHashCode.Include
+    private final UUID uuid;
+
+    private final String username;
+
+    private final Set<String> roles;
+
+    private final Set<String> permissions;
+
+    @ToString.Exclude
+    private final Set<GrantedAuthority> authorities;
+
+    public JwtClaimsUserDetails(@NonNull UUID uuid,
+                                @NonNull String username,
+                                @NonNull Set<String> roles,
+                                @NonNull Set<String> permissions) {
+        this.uuid = uuid;
+        this.username = username;
+        this.roles = Collections.unmodifiableSet(roles);
+        this.permissions = Collections.unmodifiableSet(permissions);
+
+        Set<GrantedAuthority> grantedAuthorities = new HashSet<>(roles.size() + permissions.size());
+
+        roles.forEach(role -> grantedAuthorities.add(new SimpleGrantedAuthority(role)));
+        permissions.forEach(permission -> grantedAuthorities.add(new SimpleGrantedAuthority(permission)));
+
+        this.authorities = Collections.unmodifiableSet(grantedAuthorities);
+    }
+
+    /**
+     * Проверяет наличие у пользователя роли или права доступа с заданным именем
+     * @param name имя роли или права доступа
+     * @return true - если роль или право доступа присутствуют в токене, иначе false
+     */
+    public boolean hasAuthority(@NonNull String name) {
+        return this.roles.contains(name) || this.permissions.contains(name);
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public Instant getRegisteredAt() {
+        return null;
+    }
+
+    @Override
+    public Boolean getIsEmailVerified() {
+        return null;
+    }
+
+    @Override
+    public Instant getDeactivatedAt() {
+        return null;
+    }
+}
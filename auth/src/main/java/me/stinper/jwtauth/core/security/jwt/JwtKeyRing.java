@@ -0,0 +1,50 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Неизменяемый набор ключей подписи: один активный ключ, которым подписываются новые токены, и ключи, выведенные из
+ * оборота, которые остаются доступными для проверки ранее выпущенных токенов до истечения их срока действия. <br>
+ * Ключи проиндексированы и упорядочены по {@code kid}: порядок не зависит от порядка загрузки ключей, поэтому
+ * все узлы публикуют одинаковый JWKS (а значит, и одинаковый ETag)
+ * @param version версия набора ключей; увеличивается при каждой перезагрузке ключей
+ * @param activeKey активный ключ подписи
+ * @param keysById все ключи набора (включая активный) по их идентификатору
+ */
+public record JwtKeyRing(
+        long version,
+        @NonNull JwtSigningKey activeKey,
+        @NonNull Map<String, JwtSigningKey> keysById
+) {
+    public JwtKeyRing {
+        if (!activeKey.canSign())
+            throw new IllegalArgumentException("Активный ключ '" + activeKey.kid() + "' не содержит приватного ключа");
+
+        Map<String, JwtSigningKey> keys = new TreeMap<>(keysById);
+        keys.put(activeKey.kid(), activeKey);
+
+        keysById = Collections.unmodifiableMap(keys);
+    }
+
+    public static JwtKeyRing of(long version, @NonNull JwtSigningKey activeKey) {
+        return new JwtKeyRing(version, activeKey, Map.of());
+    }
+
+    @Nullable
+    public JwtSigningKey findByKid(@NonNull String kid) {
+        return this.keysById.get(kid);
+    }
+
+    /**
+     * @return все ключи, которыми может быть проверена подпись токена, в порядке возрастания {@code kid}
+     */
+    public Collection<JwtSigningKey> verificationKeys() {
+        return this.keysById.values();
+    }
+}
@@ -0,0 +1,8 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+/**
+ * Публикуется после того, как {@link JwtSignatureKeysProvider} заменил набор ключей подписи
+ * @param keyRing новый набор ключей
+ */
+public record JwtKeyRingChangedEvent(JwtKeyRing keyRing) {
+}
@@ -0,0 +1,59 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.security.Key;
+
+/**
+ * Предоставляет заранее построенный {@link JwtParser}. Парсер неизменяем и потокобезопасен, поэтому он строится
+ * один раз. Ключ для проверки подписи выбирается по заголовку {@code kid} токена из текущего набора ключей
+ * {@link JwtSignatureKeysProvider}, поэтому замена набора ключей не требует перестроения парсера. <br>
+ * Токены без {@code kid}, выпущенные до введения идентификаторов ключей, проверяются активным ключом
+ */
+@Slf4j
+@Component
+public class JwtParserProvider {
+    private final JwtParser parser;
+
+    public JwtParserProvider(JwtSignatureKeysProvider signatureKeysProvider) {
+        this.parser = Jwts.parser()
+                .keyLocator(new KeyRingLocator(signatureKeysProvider))
+                .build();
+    }
+
+    public JwtParser parser() {
+        return this.parser;
+    }
+
+    private static class KeyRingLocator extends LocatorAdapter<Key> {
+        private final JwtSignatureKeysProvider signatureKeysProvider;
+
+        KeyRingLocator(JwtSignatureKeysProvider signatureKeysProvider) {
+            this.signatureKeysProvider = signatureKeysProvider;
+        }
+
+        @Override
+        protected Key locate(JwsHeader header) {
+            JwtKeyRing keyRing = signatureKeysProvider.keyRing();
+            String kid = header.getKeyId();
+
+            if (kid == null)
+                return keyRing.activeKey().publicKey();
+
+            JwtSigningKey signingKey = keyRing.findByKid(kid);
+
+            if (signingKey == null) {
+                log.atWarn().log("[#locate]: Токен подписан неизвестным ключом '{}'", kid);
+                throw new JwtException("");
+            }
+
+            return signingKey.publicKey();
+        }
+    }
+}
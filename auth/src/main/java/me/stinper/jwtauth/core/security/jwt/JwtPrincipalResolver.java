@@ -0,0 +1,26 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import io.jsonwebtoken.JwtException;
+import me.stinper.jwtauth.core.security.jwt.service.VerifiedJwt;
+import org.springframework.lang.NonNull;
+
+/**
+ * Строит объект пользователя (Principal), который будет помещен в контекст безопасности, по верифицированному
+ * Access-токену. Реализация выбирается в зависимости от режима аутентификации
+ * ({@code app.auth.security.authentication-mode}): <br>
+ * - STATEFUL (по-умолчанию) - пользователь загружается из БД при каждом запросе, изменения ролей и прав доступа
+ * вступают в силу мгновенно <br>
+ * - STATELESS - пользователь строится из полезной нагрузки токена, БД не участвует в обработке запроса, а изменения
+ * ролей и прав доступа вступают в силу после выпуска нового Access-токена
+ *
+ * @see UserDetailsServiceJwtPrincipalResolver
+ * @see TokenClaimsJwtPrincipalResolver
+ */
+public interface JwtPrincipalResolver {
+    /**
+     * @param accessToken верифицированный Access-токен
+     * @return объект пользователя, связанный с токеном
+     * @throws JwtException если по данным токена невозможно построить объект пользователя
+     */
+    JwtAuthUserDetails resolvePrincipal(@NonNull VerifiedJwt accessToken) throws JwtException;
+}
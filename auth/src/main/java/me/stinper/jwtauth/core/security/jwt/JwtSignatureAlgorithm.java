@@ -0,0 +1,47 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Поддерживаемые алгоритмы подписи JWT. <br>
+ * {@code ES256} и {@code EdDSA} значительно дешевле {@code RS256} при подписи токенов, что заметно при массовом входе
+ * пользователей в систему
+ */
+@Getter
+@RequiredArgsConstructor
+public enum JwtSignatureAlgorithm {
+    /**
+     * RSASSA-PKCS1-v1_5 с SHA-256
+     */
+    RS256(Jwts.SIG.RS256, "RSA"),
+
+    /**
+     * ECDSA на кривой P-256 с SHA-256
+     */
+    ES256(Jwts.SIG.ES256, "EC"),
+
+    /**
+     * EdDSA на кривой Ed25519
+     */
+    EdDSA(Jwts.SIG.EdDSA, "Ed25519");
+
+    /**
+     * Алгоритм подписи библиотеки {@code io.jsonwebtoken}
+     */
+    private final SignatureAlgorithm signatureAlgorithm;
+
+    /**
+     * Название алгоритма для {@link java.security.KeyFactory}, используемое при чтении ключей
+     */
+    private final String keyFactoryAlgorithm;
+
+    /**
+     * @return название алгоритма в формате JWA (значение заголовка/параметра {@code alg})
+     */
+    public String getJwaName() {
+        return this.signatureAlgorithm.getId();
+    }
+}
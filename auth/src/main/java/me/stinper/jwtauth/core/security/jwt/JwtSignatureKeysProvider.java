@@ -1,10 +1,15 @@
 package me.stinper.jwtauth.core.security.jwt;
 
-import java.security.PrivateKey;
-import java.security.PublicKey;
-
+/**
+ * Источник ключей подписи токенов
+ *
+ * @see ClasspathJwtSignatureKeysProvider
+ * @see DirectoryJwtSignatureKeysProvider
+ */
 public interface JwtSignatureKeysProvider {
-    PublicKey publicKey();
-
-    PrivateKey privateKey();
+    /**
+     * @return текущий набор ключей. Реализация может заменить набор в любой момент, поэтому вызывающий код не должен
+     * сохранять результат дольше, чем на время обработки одного токена
+     */
+    JwtKeyRing keyRing();
 }
@@ -0,0 +1,45 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Base64;
+
+/**
+ * Ключ подписи токенов с идентификатором {@code kid}
+ * @param kid идентификатор ключа, указываемый в заголовке токена и в JWKS
+ * @param algorithm алгоритм подписи
+ * @param publicKey публичный ключ, которым проверяется подпись
+ * @param privateKey приватный ключ, которым подписываются токены; NULL для ключей, выведенных из оборота,
+ *                   которые используются только для проверки ранее выпущенных токенов
+ */
+public record JwtSigningKey(
+        @NonNull String kid,
+        @NonNull JwtSignatureAlgorithm algorithm,
+        @NonNull PublicKey publicKey,
+        @Nullable PrivateKey privateKey
+) {
+    public boolean canSign() {
+        return this.privateKey != null;
+    }
+
+    /**
+     * Вычисляет идентификатор ключа как Base64url от SHA-256 дайджеста его кодировки X.509. Используется для ключей,
+     * идентификатор которых не задан явно
+     * @param publicKey публичный ключ
+     * @return идентификатор ключа
+     */
+    public static String keyIdOf(@NonNull PublicKey publicKey) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded());
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        }
+        catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("Алгоритм SHA-256 не поддерживается JVM", nsae);
+        }
+    }
+}
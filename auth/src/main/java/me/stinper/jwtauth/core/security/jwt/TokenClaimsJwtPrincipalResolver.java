@@ -0,0 +1,62 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import me.stinper.jwtauth.core.security.jwt.service.VerifiedJwt;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "app.auth.security.authentication-mode", havingValue = "STATELESS")
+public class TokenClaimsJwtPrincipalResolver implements JwtPrincipalResolver {
+
+    @Override
+    public JwtAuthUserDetails resolvePrincipal(@NonNull VerifiedJwt accessToken) throws JwtException {
+        Claims claims = accessToken.claims();
+        String email = accessToken.email();
+
+        if (accessToken.subject() == null || email == null) {
+            log.atError().log("[#resolvePrincipal]: В полезной нагрузке токена отсутствуют обязательные поля 'sub' или 'email'");
+            throw new JwtException("");
+        }
+
+        final UUID uuid;
+
+        try {
+            uuid = UUID.fromString(accessToken.subject());
+        }
+        catch (IllegalArgumentException iae) {
+            log.atError().log("[#resolvePrincipal]: Значение поля 'sub' не является UUID: '{}'", accessToken.subject());
+            throw new JwtException("", iae);
+        }
+
+        Map<?, ?> authorities = claims.get("authorities", Map.class);
+
+        return new JwtClaimsUserDetails(
+                uuid,
+                email,
+                extractAuthorityNames(authorities, "roles"),
+                extractAuthorityNames(authorities, "permissions")
+        );
+    }
+
+    private static Set<String> extractAuthorityNames(@Nullable Map<?, ?> authorities, @NonNull String key) {
+        if (authorities == null || !(authorities.get(key) instanceof Collection<?> names))
+            return Collections.emptySet();
+
+        Set<String> authorityNames = new HashSet<>(names.size());
+
+        for (Object name : names) {
+            if (name != null)
+                authorityNames.add(name.toString());
+        }
+
+        return authorityNames;
+    }
+}
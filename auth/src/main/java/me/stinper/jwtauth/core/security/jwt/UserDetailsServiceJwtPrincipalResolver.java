@@ -0,0 +1,20 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import lombok.RequiredArgsConstructor;
+import me.stinper.jwtauth.core.security.jwt.service.VerifiedJwt;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.auth.security.authentication-mode", havingValue = "STATEFUL", matchIfMissing = true)
+public class UserDetailsServiceJwtPrincipalResolver implements JwtPrincipalResolver {
+    private final UserDetailsService userDetailsService;
+
+    @Override
+    public JwtAuthUserDetails resolvePrincipal(@NonNull VerifiedJwt accessToken) {
+        return (JwtAuthUserDetails) userDetailsService.loadUserByUsername(accessToken.email());
+    }
+}
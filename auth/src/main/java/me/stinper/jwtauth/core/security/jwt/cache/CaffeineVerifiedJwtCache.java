@@ -0,0 +1,124 @@
+package me.stinper.jwtauth.core.security.jwt.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import me.stinper.jwtauth.core.security.jwt.service.JwtTokenType;
+import me.stinper.jwtauth.core.security.jwt.service.VerifiedJwt;
+import me.stinper.jwtauth.utils.TokenDigestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Реализация кеша верифицированных токенов на основе Caffeine. Ключом записи является SHA-256 дайджест токена,
+ * размер кеша ограничен, а каждая запись удаляется в момент истечения срока действия токена (поле 'exp'). <br>
+ * Кешируются только Access-токены: они проверяются при каждом запросе, тогда как Refresh-токен предъявляется редко,
+ * а его запись хранилась бы в памяти весь длительный срок его действия, вытесняя Access-токены. <br>
+ * Метрики кеша (попадания, промахи, вытеснения) публикуются под именем {@value #CACHE_NAME}
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.security.jwt.verified-token-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CaffeineVerifiedJwtCache implements VerifiedJwtCache {
+    public static final String CACHE_NAME = "jwt.verified-tokens";
+
+    private final Cache<ByteBuffer, VerifiedJwt> cache;
+    private final Function<String, byte[]> digestFunction;
+
+    @Autowired
+    public CaffeineVerifiedJwtCache(@Value("${app.auth.security.jwt.verified-token-cache.maximum-size}") long maximumSize,
+                                    MeterRegistry meterRegistry) {
+        this(maximumSize, meterRegistry, Ticker.systemTicker(), TokenDigestUtils::sha256);
+    }
+
+    CaffeineVerifiedJwtCache(long maximumSize,
+                             MeterRegistry meterRegistry,
+                             Ticker ticker,
+                             Function<String, byte[]> digestFunction) {
+        this.digestFunction = digestFunction;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpirationExpiry(ticker))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, this.cache, CACHE_NAME);
+    }
+
+    @Override
+    public VerifiedJwt get(@NonNull String token) {
+        VerifiedJwt verifiedJwt = this.cache.getIfPresent(digestOf(token));
+
+        //Защита от коллизии дайджестов: запись считается попаданием только для того же самого токена
+        if (verifiedJwt == null || !verifiedJwt.token().equals(token))
+            return null;
+
+        return verifiedJwt;
+    }
+
+    @Override
+    public void put(@NonNull VerifiedJwt verifiedJwt) {
+        if (verifiedJwt.type() != JwtTokenType.ACCESS || verifiedJwt.expiresAt() == null)
+            return; //Кешируются только Access-токены, токены без срока действия не кешируются
+
+        this.cache.put(digestOf(verifiedJwt.token()), verifiedJwt);
+    }
+
+    @Override
+    public void invalidateAll() {
+        this.cache.invalidateAll();
+    }
+
+    private ByteBuffer digestOf(String token) {
+        return ByteBuffer.wrap(this.digestFunction.apply(token));
+    }
+
+    /**
+     * Устанавливает время жизни записи равным оставшемуся сроку действия токена. Текущий момент берется из того же
+     * источника времени, что использует кеш, чтобы запись истекала ровно в момент 'exp'
+     */
+    private static final class TokenExpirationExpiry implements Expiry<ByteBuffer, VerifiedJwt> {
+        private final long originNanos;
+        private final Instant origin;
+
+        TokenExpirationExpiry(Ticker ticker) {
+            this.originNanos = ticker.read();
+            this.origin = Instant.now();
+        }
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, VerifiedJwt value, long currentTime) {
+            Instant expiresAt = value.expiresAt();
+
+            if (expiresAt == null)
+                return 0;
+
+            return Math.max(0, Duration.between(this.toInstant(currentTime), expiresAt).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, VerifiedJwt value, long currentTime, long currentDuration) {
+            return this.expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, VerifiedJwt value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private Instant toInstant(long tickerNanos) {
+            return this.origin.plusNanos(tickerNanos - this.originNanos);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package me.stinper.jwtauth.core.security.jwt.cache;
+
+import me.stinper.jwtauth.core.security.jwt.service.VerifiedJwt;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(name = "app.auth.security.jwt.verified-token-cache.enabled", havingValue = "false")
+public class NoOpVerifiedJwtCache implements VerifiedJwtCache {
+    @Override
+    public VerifiedJwt get(@NonNull String token) {
+        return null;
+    }
+
+    @Override
+    public void put(@NonNull VerifiedJwt verifiedJwt) {
+        //Кеширование отключено
+    }
+
+    @Override
+    public void invalidateAll() {
+        //Кеширование отключено
+    }
+}
@@ -0,0 +1,32 @@
+package me.stinper.jwtauth.core.security.jwt.cache;
+
+import me.stinper.jwtauth.core.security.jwt.service.VerifiedJwt;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+/**
+ * Кеш уже верифицированных токенов. Позволяет не повторять разбор токена и проверку его подписи, когда клиент
+ * многократно отправляет один и тот же токен в течение срока его действия
+ *
+ * @see CaffeineVerifiedJwtCache
+ * @see NoOpVerifiedJwtCache
+ */
+public interface VerifiedJwtCache {
+    /**
+     * @param token компактное представление токена
+     * @return ранее верифицированный токен, либо NULL, если токен отсутствует в кеше или срок его действия истек
+     */
+    @Nullable
+    VerifiedJwt get(@NonNull String token);
+
+    /**
+     * Помещает верифицированный токен в кеш. Запись хранится не дольше, чем действителен сам токен
+     * @param verifiedJwt верифицированный токен
+     */
+    void put(@NonNull VerifiedJwt verifiedJwt);
+
+    /**
+     * Удаляет из кеша все записи
+     */
+    void invalidateAll();
+}
@@ -4,6 +4,7 @@ import io.jsonwebtoken.Jwts;
 import lombok.RequiredArgsConstructor;
 import me.stinper.jwtauth.core.security.jwt.JwtAuthUserDetails;
 import me.stinper.jwtauth.core.security.jwt.JwtSignatureKeysProvider;
+import me.stinper.jwtauth.core.security.jwt.JwtSigningKey;
 import me.stinper.jwtauth.entity.Permission;
 import me.stinper.jwtauth.entity.Role;
 import org.springframework.beans.factory.annotation.Value;
@@ -33,29 +34,36 @@ public class JwtCreationServiceImpl implements JwtCreationService {
 
         Map<String, Object> authorities = extractAuthorities(grantedAuthorities);
 
+        JwtSigningKey signingKey = signatureKeysProvider.keyRing().activeKey();
+
         return Jwts.builder()
                 .header()
                 .type("JWT")
+                .keyId(signingKey.kid())
                 .and()
                 .subject(userDetails.getUuid().toString())
                 .expiration(getTokenExpirationAsDate(this.accessTokenExpiration))
-                .claim("type", "ACCESS")
+                .claim(JwtTokenType.CLAIM_NAME, JwtTokenType.ACCESS.name())
                 .claim("authorities", authorities)
                 .claim("email", userDetails.getUsername())
-                .signWith(signatureKeysProvider.privateKey())
+                .signWith(signingKey.privateKey(), signingKey.algorithm().getSignatureAlgorithm())
                 .compact();
     }
 
     @Override
     public String createRefreshToken(@NonNull JwtAuthUserDetails userDetails) {
+        JwtSigningKey signingKey = signatureKeysProvider.keyRing().activeKey();
+
         return Jwts.builder()
                 .header()
                 .type("JWT")
+                .keyId(signingKey.kid())
                 .and()
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUuid().toString())
                 .expiration(getTokenExpirationAsDate(this.refreshTokenExpiration))
-                .claim("type", "REFRESH")
-                .signWith(signatureKeysProvider.privateKey())
+                .claim(JwtTokenType.CLAIM_NAME, JwtTokenType.REFRESH.name())
+                .signWith(signingKey.privateKey(), signingKey.algorithm().getSignatureAlgorithm())
                 .compact();
     }
 
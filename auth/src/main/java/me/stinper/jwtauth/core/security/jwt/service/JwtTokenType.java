@@ -0,0 +1,14 @@
+package me.stinper.jwtauth.core.security.jwt.service;
+
+/**
+ * Тип JWT-токена, который записывается в поле 'type' полезной нагрузки при его создании
+ */
+public enum JwtTokenType {
+    ACCESS,
+    REFRESH;
+
+    /**
+     * Имя поля полезной нагрузки, в котором хранится тип токена
+     */
+    public static final String CLAIM_NAME = "type";
+}
@@ -6,11 +6,13 @@ import org.springframework.lang.NonNull;
 public interface JwtVerificationService {
 
     /**
-     * Верифицирует подпись предоставленного токена. Если метод не выбросил исключение - верификация
-     * прошла успешно
+     * Разбирает токен, верифицирует его подпись и проверяет значение поля 'type' за один проход. Если метод не
+     * выбросил исключение - верификация прошла успешно
      * @param token токен
-     * @throws JwtException не удалось верифицировать подпись токена
+     * @param expectedType ожидаемый тип токена
+     * @return верифицированный токен вместе с его полезной нагрузкой
+     * @throws JwtException не удалось верифицировать подпись токена, либо тип токена не соответствует ожидаемому
      */
-    void verifyTokenSignature(@NonNull String token) throws JwtException;
+    VerifiedJwt verifyToken(@NonNull String token, @NonNull JwtTokenType expectedType) throws JwtException;
 
 }
@@ -1,22 +1,79 @@
 package me.stinper.jwtauth.core.security.jwt.service;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
-import io.jsonwebtoken.Jwts;
 import lombok.RequiredArgsConstructor;
-import me.stinper.jwtauth.core.security.jwt.JwtSignatureKeysProvider;
+import lombok.extern.slf4j.Slf4j;
+import me.stinper.jwtauth.core.security.jwt.JwtKeyRingChangedEvent;
+import me.stinper.jwtauth.core.security.jwt.JwtParserProvider;
+import me.stinper.jwtauth.core.security.jwt.cache.VerifiedJwtCache;
+import org.springframework.context.event.EventListener;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class JwtVerificationServiceImpl implements JwtVerificationService {
-    private final JwtSignatureKeysProvider signatureKeysProvider;
+    private final JwtParserProvider jwtParserProvider;
+    private final VerifiedJwtCache verifiedJwtCache;
+    private final UnverifiedJwtPrecheck unverifiedJwtPrecheck;
 
     @Override
-    public void verifyTokenSignature(@NonNull String token) throws JwtException {
-        Jwts.parser()
-                .verifyWith(signatureKeysProvider.publicKey())
-                .build()
-                .parseSignedClaims(token);
+    public VerifiedJwt verifyToken(@NonNull String token, @NonNull JwtTokenType expectedType) throws JwtException {
+        VerifiedJwt cachedToken = verifiedJwtCache.get(token);
+
+        if (cachedToken != null) {
+            checkTokenType(cachedToken.type().name(), expectedType);
+            return cachedToken;
+        }
+
+        unverifiedJwtPrecheck.check(token, expectedType);
+
+        Claims tokenClaims = jwtParserProvider.parser()
+                .parseSignedClaims(token)
+                .getPayload();
+
+        final String tokenType = tokenClaims.get(JwtTokenType.CLAIM_NAME, String.class);
+
+        if (tokenType == null) {
+            log.atError().log("[#verifyToken]: Предоставленный токен не имеет в полезной нагрузке обязательного поля 'type' " +
+                    "\n\tЗначение токена: {}", token
+            );
+
+            throw new JwtException("");
+        }
+
+        checkTokenType(tokenType, expectedType);
+
+        VerifiedJwt verifiedToken = new VerifiedJwt(token, expectedType, tokenClaims);
+        verifiedJwtCache.put(verifiedToken);
+
+        return verifiedToken;
+    }
+
+    /**
+     * Ключ, которым был подписан закешированный токен, мог быть удален из набора ключей, поэтому при замене набора
+     * все ранее верифицированные токены должны быть проверены заново
+     */
+    @EventListener
+    public void onKeyRingChanged(JwtKeyRingChangedEvent event) {
+        log.atInfo().log("[#onKeyRingChanged]: Набор ключей подписи заменен (версия {}), кеш верифицированных токенов очищен",
+                event.keyRing().version()
+        );
+
+        verifiedJwtCache.invalidateAll();
+    }
+
+    private static void checkTokenType(@NonNull String actualType, @NonNull JwtTokenType expectedType) throws JwtException {
+        if (!actualType.equals(expectedType.name())) {
+            log.atWarn().log("""
+                    [#verifyToken]: Тип токена не соответствует ожидаемому\s
+                    \tОжидался тип: {}\s
+                    \tФактический тип: {}""", expectedType, actualType
+            );
+
+            throw new JwtException("");
+        }
     }
 }
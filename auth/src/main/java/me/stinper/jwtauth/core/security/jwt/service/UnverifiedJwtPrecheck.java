@@ -0,0 +1,120 @@
+package me.stinper.jwtauth.core.security.jwt.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Предварительная проверка токена до проверки подписи. Декодирует только полезную нагрузку токена, не доверяя ей,
+ * и отклоняет токены, которые заведомо не пройдут полную верификацию: с истекшим сроком действия (поле 'exp')
+ * или неожиданного типа (поле 'type'). <br>
+ * Проверка может только отклонить токен: токены, прошедшие ее, обязательно проходят полную верификацию. Если
+ * полезная нагрузка не может быть декодирована, решение также остается за полной верификацией. <br>
+ * Количество отклоненных токенов, то есть сэкономленных проверок подписи, публикуется в метрике
+ * {@value #SKIPPED_VERIFICATIONS_METRIC} с тегом {@code reason}
+ */
+@Slf4j
+@Component
+public class UnverifiedJwtPrecheck {
+    public static final String SKIPPED_VERIFICATIONS_METRIC = "jwt.verification.skipped";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Counter expiredTokensCounter;
+    private final Counter unexpectedTypeTokensCounter;
+
+    public UnverifiedJwtPrecheck(MeterRegistry meterRegistry) {
+        this.expiredTokensCounter = Counter.builder(SKIPPED_VERIFICATIONS_METRIC)
+                .description("Количество токенов, отклоненных до проверки подписи")
+                .tag("reason", "expired")
+                .register(meterRegistry);
+        this.unexpectedTypeTokensCounter = Counter.builder(SKIPPED_VERIFICATIONS_METRIC)
+                .description("Количество токенов, отклоненных до проверки подписи")
+                .tag("reason", "unexpected-type")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param token компактное представление токена
+     * @param expectedType ожидаемый тип токена
+     * @throws ExpiredJwtException если срок действия токена истек
+     * @throws JwtException если тип токена не совпадает с ожидаемым
+     */
+    public void check(@NonNull String token, @NonNull JwtTokenType expectedType) throws JwtException {
+        UnverifiedClaims unverifiedClaims = readUnverifiedClaims(token);
+
+        if (unverifiedClaims == null)
+            return;
+
+        if (unverifiedClaims.expiresAt() != null && Instant.now().isAfter(unverifiedClaims.expiresAt())) {
+            expiredTokensCounter.increment();
+
+            log.atDebug().log("[#check]: Срок действия токена истек {}, проверка подписи пропущена",
+                    unverifiedClaims.expiresAt()
+            );
+
+            throw new ExpiredJwtException(null, null, "");
+        }
+
+        if (unverifiedClaims.type() != null && !unverifiedClaims.type().equals(expectedType.name())) {
+            unexpectedTypeTokensCounter.increment();
+
+            log.atDebug().log("[#check]: Ожидался токен типа {}, получен токен типа {}, проверка подписи пропущена",
+                    expectedType, unverifiedClaims.type()
+            );
+
+            throw new JwtException("");
+        }
+    }
+
+    @Nullable
+    private static UnverifiedClaims readUnverifiedClaims(String token) {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = token.indexOf('.', headerEnd + 1);
+
+        if (headerEnd < 0 || payloadEnd < 0)
+            return null;
+
+        try (JsonParser parser = JSON_FACTORY.createParser(
+                Base64.getUrlDecoder().decode(token.substring(headerEnd + 1, payloadEnd))
+        )) {
+            if (parser.nextToken() != JsonToken.START_OBJECT)
+                return null;
+
+            Instant expiresAt = null;
+            String type = null;
+
+            //Читаются только поля верхнего уровня 'exp' и 'type', остальные значения пропускаются без разбора
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("exp".equals(fieldName) && value == JsonToken.VALUE_NUMBER_INT)
+                    expiresAt = Instant.ofEpochSecond(parser.getLongValue());
+                else if (JwtTokenType.CLAIM_NAME.equals(fieldName) && value == JsonToken.VALUE_STRING)
+                    type = parser.getText();
+                else
+                    parser.skipChildren();
+            }
+
+            return new UnverifiedClaims(expiresAt, type);
+        }
+        catch (IOException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private record UnverifiedClaims(@Nullable Instant expiresAt, @Nullable String type) {}
+}
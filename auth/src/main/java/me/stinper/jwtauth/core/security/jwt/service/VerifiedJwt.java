@@ -0,0 +1,37 @@
+package me.stinper.jwtauth.core.security.jwt.service;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.time.Instant;
+import java.util.Date;
+
+/**
+ * Неизменяемое представление JWT-токена, подпись которого уже была верифицирована, а тип - проверен.
+ * Позволяет передавать результат верификации дальше, не разбирая и не верифицируя токен повторно
+ * @param token исходное (компактное) значение токена
+ * @param type тип токена
+ * @param claims полезная нагрузка токена
+ */
+public record VerifiedJwt(
+        @NonNull String token,
+        @NonNull JwtTokenType type,
+        @NonNull Claims claims
+) {
+    public String subject() {
+        return this.claims.getSubject();
+    }
+
+    @Nullable
+    public String email() {
+        return this.claims.get("email", String.class);
+    }
+
+    @Nullable
+    public Instant expiresAt() {
+        Date expiration = this.claims.getExpiration();
+
+        return expiration == null ? null : expiration.toInstant();
+    }
+}
@@ -0,0 +1,133 @@
+package me.stinper.jwtauth.core.security.password;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import me.stinper.jwtauth.exception.PasswordHashingOverloadedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Декоратор {@link PasswordEncoder}, выполняющий хэширование и проверку паролей в выделенном пуле потоков
+ * ограниченного размера с ограниченной очередью. <br>
+ * Хэширование паролей (BCrypt) намеренно ресурсоемко, поэтому без ограничения всплеск запросов на вход может занять
+ * все ядра процессора и лишить ресурсов остальные запросы (например, проверку токенов). Когда очередь заполнена,
+ * операция немедленно отклоняется с {@link PasswordHashingOverloadedException}. <br>
+ * Метрики: состояние пула и глубина очереди - {@code executor.*} с тегом {@code name=}{@value #EXECUTOR_NAME},
+ * время хэширования - {@value #HASHING_TIMER_NAME}, количество отклоненных операций - {@value #REJECTED_COUNTER_NAME}
+ */
+@Slf4j
+public class BoundedExecutorPasswordEncoder implements PasswordEncoder, AutoCloseable {
+    public static final String EXECUTOR_NAME = "password-hashing";
+    public static final String HASHING_TIMER_NAME = "password.hashing";
+    public static final String REJECTED_COUNTER_NAME = "password.hashing.rejected";
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+    private final Counter rejectedOperationsCounter;
+
+    public BoundedExecutorPasswordEncoder(PasswordEncoder delegate,
+                                          int threads,
+                                          int queueCapacity,
+                                          MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new PasswordHashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        new ExecutorServiceMetrics(this.executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+
+        this.encodeTimer = Timer.builder(HASHING_TIMER_NAME)
+                .description("Время хэширования пароля")
+                .tag("operation", "encode")
+                .register(meterRegistry);
+        this.matchesTimer = Timer.builder(HASHING_TIMER_NAME)
+                .description("Время проверки пароля")
+                .tag("operation", "matches")
+                .register(meterRegistry);
+        this.rejectedOperationsCounter = Counter.builder(REJECTED_COUNTER_NAME)
+                .description("Количество операций с паролями, отклоненных из-за переполнения очереди")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return execute(() -> encodeTimer.record(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return execute(() -> matchesTimer.record(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private <T> T execute(Callable<T> operation) {
+        Future<T> result;
+
+        try {
+            result = executor.submit(operation);
+        }
+        catch (RejectedExecutionException ree) {
+            rejectedOperationsCounter.increment();
+
+            log.atWarn().log("[#execute]: Очередь хэширования паролей заполнена ({} задач), операция отклонена",
+                    executor.getQueue().size()
+            );
+
+            throw new PasswordHashingOverloadedException("messages.password-hashing.overloaded");
+        }
+
+        try {
+            return result.get();
+        }
+        catch (InterruptedException ie) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ожидание результата хэширования пароля было прервано", ie);
+        }
+        catch (ExecutionException ee) {
+            if (ee.getCause() instanceof RuntimeException runtimeException)
+                throw runtimeException;
+
+            if (ee.getCause() instanceof Error error)
+                throw error;
+
+            throw new IllegalStateException(ee.getCause());
+        }
+    }
+
+    private static class PasswordHashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return Thread.ofPlatform()
+                    .name(EXECUTOR_NAME + "-" + threadNumber.incrementAndGet())
+                    .daemon()
+                    .unstarted(runnable);
+        }
+    }
+}
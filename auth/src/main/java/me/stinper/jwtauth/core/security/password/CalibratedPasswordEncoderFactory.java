@@ -0,0 +1,128 @@
+package me.stinper.jwtauth.core.security.password;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Строит {@link DelegatingPasswordEncoder}, параметры стоимости которого подобраны под оборудование, на котором
+ * запущено приложение. <br>
+ * При старте измеряется время хэширования и выбирается наибольшая стоимость (BCrypt - strength, Argon2id - число
+ * итераций), при которой хэширование укладывается в заданный бюджет задержки. Стоимость не опускается ниже
+ * безопасного минимума, даже если минимум не укладывается в бюджет. <br>
+ * Хэши, созданные другим алгоритмом или с меньшей стоимостью, распознаются через
+ * {@link PasswordEncoder#upgradeEncoding(String)} и перехэшируются при следующем успешном входе пользователя.
+ * Хэши без префикса алгоритма, созданные до введения {@link DelegatingPasswordEncoder}, проверяются как BCrypt
+ */
+@Slf4j
+public final class CalibratedPasswordEncoderFactory {
+    static final int MIN_BCRYPT_STRENGTH = 10;
+    static final int MAX_BCRYPT_STRENGTH = 16;
+
+    static final int MIN_ARGON2_ITERATIONS = 2;
+    static final int MAX_ARGON2_ITERATIONS = 10;
+
+    /**
+     * Параметры Argon2id, не участвующие в калибровке (рекомендации OWASP: 19 MiB памяти, 1 поток)
+     */
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
+    private static final int ARGON2_PARALLELISM = 1;
+    private static final int ARGON2_MEMORY_KIB = 19 * 1024;
+
+    private static final String CALIBRATION_PASSWORD = "calibration-Password-1";
+    private static final int CALIBRATION_SAMPLES = 3;
+
+    private CalibratedPasswordEncoderFactory() {}
+
+    public static PasswordEncoder create(PasswordHashingAlgorithm algorithm, Duration latencyBudget) {
+        BCryptPasswordEncoder bcryptEncoder;
+        Argon2PasswordEncoder argon2Encoder;
+
+        if (algorithm == PasswordHashingAlgorithm.BCRYPT) {
+            bcryptEncoder = new BCryptPasswordEncoder(calibrate(
+                    "BCrypt strength", MIN_BCRYPT_STRENGTH, MAX_BCRYPT_STRENGTH, latencyBudget,
+                    BCryptPasswordEncoder::new
+            ));
+            argon2Encoder = argon2Encoder(MIN_ARGON2_ITERATIONS);
+        }
+        else {
+            bcryptEncoder = new BCryptPasswordEncoder(MIN_BCRYPT_STRENGTH);
+            argon2Encoder = argon2Encoder(calibrate(
+                    "Argon2id iterations", MIN_ARGON2_ITERATIONS, MAX_ARGON2_ITERATIONS, latencyBudget,
+                    CalibratedPasswordEncoderFactory::argon2Encoder
+            ));
+        }
+
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(
+                algorithm.getId(),
+                Map.of(
+                        PasswordHashingAlgorithm.BCRYPT.getId(), bcryptEncoder,
+                        PasswordHashingAlgorithm.ARGON2ID.getId(), argon2Encoder
+                )
+        );
+        passwordEncoder.setDefaultPasswordEncoderForMatches(bcryptEncoder);
+
+        return passwordEncoder;
+    }
+
+    /**
+     * Подбирает наибольшую стоимость в диапазоне [minCost, maxCost], при которой медианное время хэширования
+     * не превышает бюджет
+     */
+    static int calibrate(String costName,
+                                 int minCost,
+                                 int maxCost,
+                                 Duration latencyBudget,
+                                 IntFunction<PasswordEncoder> encoderFactory) {
+        int cost = minCost;
+        Duration hashTime = measureHashTime(encoderFactory.apply(cost));
+
+        if (hashTime.compareTo(latencyBudget) > 0)
+            log.atWarn().log("[#calibrate]: Минимальное значение {} = {} превышает бюджет задержки {} (фактически {} мс)",
+                    costName, minCost, latencyBudget, hashTime.toMillis()
+            );
+
+        while (cost < maxCost) {
+            Duration nextHashTime = measureHashTime(encoderFactory.apply(cost + 1));
+
+            if (nextHashTime.compareTo(latencyBudget) > 0)
+                break;
+
+            cost++;
+            hashTime = nextHashTime;
+        }
+
+        log.atInfo().log("[#calibrate]: Выбрано значение {} = {}, время хэширования {} мс (бюджет {})",
+                costName, cost, hashTime.toMillis(), latencyBudget
+        );
+
+        return cost;
+    }
+
+    private static Duration measureHashTime(PasswordEncoder passwordEncoder) {
+        long[] samples = new long[CALIBRATION_SAMPLES];
+
+        for (int i = 0; i < CALIBRATION_SAMPLES; i++) {
+            long start = System.nanoTime();
+            passwordEncoder.encode(CALIBRATION_PASSWORD);
+            samples[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(samples);
+        return Duration.ofNanos(samples[CALIBRATION_SAMPLES / 2]);
+    }
+
+    private static Argon2PasswordEncoder argon2Encoder(int iterations) {
+        return new Argon2PasswordEncoder(
+                ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, ARGON2_PARALLELISM, ARGON2_MEMORY_KIB, iterations
+        );
+    }
+}
@@ -0,0 +1,20 @@
+package me.stinper.jwtauth.core.security.password;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Алгоритмы хэширования паролей, доступные для хэширования новых паролей. Проверка паролей поддерживается для всех
+ * алгоритмов независимо от выбранного
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PasswordHashingAlgorithm {
+    BCRYPT("bcrypt"),
+    ARGON2ID("argon2");
+
+    /**
+     * Идентификатор алгоритма, которым помечается хэш (префикс {@code {id}}) в {@link org.springframework.security.crypto.password.DelegatingPasswordEncoder}
+     */
+    private final String id;
+}
@@ -0,0 +1,32 @@
+package me.stinper.jwtauth.core.security.refresh;
+
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import me.stinper.jwtauth.core.security.jwt.JwtAuthUserDetails;
+import me.stinper.jwtauth.core.security.jwt.service.JwtCreationService;
+import me.stinper.jwtauth.core.security.jwt.service.JwtTokenType;
+import me.stinper.jwtauth.core.security.jwt.service.JwtVerificationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Выпускает Refresh-токены в формате подписанного JWT и проверяет их подпись и тип перед обращением к БД
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.auth.security.refresh-token.format", havingValue = "JWT")
+public class JwtRefreshTokenProvider implements RefreshTokenProvider {
+    private final JwtCreationService jwtCreationService;
+    private final JwtVerificationService jwtVerificationService;
+
+    @Override
+    public String createRefreshToken(@NonNull JwtAuthUserDetails userDetails) {
+        return jwtCreationService.createRefreshToken(userDetails);
+    }
+
+    @Override
+    public void verifyRefreshToken(@NonNull String refreshToken) throws JwtException {
+        jwtVerificationService.verifyToken(refreshToken, JwtTokenType.REFRESH);
+    }
+}
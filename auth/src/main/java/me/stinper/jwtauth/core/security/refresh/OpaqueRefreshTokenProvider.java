@@ -0,0 +1,37 @@
+package me.stinper.jwtauth.core.security.refresh;
+
+import me.stinper.jwtauth.core.security.jwt.JwtAuthUserDetails;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Выпускает непрозрачные Refresh-токены: 256 бит из {@link SecureRandom} в кодировке Base64url. <br>
+ * Токен не несет никакой информации, а его действительность определяется только записью в БД, поэтому проверка
+ * формата не выполняется: это позволяет продолжать принимать Refresh-токены в формате JWT, выпущенные до смены
+ * формата, до истечения срока их действия
+ */
+@Component
+@ConditionalOnProperty(name = "app.auth.security.refresh-token.format", havingValue = "OPAQUE", matchIfMissing = true)
+public class OpaqueRefreshTokenProvider implements RefreshTokenProvider {
+    private static final int TOKEN_LENGTH_BYTES = 32;
+    private static final Base64.Encoder BASE64_URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Override
+    public String createRefreshToken(@NonNull JwtAuthUserDetails userDetails) {
+        byte[] token = new byte[TOKEN_LENGTH_BYTES];
+        secureRandom.nextBytes(token);
+
+        return BASE64_URL_ENCODER.encodeToString(token);
+    }
+
+    @Override
+    public void verifyRefreshToken(@NonNull String refreshToken) {
+        //Действительность токена определяется только его наличием в БД
+    }
+}
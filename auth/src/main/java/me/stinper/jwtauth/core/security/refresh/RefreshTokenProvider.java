@@ -0,0 +1,31 @@
+package me.stinper.jwtauth.core.security.refresh;
+
+import io.jsonwebtoken.JwtException;
+import me.stinper.jwtauth.core.security.jwt.JwtAuthUserDetails;
+import org.springframework.lang.NonNull;
+
+/**
+ * Выпускает Refresh-токены и проверяет их формат. Источником истины о действительности Refresh-токена всегда
+ * является БД (наличие дайджеста токена и срок действия), поэтому реализация отвечает только за формат токена.
+ * Реализация выбирается в зависимости от формата Refresh-токенов ({@code app.auth.security.refresh-token.format}): <br>
+ * - OPAQUE (по-умолчанию) - случайная 256-битная строка, выпуск и проверка не требуют криптографических операций
+ * с ключом подписи <br>
+ * - JWT - подписанный JWT, проверяемый перед обращением к БД
+ *
+ * @see OpaqueRefreshTokenProvider
+ * @see JwtRefreshTokenProvider
+ */
+public interface RefreshTokenProvider {
+    /**
+     * @param userDetails пользователь, для которого выпускается токен
+     * @return новый Refresh-токен
+     */
+    String createRefreshToken(@NonNull JwtAuthUserDetails userDetails);
+
+    /**
+     * Проверяет формат Refresh-токена перед его поиском в БД
+     * @param refreshToken Refresh-токен из запроса
+     * @throws JwtException если токен заведомо недействителен
+     */
+    void verifyRefreshToken(@NonNull String refreshToken) throws JwtException;
+}
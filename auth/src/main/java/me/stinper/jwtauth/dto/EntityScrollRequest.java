@@ -0,0 +1,107 @@
+package me.stinper.jwtauth.dto;
+
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import me.stinper.jwtauth.core.pagination.KeysetCursor;
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.core.pagination.KeysetSortFields;
+import me.stinper.jwtauth.exception.InvalidScrollCursorException;
+import me.stinper.jwtauth.exception.UnsupportedSortPropertyException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.lang.NonNull;
+import org.springframework.util.StringUtils;
+
+public record EntityScrollRequest(
+
+        @Parameter(
+                in = ParameterIn.QUERY,
+                description = "Максимальное количество записей в порции",
+                example = "10",
+                required = true,
+                schema = @Schema(minLength = 1, maxLength = 100, type = "int")
+        )
+        @NotNull(message = "{messages.entity-pagination-request.validation.size.null}")
+        @Min(value = 1, message = "{messages.entity-scroll-request.validation.size.not-positive}")
+        @Max(value = 100, message = "{messages.entity-pagination-request.validation.size.too-big}")
+        Integer size,
+
+        @Parameter(
+                in = ParameterIn.QUERY,
+                name = "sortBy",
+                description = """
+                        Имя поля, по которому необходимо провести сортировку полученных записей.
+                        Допускаются только поля с уникальным индексом. По умолчанию - идентификатор записи
+                        """,
+                example = "email"
+        )
+        String sortBy,
+
+        @Parameter(
+                in = ParameterIn.QUERY,
+                name = "direction",
+                description = "Направление сортировки (ASC / DESC). По умолчанию - ASC",
+                example = "ASC"
+        )
+        Sort.Direction direction,
+
+        @Parameter(
+                in = ParameterIn.QUERY,
+                name = "cursor",
+                description = """
+                        Курсор, полученный в поле nextCursor предыдущей порции. Для получения первой порции не указывается.
+                        Курсор действителен только с теми же sortBy и direction, с которыми он был получен
+                        """
+        )
+        String cursor,
+
+        @Parameter(
+                in = ParameterIn.QUERY,
+                name = "withTotal",
+                description = "Подсчитать общее количество записей (требует дополнительного запроса). По умолчанию - false",
+                example = "false"
+        )
+        Boolean withTotal
+
+) {
+        /**
+         * @throws UnsupportedSortPropertyException если сортировка по заданному полю не поддерживается
+         * @throws InvalidScrollCursorException если курсор поврежден или был получен с другой сортировкой
+         */
+        public KeysetScrollQuery buildScrollQueryFromRequest(@NonNull KeysetSortFields sortFields) {
+                String sortProperty = StringUtils.hasText(this.sortBy) ? this.sortBy : sortFields.idProperty();
+                Sort.Direction sortDirection = this.direction == null ? Sort.Direction.ASC : this.direction;
+
+                if (!sortFields.isSupported(sortProperty))
+                        throw new UnsupportedSortPropertyException(
+                                "messages.request-components.query-params.unsupported-sort-property",
+                                sortProperty,
+                                StringUtils.collectionToDelimitedString(sortFields.properties().keySet(), ", ", "'", "'")
+                        );
+
+                KeysetScrollPosition position = ScrollPosition.keyset();
+
+                if (StringUtils.hasText(this.cursor)) {
+                        KeysetCursor keysetCursor = KeysetCursor.decode(this.cursor, sortFields);
+
+                        if (!keysetCursor.sortBy().equals(sortProperty) || keysetCursor.direction() != sortDirection)
+                                throw new InvalidScrollCursorException("messages.request-components.query-params.invalid-cursor");
+
+                        position = ScrollPosition.forward(keysetCursor.keys());
+                }
+
+                return new KeysetScrollQuery(
+                        sortProperty,
+                        sortDirection,
+                        position,
+                        this.size,
+                        Boolean.TRUE.equals(this.withTotal),
+                        sortFields
+                );
+        }
+}
@@ -0,0 +1,14 @@
+package me.stinper.jwtauth.dto;
+
+/**
+ * Сериализованный {@link JwksDto}, готовый к отправке клиенту
+ * @param keyRingVersion версия набора ключей, из которого построен документ
+ * @param content JSON представление документа
+ * @param eTag строгий ETag (в кавычках), вычисленный из содержимого документа
+ */
+public record JwksDocument(
+        long keyRingVersion,
+        byte[] content,
+        String eTag
+) {
+}
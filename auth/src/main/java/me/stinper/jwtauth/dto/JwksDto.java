@@ -1,5 +1,6 @@
 package me.stinper.jwtauth.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Data;
 
@@ -9,17 +10,25 @@ public record JwksDto(
         List<KeyBody> keys
 ) {
 
+    /**
+     * Публичный ключ в формате JWK (RFC 7517). Параметр {@code kid} совпадает с заголовком {@code kid} токенов,
+     * подписанных этим ключом. Набор заполненных параметров зависит от типа ключа: <br>
+     * {@code RSA} - {@code n}, {@code e}; <br>
+     * {@code EC} - {@code crv}, {@code x}, {@code y}; <br>
+     * {@code OKP} - {@code crv}, {@code x}
+     */
     @Data
     @Builder
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class KeyBody {
         private final String kty;
+        private final String kid;
         private final String alg;
         private final String n;
         private final String e;
-
-        public static KeyBodyBuilder RSA_KEY = KeyBody.builder()
-                .alg("RS256")
-                .kty("RSA");
+        private final String crv;
+        private final String x;
+        private final String y;
     }
 
 }
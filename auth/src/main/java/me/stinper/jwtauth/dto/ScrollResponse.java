@@ -0,0 +1,26 @@
+package me.stinper.jwtauth.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Порция записей, полученная при постраничном обходе по курсору
+ */
+@Schema(description = "Порция записей, полученная при постраничном обходе по курсору")
+public record ScrollResponse<T>(
+        @Schema(description = "Записи порции")
+        List<T> content,
+
+        @Schema(
+                description = "Курсор для получения следующей порции записей. Отсутствует, если порция последняя",
+                example = "eyJzb3J0QnkiOiJlbWFpbCIsImRpcmVjdGlvbiI6IkFTQyIsImtleXMiOnsi..."
+        )
+        String nextCursor,
+
+        @Schema(description = "Есть ли следующая порция записей")
+        boolean hasNext,
+
+        @Schema(description = "Общее количество записей. Подсчитывается только по запросу (withTotal=true)")
+        Long totalElements
+) {}
@@ -20,14 +20,30 @@ public class IdempotencyKey {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "key", nullable = false, unique = true)
+    @Column(name = "key", nullable = false)
     @EqualsAndHashCode.Include
     private UUID key;
 
     @Column(name = "issued_at", nullable = false, insertable = false, updatable = false)
     private Instant issuedAt = Instant.now();
 
-    @Column(name = "response_data", nullable = false, columnDefinition = "TEXT")
-    private String responseData;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private IdempotencyKeyStatus status;
+
+    /**
+     * Закодированный результат выполнения операции. Отсутствует, пока ключ находится в состоянии
+     * {@link IdempotencyKeyStatus#PENDING}
+     * @see me.stinper.jwtauth.core.idempotency.IdempotencyPayloadCodec
+     */
+    @Column(name = "response_payload", columnDefinition = "BYTEA")
+    @ToString.Exclude
+    private byte[] responsePayload;
+
+    /**
+     * Формат, в котором закодирован результат выполнения операции
+     */
+    @Column(name = "content_type", length = 64)
+    private String contentType;
 
 }
@@ -0,0 +1,16 @@
+package me.stinper.jwtauth.entity;
+
+/**
+ * Состояние ключа идемпотентности
+ */
+public enum IdempotencyKeyStatus {
+    /**
+     * Ключ захвачен запросом, операция выполняется, результата еще нет
+     */
+    PENDING,
+
+    /**
+     * Операция выполнена, ее результат сохранен вместе с ключом
+     */
+    COMPLETED
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.Instant;
+import java.util.UUID;
 
 @Entity
 @Table(name = "refresh_tokens")
@@ -24,9 +25,28 @@ public class RefreshToken {
     @ToString.Exclude
     private User user;
 
-    @Column(name = "token", nullable = false, columnDefinition = "TEXT", unique = true)
+    /**
+     * SHA-256 дайджест компактного представления токена. Сам токен в БД не хранится
+     * @see me.stinper.jwtauth.utils.TokenDigestUtils#sha256(String)
+     */
+    @Column(name = "token_hash", nullable = false, columnDefinition = "BYTEA", unique = true, length = 32)
     @EqualsAndHashCode.Include
-    private String token;
+    @ToString.Exclude
+    private byte[] tokenHash;
+
+    /**
+     * Идентификатор семейства токенов. Все токены, полученные ротацией из токена, выданного при входе,
+     * принадлежат одному семейству (одной сессии пользователя)
+     */
+    @Column(name = "family_id", nullable = false, updatable = false)
+    private UUID familyId;
+
+    /**
+     * Момент, когда токен был использован для получения нового Access-токена. Использованный токен остается в БД
+     * до истечения срока действия, чтобы обнаружить его повторное использование
+     */
+    @Column(name = "consumed_at")
+    private Instant consumedAt;
 
     @Column(name = "created_at", insertable = false, updatable = false)
     private Instant createdAt = Instant.now();
@@ -20,6 +20,7 @@ public abstract class BaseApiException extends RuntimeException {
 
     public BaseApiException(String errorMessageCode) {
         this.errorMessageCode = errorMessageCode;
+        this.args = new Object[0];
     }
 
     public Object[] getArgs() {
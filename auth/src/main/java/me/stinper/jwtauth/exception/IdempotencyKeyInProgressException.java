@@ -0,0 +1,16 @@
+package me.stinper.jwtauth.exception;
+
+import java.io.Serial;
+
+public class IdempotencyKeyInProgressException extends BaseApiException {
+    @Serial
+    private static final long serialVersionUID = 5184730962214580317L;
+
+    public IdempotencyKeyInProgressException(String errorMessageCode, Object... args) {
+        super(errorMessageCode, args);
+    }
+
+    public IdempotencyKeyInProgressException(String errorMessageCode) {
+        super(errorMessageCode);
+    }
+}
@@ -0,0 +1,16 @@
+package me.stinper.jwtauth.exception;
+
+import java.io.Serial;
+
+public class IdempotencyKeyReusedException extends BaseApiException {
+    @Serial
+    private static final long serialVersionUID = 7305419862273950148L;
+
+    public IdempotencyKeyReusedException(String errorMessageCode, Object... args) {
+        super(errorMessageCode, args);
+    }
+
+    public IdempotencyKeyReusedException(String errorMessageCode) {
+        super(errorMessageCode);
+    }
+}
@@ -0,0 +1,16 @@
+package me.stinper.jwtauth.exception;
+
+import java.io.Serial;
+
+public class InvalidScrollCursorException extends BaseApiException {
+    @Serial
+    private static final long serialVersionUID = -3057224816302851187L;
+
+    public InvalidScrollCursorException(String errorMessageCode, Object... args) {
+        super(errorMessageCode, args);
+    }
+
+    public InvalidScrollCursorException(String errorMessageCode) {
+        super(errorMessageCode);
+    }
+}
@@ -0,0 +1,16 @@
+package me.stinper.jwtauth.exception;
+
+import java.io.Serial;
+
+public class PasswordHashingOverloadedException extends BaseApiException {
+    @Serial
+    private static final long serialVersionUID = 2675148201937640561L;
+
+    public PasswordHashingOverloadedException(String errorMessageCode, Object... args) {
+        super(errorMessageCode, args);
+    }
+
+    public PasswordHashingOverloadedException(String errorMessageCode) {
+        super(errorMessageCode);
+    }
+}
@@ -0,0 +1,16 @@
+package me.stinper.jwtauth.exception;
+
+import java.io.Serial;
+
+public class UnsupportedSortPropertyException extends BaseApiException {
+    @Serial
+    private static final long serialVersionUID = 7712950386470143298L;
+
+    public UnsupportedSortPropertyException(String errorMessageCode, Object... args) {
+        super(errorMessageCode, args);
+    }
+
+    public UnsupportedSortPropertyException(String errorMessageCode) {
+        super(errorMessageCode);
+    }
+}
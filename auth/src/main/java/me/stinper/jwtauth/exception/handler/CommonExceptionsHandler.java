@@ -8,8 +8,10 @@ import me.stinper.jwtauth.core.error.ApiErrorCode;
 import me.stinper.jwtauth.core.error.IdempotencyKeyErrorCode;
 import me.stinper.jwtauth.exception.*;
 import me.stinper.jwtauth.utils.MessageSourceHelper;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
@@ -38,6 +40,42 @@ public class CommonExceptionsHandler {
         return this.handleBaseApiException(e, HttpStatus.BAD_REQUEST, IdempotencyKeyErrorCode.KEY_IS_EXPIRED.getCode());
     }
 
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<Problem> handleIdempotencyKeyInProgressException(IdempotencyKeyInProgressException e) {
+        return this.handleBaseApiException(e, HttpStatus.CONFLICT, IdempotencyKeyErrorCode.KEY_IS_IN_PROGRESS.getCode());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Problem> handleIdempotencyKeyReusedException(IdempotencyKeyReusedException e) {
+        return this.handleBaseApiException(e, HttpStatus.UNPROCESSABLE_ENTITY, IdempotencyKeyErrorCode.KEY_IS_REUSED.getCode());
+    }
+
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<Problem> handlePasswordHashingOverloadedException(PasswordHashingOverloadedException e) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(
+                        new Problem(
+                                ApiErrorCode.SERVICE_OVERLOADED.getCode(),
+                                messageSourceHelper.getLocalizedMessage(e.getErrorMessageCode(), e.getArgs())
+                        )
+                );
+    }
+
+    /**
+     * Spring Security оборачивает исключения, возникшие при загрузке пользователя (в т.ч. при проверке пароля
+     * несуществующего пользователя), в {@link InternalAuthenticationServiceException}
+     */
+    @ExceptionHandler(InternalAuthenticationServiceException.class)
+    public ResponseEntity<Problem> handleInternalAuthenticationServiceException(InternalAuthenticationServiceException e) {
+        if (e.getCause() instanceof PasswordHashingOverloadedException overloadedException)
+            return this.handlePasswordHashingOverloadedException(overloadedException);
+
+        log.atError().setCause(e).log("[#handleInternalAuthenticationServiceException]: Ошибка при аутентификации");
+        return this.handleAsInternalServerError();
+    }
+
     @ExceptionHandler(JsonProcessingException.class)
     public ResponseEntity<Problem> handleJsonProcessingException(JsonProcessingException e) {
         return this.handleAsInternalServerError();
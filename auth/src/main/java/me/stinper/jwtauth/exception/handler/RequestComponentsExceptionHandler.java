@@ -3,7 +3,9 @@ package me.stinper.jwtauth.exception.handler;
 import lombok.RequiredArgsConstructor;
 import me.stinper.commons.api.response.RequestParameterProblem;
 import me.stinper.jwtauth.core.error.RequestComponentErrorCode;
+import me.stinper.jwtauth.exception.InvalidScrollCursorException;
 import me.stinper.jwtauth.exception.NoSuchPropertyException;
+import me.stinper.jwtauth.exception.UnsupportedSortPropertyException;
 import me.stinper.jwtauth.exception.response.UnresolvedPropertyErrorResponse;
 import me.stinper.jwtauth.utils.MessageSourceHelper;
 import org.springframework.http.HttpStatus;
@@ -84,4 +86,30 @@ public class RequestComponentsExceptionHandler {
                         )
                 );
     }
+
+    @ExceptionHandler(UnsupportedSortPropertyException.class)
+    public ResponseEntity<RequestParameterProblem> handleUnsupportedSortPropertyException(UnsupportedSortPropertyException e) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(
+                        new RequestParameterProblem(
+                                RequestComponentErrorCode.UNSUPPORTED_SORT_PROPERTY.getCode(),
+                                messageSourceHelper.getLocalizedMessage(e.getErrorMessageCode(), e.getArgs()),
+                                "sortBy"
+                        )
+                );
+    }
+
+    @ExceptionHandler(InvalidScrollCursorException.class)
+    public ResponseEntity<RequestParameterProblem> handleInvalidScrollCursorException(InvalidScrollCursorException e) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(
+                        new RequestParameterProblem(
+                                RequestComponentErrorCode.INVALID_CURSOR.getCode(),
+                                messageSourceHelper.getLocalizedMessage(e.getErrorMessageCode(), e.getArgs()),
+                                "cursor"
+                        )
+                );
+    }
 }
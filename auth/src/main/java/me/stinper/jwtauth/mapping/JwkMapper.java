@@ -0,0 +1,8 @@
+package me.stinper.jwtauth.mapping;
+
+import me.stinper.jwtauth.core.security.jwt.JwtSigningKey;
+import me.stinper.jwtauth.dto.JwksDto;
+
+public interface JwkMapper {
+    JwksDto.KeyBody toKeyBody(JwtSigningKey signingKey);
+}
@@ -0,0 +1,94 @@
+package me.stinper.jwtauth.mapping.impl;
+
+import me.stinper.jwtauth.core.security.jwt.JwtSigningKey;
+import me.stinper.jwtauth.dto.JwksDto;
+import me.stinper.jwtauth.mapping.JwkMapper;
+import org.springframework.stereotype.Component;
+
+import java.math.BigInteger;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.EdECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.util.Arrays;
+import java.util.Base64;
+
+@Component
+public class JwkMapperImpl implements JwkMapper {
+    private static final String P256_CURVE = "P-256";
+    private static final int P256_COORDINATE_LENGTH = 32;
+
+    private static final String ED25519_CURVE = "Ed25519";
+    private static final int ED25519_KEY_LENGTH = 32;
+
+    private static final Base64.Encoder BASE64_URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Override
+    public JwksDto.KeyBody toKeyBody(JwtSigningKey signingKey) {
+        PublicKey publicKey = signingKey.publicKey();
+
+        return switch (signingKey.algorithm()) {
+            case RS256 -> toRsaKeyBody((RSAPublicKey) publicKey, signingKey);
+            case ES256 -> toEcKeyBody((ECPublicKey) publicKey, signingKey);
+            case EdDSA -> toOctetKeyBody((EdECPublicKey) publicKey, signingKey);
+        };
+    }
+
+    private static JwksDto.KeyBody toRsaKeyBody(RSAPublicKey publicKey, JwtSigningKey signingKey) {
+        return JwksDto.KeyBody.builder()
+                .kty("RSA")
+                .kid(signingKey.kid())
+                .alg(signingKey.algorithm().getJwaName())
+                .n(encodeUnsigned(publicKey.getModulus(), 0))
+                .e(encodeUnsigned(publicKey.getPublicExponent(), 0))
+                .build();
+    }
+
+    private static JwksDto.KeyBody toEcKeyBody(ECPublicKey publicKey, JwtSigningKey signingKey) {
+        return JwksDto.KeyBody.builder()
+                .kty("EC")
+                .kid(signingKey.kid())
+                .alg(signingKey.algorithm().getJwaName())
+                .crv(P256_CURVE)
+                .x(encodeUnsigned(publicKey.getW().getAffineX(), P256_COORDINATE_LENGTH))
+                .y(encodeUnsigned(publicKey.getW().getAffineY(), P256_COORDINATE_LENGTH))
+                .build();
+    }
+
+    private static JwksDto.KeyBody toOctetKeyBody(EdECPublicKey publicKey, JwtSigningKey signingKey) {
+        /*
+        Кодировка X.509 публичного ключа Ed25519 состоит из фиксированного заголовка и 32 байт самого ключа (RFC 8410),
+        которые и являются значением параметра "x" (RFC 8037)
+         */
+        byte[] encodedKey = publicKey.getEncoded();
+        byte[] rawKey = Arrays.copyOfRange(encodedKey, encodedKey.length - ED25519_KEY_LENGTH, encodedKey.length);
+
+        return JwksDto.KeyBody.builder()
+                .kty("OKP")
+                .kid(signingKey.kid())
+                .alg(signingKey.algorithm().getJwaName())
+                .crv(ED25519_CURVE)
+                .x(BASE64_URL_ENCODER.encodeToString(rawKey))
+                .build();
+    }
+
+    /**
+     * Кодирует число в Base64url без знакового байта, как того требует RFC 7518
+     * @param value кодируемое число
+     * @param length длина результата в байтах, дополняемого ведущими нулями; 0 - минимально необходимая длина
+     */
+    private static String encodeUnsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+
+        if (bytes.length > 1 && bytes[0] == 0)
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+
+        return BASE64_URL_ENCODER.encodeToString(bytes);
+    }
+}
@@ -3,18 +3,87 @@ package me.stinper.jwtauth.repository;
 import me.stinper.jwtauth.entity.IdempotencyKey;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
+/**
+ * Таблица {@code idempotency_keys} секционирована по {@code issued_at}, поэтому все запросы ограничивают
+ * {@code issued_at} снизу ({@code notBefore}) - это позволяет PostgreSQL просматривать только актуальные секции
+ */
 public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
-    Optional<IdempotencyKey> findByKey(UUID key);
+    @Query("SELECT k FROM IdempotencyKey k WHERE k.key = :key AND k.issuedAt >= :notBefore")
+    Optional<IdempotencyKey> findByKey(@Param("key") UUID key, @Param("notBefore") Instant notBefore);
 
-    boolean existsByKey(UUID key);
+    /**
+     * Захватывает транзакционную рекомендательную блокировку для ключа идемпотентности. Блокировка освобождается
+     * при завершении текущей транзакции
+     */
+    @Query(
+            value = "SELECT 1 FROM pg_advisory_xact_lock(hashtextextended(CAST(:key AS text), 0))",
+            nativeQuery = true
+    )
+    Integer lockKey(@Param("key") UUID key);
 
+    /**
+     * Создает запись в состоянии {@link me.stinper.jwtauth.entity.IdempotencyKeyStatus#PENDING}, если ключ
+     * не был выдан начиная с момента {@code notBefore}. Должен вызываться под блокировкой {@link #lockKey(UUID)}
+     * отдельным запросом: в режиме READ COMMITTED только запрос, начатый после получения блокировки, увидит записи,
+     * зафиксированные предыдущим владельцем блокировки
+     * @return идентификатор созданной записи, если ключ был захвачен, иначе пустой {@link Optional}
+     */
+    @Transactional
+    @Query(
+            value = """
+                    INSERT INTO idempotency_keys (key, status, issued_at)
+                    SELECT :key, 'PENDING', :issuedAt
+                    WHERE NOT EXISTS (
+                        SELECT 1 FROM idempotency_keys WHERE key = :key AND issued_at >= :notBefore
+                    )
+                    RETURNING id
+                    """,
+            nativeQuery = true
+    )
+    Optional<Long> insertIfAbsent(@Param("key") UUID key,
+                                  @Param("issuedAt") Instant issuedAt,
+                                  @Param("notBefore") Instant notBefore);
+
+    /**
+     * Сохраняет результат выполнения операции и переводит захваченный ключ в состояние
+     * {@link me.stinper.jwtauth.entity.IdempotencyKeyStatus#COMPLETED}
+     * @return количество измененных записей (0, если ключ не находится в состоянии PENDING)
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE IdempotencyKey k
+            SET k.status = me.stinper.jwtauth.entity.IdempotencyKeyStatus.COMPLETED,
+                k.responsePayload = :responsePayload,
+                k.contentType = :contentType
+            WHERE k.key = :key
+              AND k.issuedAt >= :notBefore
+              AND k.status = me.stinper.jwtauth.entity.IdempotencyKeyStatus.PENDING
+            """)
+    int complete(@Param("key") UUID key,
+                 @Param("notBefore") Instant notBefore,
+                 @Param("responsePayload") byte[] responsePayload,
+                 @Param("contentType") String contentType);
+
+    /**
+     * Освобождает захваченный ключ, если операция завершилась ошибкой, чтобы запрос можно было повторить с тем же ключом
+     * @return количество удаленных записей
+     */
     @Modifying
     @Transactional
-    int deleteByIssuedAtBefore(Instant period);
+    @Query("""
+            DELETE FROM IdempotencyKey k
+            WHERE k.key = :key
+              AND k.issuedAt >= :notBefore
+              AND k.status = me.stinper.jwtauth.entity.IdempotencyKeyStatus.PENDING
+            """)
+    int release(@Param("key") UUID key, @Param("notBefore") Instant notBefore);
 }
@@ -2,11 +2,12 @@ package me.stinper.jwtauth.repository;
 
 import me.stinper.jwtauth.entity.Permission;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 
 import java.util.Set;
 
-public interface PermissionRepository extends JpaRepository<Permission, Long> {
+public interface PermissionRepository extends JpaRepository<Permission, Long>, JpaSpecificationExecutor<Permission> {
     Set<Permission> findAllByPermissionIn(Set<String> permissions);
 
     boolean existsByPermissionIgnoreCase(String permission);
@@ -4,15 +4,63 @@ import me.stinper.jwtauth.entity.RefreshToken;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Optional;
+import java.util.UUID;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
     @EntityGraph(attributePaths = {"user"}, type = EntityGraph.EntityGraphType.LOAD)
-    Optional<RefreshToken> findByToken(String token);
+    Optional<RefreshToken> findByTokenHash(byte[] tokenHash);
 
+    /**
+     * Помечает токен использованным, если он еще не был использован. Проверка и изменение выполняются одним
+     * условным UPDATE, поэтому из нескольких одновременных запросов (в т.ч. на разных узлах) токен сможет
+     * использовать только один
+     * @return 1, если токен помечен использованным этим вызовом; 0, если токен уже был использован ранее
+     */
     @Modifying
     @Transactional
-    void deleteByUser_Email(String email);
+    @Query("UPDATE RefreshToken t SET t.consumedAt = :consumedAt WHERE t.id = :id AND t.consumedAt IS NULL")
+    int markConsumed(@Param("id") Long id, @Param("consumedAt") Instant consumedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.familyId = :familyId")
+    int deleteByFamilyId(@Param("familyId") UUID familyId);
+
+    /**
+     * Удаляет не более {@code limit} Refresh-токенов, срок действия которых истек к моменту {@code now}.
+     * Строки выбираются по физическому адресу ({@code ctid}) через индекс по {@code expires_at}, поэтому каждый
+     * вызов затрагивает ограниченное количество строк и удерживает блокировки недолго
+     * @return количество удаленных токенов
+     */
+    @Modifying
+    @Transactional
+    @Query(
+            value = """
+                    DELETE FROM refresh_tokens
+                    WHERE ctid IN (
+                        SELECT ctid FROM refresh_tokens
+                        WHERE expires_at < :now
+                        LIMIT :limit
+                    )
+                    """,
+            nativeQuery = true
+    )
+    int deleteExpiredChunk(@Param("now") Instant now, @Param("limit") int limit);
+
+    /**
+     * Удаляет все Refresh-токены пользователя одним запросом {@code DELETE}, без загрузки сущностей в контекст
+     * персистентности
+     * @param userUuid UUID пользователя
+     * @return количество удаленных токенов
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RefreshToken t WHERE t.user.uuid = :userUuid")
+    int deleteAllByUserUuid(@Param("userUuid") UUID userUuid);
 }
@@ -6,12 +6,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
-public interface RoleRepository extends JpaRepository<Role, Long> {
+public interface RoleRepository extends JpaRepository<Role, Long>, JpaSpecificationExecutor<Role> {
 
     @EntityGraph(attributePaths = "permissions", type = EntityGraph.EntityGraphType.LOAD)
     Optional<Role> findByRoleNameIgnoreCase(String roleName);
@@ -20,6 +23,9 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     @EntityGraph(attributePaths = "permissions", type = EntityGraph.EntityGraphType.LOAD)
     Page<Role> findAll(Pageable pageable);
 
+    @EntityGraph(attributePaths = "permissions", type = EntityGraph.EntityGraphType.LOAD)
+    List<Role> findAllByIdIn(Collection<Long> ids);
+
 
     void deleteByRoleNameIgnoreCase(String roleName);
     boolean existsByRoleNameIgnoreCase(String roleName);
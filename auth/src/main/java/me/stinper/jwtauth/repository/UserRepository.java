@@ -3,13 +3,14 @@ package me.stinper.jwtauth.repository;
 import me.stinper.jwtauth.entity.Role;
 import me.stinper.jwtauth.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 
-public interface UserRepository extends JpaRepository<User, UUID> {
+public interface UserRepository extends JpaRepository<User, UUID>, JpaSpecificationExecutor<User> {
     @Query("SELECT u FROM User u LEFT JOIN FETCH u.roles roles LEFT JOIN FETCH roles.permissions WHERE upper(u.email) = upper(:email)")
     Optional<User> findByEmailIgnoreCase(String email);
 
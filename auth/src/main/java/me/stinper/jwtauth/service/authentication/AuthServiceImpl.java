@@ -72,6 +72,10 @@ public class AuthServiceImpl implements AuthService {
     public void logout(@NonNull JwtAuthUserDetails userDetails) {
         log.atDebug().log("[#logout]: Начало выполнения метода. UUID: '{}'", userDetails.getUuid());
 
-        jwtService.invalidateRefreshTokens(userDetails);
+        int revokedTokens = jwtService.invalidateRefreshTokens(userDetails);
+
+        log.atDebug().log("[#logout]: Пользователь '{}' вышел из системы. Отозвано Refresh-токенов: {}",
+                userDetails.getUuid(), revokedTokens
+        );
     }
 }
@@ -0,0 +1,73 @@
+package me.stinper.jwtauth.service.authentication;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.stinper.jwtauth.core.security.jwt.JwtKeyRing;
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureKeysProvider;
+import me.stinper.jwtauth.dto.JwksDocument;
+import me.stinper.jwtauth.dto.JwksDto;
+import me.stinper.jwtauth.mapping.JwkMapper;
+import me.stinper.jwtauth.service.authentication.contract.JwksService;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class JwksServiceImpl implements JwksService {
+    private final JwtSignatureKeysProvider signatureKeysProvider;
+    private final JwkMapper jwkMapper;
+    private final ObjectMapper objectMapper;
+
+    private volatile JwksDocument currentDocument;
+
+    @Override
+    public JwksDocument getJwksDocument() {
+        JwtKeyRing keyRing = signatureKeysProvider.keyRing();
+        JwksDocument jwksDocument = this.currentDocument;
+
+        if (jwksDocument == null || jwksDocument.keyRingVersion() != keyRing.version()) {
+            //Одновременное построение документа несколькими потоками безопасно: результат для одной версии идентичен
+            jwksDocument = buildJwksDocument(keyRing);
+            this.currentDocument = jwksDocument;
+
+            log.atDebug().log("[#getJwksDocument]: Построен JWKS документ для набора ключей версии {}, ETag: {}",
+                    keyRing.version(), jwksDocument.eTag()
+            );
+        }
+
+        return jwksDocument;
+    }
+
+    private JwksDocument buildJwksDocument(JwtKeyRing keyRing) {
+        JwksDto jwksDto = new JwksDto(
+                keyRing.verificationKeys()
+                        .stream()
+                        .map(jwkMapper::toKeyBody)
+                        .toList()
+        );
+
+        try {
+            byte[] content = objectMapper.writeValueAsBytes(jwksDto);
+            return new JwksDocument(keyRing.version(), content, computeETag(content));
+        }
+        catch (JsonProcessingException jpe) {
+            throw new IllegalStateException("Не удалось сериализовать JWKS документ", jpe);
+        }
+    }
+
+    private static String computeETag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest) + "\"";
+        }
+        catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("Алгоритм SHA-256 не поддерживается JVM", nsae);
+        }
+    }
+}
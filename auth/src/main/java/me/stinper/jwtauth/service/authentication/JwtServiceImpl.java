@@ -1,50 +1,66 @@
 package me.stinper.jwtauth.service.authentication;
 
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import me.stinper.jwtauth.core.security.jwt.JwtAuthUserDetails;
 import me.stinper.jwtauth.core.security.jwt.service.JwtCreationService;
-import me.stinper.jwtauth.core.security.jwt.service.JwtVerificationService;
+import me.stinper.jwtauth.core.security.refresh.RefreshTokenProvider;
 import me.stinper.jwtauth.dto.JwtResponse;
 import me.stinper.jwtauth.dto.RefreshAccessTokenRequest;
 import me.stinper.jwtauth.entity.RefreshToken;
 import me.stinper.jwtauth.entity.User;
 import me.stinper.jwtauth.repository.RefreshTokenRepository;
 import me.stinper.jwtauth.service.authentication.contract.JwtService;
+import me.stinper.jwtauth.utils.TokenDigestUtils;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.UUID;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class JwtServiceImpl implements JwtService {
+    private static final String REVOKED_TOKENS_METER = "refresh.tokens.revoked";
+
     private final RefreshTokenRepository refreshTokenRepository;
-    private final JwtVerificationService jwtVerificationService;
     private final JwtCreationService jwtCreationService;
+    private final RefreshTokenProvider refreshTokenProvider;
+    private final MeterRegistry meterRegistry;
 
     @Value("${app.auth.security.jwt.refresh-token-expiration}")
     @Setter(AccessLevel.PACKAGE)
     private Duration refreshTokenExpiration;
 
+    /**
+     * Выполняет ротацию Refresh-токена: предъявленный токен помечается использованным, а взамен выдается новый
+     * токен того же семейства с тем же сроком действия. Повторное предъявление уже использованного токена
+     * расценивается как признак его кражи - в этом случае отзывается все семейство (но не другие сессии пользователя).
+     * <p>
+     * Транзакция не откатывается при {@link JwtException}, чтобы отзыв семейства был зафиксирован
+     */
     @Override
+    @Transactional(noRollbackFor = JwtException.class)
     public JwtResponse refreshAccessToken(@NonNull RefreshAccessTokenRequest refreshAccessTokenRequest) throws JwtException {
         String refreshToken = refreshAccessTokenRequest.refreshToken();
 
         log.atDebug().log("[#refreshAccessToken]: Начало выполнение метода \n\tRefresh-токен: '{}'", refreshToken);
 
-        jwtVerificationService.verifyTokenSignature(refreshToken);
+        refreshTokenProvider.verifyRefreshToken(refreshToken);
 
         log.atDebug().log("[#refreshAccessToken]: Refresh-токен успешно верифицирован \n\tЗначение токена: '{}'", refreshToken);
 
         RefreshToken token = refreshTokenRepository
-                .findByToken(refreshToken)
+                .findByTokenHash(TokenDigestUtils.sha256(refreshToken))
                 .orElseThrow(() -> {
                     log.atDebug().log("[#refreshAccessToken]: Успешно верифицированный Refresh-токен не был найден в БД " +
                             "\n\tЗначение токена: '{}'", refreshToken
@@ -53,16 +69,45 @@ public class JwtServiceImpl implements JwtService {
                     return new JwtException(""); //Сообщение не нужно, оно формируется в обработчике ошибок
                 });
 
-        String newAccessToken = jwtCreationService.createAccessToken(token.getUser());
+        if (!token.getExpiresAt().isAfter(Instant.now())) {
+            log.atDebug().log("[#refreshAccessToken]: Срок действия Refresh-токена истек {} \n\tЗначение токена: '{}'",
+                    token.getExpiresAt(), refreshToken
+            );
+
+            throw new ExpiredJwtException(null, null, "");
+        }
+
+        /*
+        Проверка "не использован ли токен" и его пометка выполняются одним условным UPDATE. Если токен
+        одновременно предъявлен в нескольких запросах (в т.ч. на разных узлах), строку обновит только один из них,
+        остальные получат 0 и будут обработаны как повторное использование
+         */
+        if (token.getConsumedAt() != null || refreshTokenRepository.markConsumed(token.getId(), Instant.now()) == 0) {
+            int revokedTokens = refreshTokenRepository.deleteByFamilyId(token.getFamilyId());
+            meterRegistry.counter(REVOKED_TOKENS_METER, "reason", "reuse").increment(revokedTokens);
+
+            log.atWarn().log("[#refreshAccessToken]: Обнаружено повторное использование Refresh-токена пользователя '{}'. " +
+                            "Семейство токенов '{}' отозвано, удалено токенов: {}",
+                    token.getUser().getUuid(), token.getFamilyId(), revokedTokens
+            );
+
+            throw new JwtException("");
+        }
+
+        User user = token.getUser();
+
+        String newAccessToken = jwtCreationService.createAccessToken(user);
+        String newRefreshToken = refreshTokenProvider.createRefreshToken(user);
+
+        saveRefreshToken(user, newRefreshToken, token.getFamilyId(), token.getExpiresAt());
 
         log.atInfo().log(
                 () -> "[#refreshAccessToken]: Для пользователя с эл. почтой '"
-                        + token.getUser().getEmail() + "' был сформирован новый Access-токен " +
+                        + user.getEmail() + "' был сформирован новый Access-токен, Refresh-токен заменен новым " +
                         "\n\tЗначение токена: '" + newAccessToken + "'"
         );
 
-        return new JwtResponse(newAccessToken, refreshToken);
-
+        return new JwtResponse(newAccessToken, newRefreshToken);
     }
 
     @Override
@@ -74,37 +119,46 @@ public class JwtServiceImpl implements JwtService {
                 userDetails.getUuid(), accessToken
         );
 
-        String refreshToken = jwtCreationService.createRefreshToken(userDetails);
+        String refreshToken = refreshTokenProvider.createRefreshToken(userDetails);
         log.atDebug().log("[#generateTokensPair]: Для пользователя '{}' был сгенерирован Refresh-токен \n\tЗначение токена: '{}'",
                 userDetails.getUuid(), refreshToken
         );
 
-        RefreshToken token = RefreshToken.builder()
-                .user((User) userDetails)
-                .token(refreshToken)
-                .expiresAt(Instant.now().plus(this.refreshTokenExpiration))
-                .build();
-
-        log.atDebug().log(() -> "[#generateTokensPair]: Сформирован объект Refresh-токена: \n\tПользователь: '" + token.getUser().getUuid() +
-                "'\n\tЗначение токена: '" + refreshToken +
-                "'\n\tТокен действителен до: '" + token.getExpiresAt() + "'"
-        );
-
-        refreshTokenRepository.save(token);
-
-        log.atDebug().log("[#generateTokensPair]: Refresh-токен успешно сохранен в БД \n\tЗначение токена: '{}'", refreshToken);
+        saveRefreshToken((User) userDetails, refreshToken, UUID.randomUUID(), Instant.now().plus(this.refreshTokenExpiration));
 
         return new JwtResponse(accessToken, refreshToken);
     }
 
     @Override
-    public void invalidateRefreshTokens(@NonNull JwtAuthUserDetails userDetails) {
+    public int invalidateRefreshTokens(@NonNull JwtAuthUserDetails userDetails) {
         log.atDebug().log("[#invalidateRefreshTokens]: Начало выполнение метода. UUID: {}", userDetails.getUuid());
 
-        refreshTokenRepository.deleteByUser_Email(userDetails.getUsername());
+        int revokedTokens = refreshTokenRepository.deleteAllByUserUuid(userDetails.getUuid());
+        meterRegistry.counter(REVOKED_TOKENS_METER, "reason", "invalidation").increment(revokedTokens);
+
+        log.atInfo().log("[#invalidateRefreshTokens]: Для пользователя '{}' были инвалидированы все Refresh-токены. Удалено токенов: {}",
+                userDetails.getUuid(), revokedTokens
+        );
+
+        return revokedTokens;
+    }
+
+    private void saveRefreshToken(User user, String refreshToken, UUID familyId, Instant expiresAt) {
+        RefreshToken token = RefreshToken.builder()
+                .user(user)
+                .tokenHash(TokenDigestUtils.sha256(refreshToken))
+                .familyId(familyId)
+                .expiresAt(expiresAt)
+                .build();
 
-        log.atInfo().log("[#invalidateRefreshTokens]: Для пользователя '{}' были инвалидированы все Refresh-токены",
-                userDetails.getUuid()
+        log.atDebug().log(() -> "[#saveRefreshToken]: Сформирован объект Refresh-токена: \n\tПользователь: '" + user.getUuid() +
+                "'\n\tСемейство: '" + familyId +
+                "'\n\tЗначение токена: '" + refreshToken +
+                "'\n\tТокен действителен до: '" + expiresAt + "'"
         );
+
+        refreshTokenRepository.save(token);
+
+        log.atDebug().log("[#saveRefreshToken]: Refresh-токен успешно сохранен в БД \n\tЗначение токена: '{}'", refreshToken);
     }
 }
@@ -0,0 +1,17 @@
+package me.stinper.jwtauth.service.authentication.contract;
+
+import me.stinper.jwtauth.dto.JwksDocument;
+
+/**
+ * Сервис, служащий для публикации набора публичных ключей подписи в формате JWKS
+ */
+public interface JwksService {
+
+    /**
+     * Возвращает сериализованный JWKS документ для текущего набора ключей подписи. Документ строится один раз
+     * для каждой версии набора ключей, последующие вызовы возвращают уже готовый документ
+     * @return JWKS документ и его ETag
+     */
+    JwksDocument getJwksDocument();
+
+}
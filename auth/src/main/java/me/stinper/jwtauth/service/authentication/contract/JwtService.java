@@ -12,10 +12,12 @@ import org.springframework.lang.NonNull;
 public interface JwtService {
 
     /**
-     * Метод, служащий для получения нового access токена по ранее выданному refresh токену
+     * Метод, служащий для получения нового access токена по ранее выданному refresh токену. Предъявленный
+     * refresh токен становится использованным и заменяется новым токеном того же семейства; повторное
+     * использование токена приводит к отзыву всего семейства
      * @param refreshAccessTokenRequest Объект запроса
-     * @return Возвращает объект, в котором будет содержаться новый access токен
-     * @throws JwtException если в процессе работы с JWT произошла ошибка
+     * @return Возвращает объект, в котором будет содержаться новый access токен и новый refresh токен
+     * @throws JwtException если в процессе работы с JWT произошла ошибка или токен был использован повторно
      */
     JwtResponse refreshAccessToken(@NonNull RefreshAccessTokenRequest refreshAccessTokenRequest) throws JwtException;
 
@@ -29,7 +31,8 @@ public interface JwtService {
     /**
      * Удаляет все Refresh токены, связанные с конкретным пользователем
      * @param userDetails объект, содержащий информацию о пользователе
+     * @return количество удаленных токенов
      */
-    void invalidateRefreshTokens(@NonNull JwtAuthUserDetails userDetails);
+    int invalidateRefreshTokens(@NonNull JwtAuthUserDetails userDetails);
 
 }
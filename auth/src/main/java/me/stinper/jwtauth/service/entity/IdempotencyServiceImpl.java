@@ -1,79 +1,217 @@
 package me.stinper.jwtauth.service.entity;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
-import me.stinper.jwtauth.entity.IdempotencyKey;
+import me.stinper.jwtauth.core.idempotency.IdempotencyPayload;
+import me.stinper.jwtauth.core.idempotency.IdempotencyPayloadCodec;
+import me.stinper.jwtauth.core.idempotency.IdempotencyRecord;
+import me.stinper.jwtauth.core.idempotency.IdempotencyStore;
 import me.stinper.jwtauth.exception.IdempotencyKeyExpiredException;
-import me.stinper.jwtauth.repository.IdempotencyKeyRepository;
+import me.stinper.jwtauth.exception.IdempotencyKeyInProgressException;
 import me.stinper.jwtauth.service.entity.contract.IdempotencyService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.validation.Errors;
 
 import java.time.Duration;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.*;
 import java.util.function.Supplier;
 
+/**
+ * Ключ идемпотентности захватывается до выполнения операции (см. {@link IdempotencyStore#claim(UUID, Instant)}),
+ * поэтому операция выполняется не более одного раза, даже если запросы с одним ключом обрабатываются одновременно
+ * на разных узлах. Запросы, не захватившие ключ, ожидают результат не дольше {@code app.idempotency-wait-timeout}.
+ * <p>
+ * Метод намеренно не выполняется в общей транзакции: захват, сохранение результата и освобождение ключа фиксируются
+ * каждый в своей короткой транзакции, чтобы захват был виден конкурирующим запросам сразу.
+ * <p>
+ * Одновременные запросы с одним ключом в пределах одного узла объединяются: первый запрос (лидер) выполняет
+ * описанную выше процедуру, остальные ожидают его результат в памяти, не обращаясь к БД
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class IdempotencyServiceImpl implements IdempotencyService {
-    private final IdempotencyKeyRepository idempotencyKeyRepository;
-    private final ObjectMapper objectMapper;
+    private final IdempotencyStore idempotencyStore;
+    private final IdempotencyPayloadCodec payloadCodec;
+    private final Map<UUID, CompletableFuture<Object>> inFlightRequests = new ConcurrentHashMap<>();
+    private final Counter coalescedRequestsCounter;
 
     @Value("${app.idempotency-period}")
     @Setter(AccessLevel.PACKAGE)
     private Duration idempotencyPeriod;
 
+    @Value("${app.idempotency-wait-timeout}")
+    @Setter(AccessLevel.PACKAGE)
+    private Duration waitTimeout;
+
+    @Value("${app.idempotency-poll-interval}")
+    @Setter(AccessLevel.PACKAGE)
+    private Duration pollInterval;
+
+    public IdempotencyServiceImpl(IdempotencyStore idempotencyStore,
+                                  IdempotencyPayloadCodec payloadCodec,
+                                  MeterRegistry meterRegistry) {
+        this.idempotencyStore = idempotencyStore;
+        this.payloadCodec = payloadCodec;
+        this.coalescedRequestsCounter = Counter.builder("idempotency.requests.coalesced")
+                .description("Количество запросов, получивших результат одновременного запроса с тем же ключом идемпотентности")
+                .register(meterRegistry);
+
+        Gauge.builder("idempotency.requests.in-flight", inFlightRequests, Map::size)
+                .description("Количество выполняющихся на узле запросов с ключом идемпотентности")
+                .register(meterRegistry);
+    }
+
     @Override
-    @Transactional
     public <T> T process(@NonNull UUID idempotencyKey, @NonNull Supplier<T> serviceOperation, @NonNull Class<T> targetType)
             throws JsonProcessingException {
         log.atDebug().log("[#process]: Начало выполнение метода. Ключ идемпотентности: '{}'", idempotencyKey);
 
-        IdempotencyKey key = idempotencyKeyRepository.findByKey(idempotencyKey).orElse(null);
+        CompletableFuture<Object> leaderResult = new CompletableFuture<>();
+        CompletableFuture<Object> inFlightResult = inFlightRequests.putIfAbsent(idempotencyKey, leaderResult);
 
-        if (key != null) {
-            if (ChronoUnit.MINUTES.between(key.getIssuedAt(), Instant.now()) <= idempotencyPeriod.toMinutes()) {
-                log.atInfo().log("[#process]: Ключ идемпотентности со значением '{}' найден и действителен. " +
-                        "Данные взяты из БД, операция не выполнена повторно", idempotencyKey);
+        if (inFlightResult != null)
+            return this.awaitLeader(idempotencyKey, inFlightResult, targetType);
 
-                return objectMapper.readValue(key.getResponseData(), targetType);
-            }
-
-            log.atWarn().log("[#process]: Ключ идемпотентности со значением '{}' имеет истекший срок действия", idempotencyKey);
-            throw new IdempotencyKeyExpiredException("messages.idempotency-key.expired", idempotencyKey);
+        try {
+            T responseData = this.claimOrAwait(idempotencyKey, serviceOperation, targetType);
+            leaderResult.complete(responseData);
+            return responseData;
+        }
+        catch (Throwable t) {
+            leaderResult.completeExceptionally(t);
+            throw t;
         }
+        finally {
+            inFlightRequests.remove(idempotencyKey, leaderResult);
+        }
+    }
 
-        log.atDebug().log("[#process]: Ключ идемпотентности со значением '{}' не существует, подготовка к выполнению операции",
+    /**
+     * Ожидает результат запроса с тем же ключом идемпотентности, выполняющегося на этом узле. Если запрос-лидер
+     * завершился ошибкой, выбрасывается та же ошибка
+     */
+    private <T> T awaitLeader(UUID idempotencyKey, CompletableFuture<Object> leaderResult, Class<T> targetType)
+            throws JsonProcessingException {
+        coalescedRequestsCounter.increment();
+
+        log.atDebug().log("[#awaitLeader]: Запрос с ключом идемпотентности '{}' уже выполняется на узле, ожидание его результата",
                 idempotencyKey
         );
 
-        T responseData = serviceOperation.get();
+        try {
+            return targetType.cast(leaderResult.get(this.waitTimeout.toMillis(), TimeUnit.MILLISECONDS));
+        }
+        catch (TimeoutException te) {
+            throw new IdempotencyKeyInProgressException("messages.idempotency-key.in-progress", idempotencyKey);
+        }
+        catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException("messages.idempotency-key.in-progress", idempotencyKey);
+        }
+        catch (ExecutionException ee) {
+            if (ee.getCause() instanceof RuntimeException re)
+                throw re;
+            if (ee.getCause() instanceof JsonProcessingException jpe)
+                throw jpe;
+            if (ee.getCause() instanceof Error error)
+                throw error;
+
+            throw new IllegalStateException(ee.getCause());
+        }
+    }
+
+    private <T> T claimOrAwait(UUID idempotencyKey, Supplier<T> serviceOperation, Class<T> targetType)
+            throws JsonProcessingException {
+        Instant waitDeadline = Instant.now().plus(this.waitTimeout);
+
+        while (true) {
+            if (Instant.now().isAfter(waitDeadline)) {
+                log.atWarn().log("[#claimOrAwait]: Операция с ключом идемпотентности '{}' не завершилась за {}",
+                        idempotencyKey, this.waitTimeout
+                );
+                throw new IdempotencyKeyInProgressException("messages.idempotency-key.in-progress", idempotencyKey);
+            }
+
+            Instant issuedAt = Instant.now();
+
+            if (idempotencyStore.claim(idempotencyKey, issuedAt)) {
+                log.atDebug().log("[#claimOrAwait]: Ключ идемпотентности со значением '{}' захвачен, подготовка к выполнению операции",
+                        idempotencyKey
+                );
+
+                return this.execute(idempotencyKey, issuedAt, serviceOperation);
+            }
+
+            IdempotencyRecord key = idempotencyStore.find(idempotencyKey).orElse(null);
+
+            //Если ключ не найден, владелец освободил его (операция завершилась ошибкой) - после паузы пробуем
+            //захватить ключ снова, иначе ожидаем завершения операции владельца
+            if (key != null) {
+                if (this.isExpired(key)) {
+                    log.atWarn().log("[#claimOrAwait]: Ключ идемпотентности со значением '{}' имеет истекший срок действия", idempotencyKey);
+                    throw new IdempotencyKeyExpiredException("messages.idempotency-key.expired", idempotencyKey);
+                }
+
+                if (key.isCompleted()) {
+                    log.atInfo().log("[#claimOrAwait]: Ключ идемпотентности со значением '{}' найден и действителен. " +
+                            "Данные взяты из хранилища, операция не выполнена повторно", idempotencyKey);
+
+                    return payloadCodec.decode(key.payload(), targetType);
+                }
+            }
+
+            try {
+                Thread.sleep(this.pollInterval);
+            }
+            catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyKeyInProgressException("messages.idempotency-key.in-progress", idempotencyKey);
+            }
+        }
+    }
+
+    private <T> T execute(UUID idempotencyKey, Instant issuedAt, Supplier<T> serviceOperation) throws JsonProcessingException {
+        T responseData;
+        IdempotencyPayload payload;
 
-        log.atDebug().log("[#process]: Операция успешно выполнена, подготовка к сохранению результата операции");
+        try {
+            responseData = serviceOperation.get();
+            payload = payloadCodec.encode(responseData);
+        }
+        catch (RuntimeException | JsonProcessingException e) {
+            idempotencyStore.release(idempotencyKey);
 
-        IdempotencyKey newIdempotencyKey = IdempotencyKey.builder()
-                .key(idempotencyKey)
-                .responseData(objectMapper.writeValueAsString(responseData))
-                .build();
+            log.atDebug().log("[#execute]: Операция с ключом идемпотентности '{}' завершилась ошибкой, ключ освобожден",
+                    idempotencyKey
+            );
+            throw e;
+        }
 
-        log.atDebug().log(() -> "[#process]: Ключ идемпотентности со значением '" + idempotencyKey + "' успешно построен " +
+        log.atDebug().log(() -> "[#execute]: Операция успешно выполнена, подготовка к сохранению результата операции " +
                 "\n\tДанные, привязанные к ключу: " + responseData
         );
 
-        idempotencyKeyRepository.save(newIdempotencyKey);
-
-        log.atInfo().log("[#process]: Ключ идемпотентности со значением '{}' успешно записан в БД", idempotencyKey);
+        if (!idempotencyStore.complete(idempotencyKey, issuedAt, payload))
+            log.atWarn().log("[#execute]: Ключ идемпотентности со значением '{}' был удален до сохранения результата операции",
+                    idempotencyKey
+            );
+        else
+            log.atInfo().log("[#execute]: Результат операции с ключом идемпотентности '{}' успешно сохранен", idempotencyKey);
 
         return responseData;
     }
+
+    private boolean isExpired(IdempotencyRecord key) {
+        return ChronoUnit.MINUTES.between(key.issuedAt(), Instant.now()) > idempotencyPeriod.toMinutes();
+    }
 }
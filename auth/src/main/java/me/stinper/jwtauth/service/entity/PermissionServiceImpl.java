@@ -3,6 +3,8 @@ package me.stinper.jwtauth.service.entity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.stinper.jwtauth.core.error.PermissionErrorCode;
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.permission.PermissionCreationRequest;
 import me.stinper.jwtauth.dto.permission.PermissionDto;
 import me.stinper.jwtauth.entity.Permission;
@@ -18,6 +20,8 @@ import me.stinper.jwtauth.utils.LoggingUtils;
 import me.stinper.jwtauth.validation.PermissionCreationValidator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
@@ -58,6 +62,32 @@ public class PermissionServiceImpl implements PermissionService {
         }
     }
 
+    @Override
+    public ScrollResponse<PermissionDto> scroll(@NonNull KeysetScrollQuery scrollQuery) {
+        log.atDebug().log(() -> "[#scroll]: Начало выполнения метода. Запрос на обход по курсору: " + scrollQuery);
+
+        Window<Permission> permissions = scrollQuery.toWindow(permissionRepository.findBy(
+                scrollQuery.applyTo(Specification.where(null)),
+                query -> query
+                        .sortBy(scrollQuery.sort())
+                        .limit(scrollQuery.limit())
+                        .all()
+        ));
+
+        Long totalElements = scrollQuery.withTotal() ? permissionRepository.count() : null;
+
+        log.atDebug().log("[#scroll]: Выполнение метода завершено. Выбрано сущностей: {}, есть следующая порция: {}",
+                permissions.size(), permissions.hasNext()
+        );
+
+        return new ScrollResponse<>(
+                permissions.map(permissionMapper::toPermissionDto).getContent(),
+                scrollQuery.nextCursor(permissions),
+                permissions.hasNext(),
+                totalElements
+        );
+    }
+
     @Override
     public Optional<PermissionDto> findById(@NonNull Long id) {
         log.atDebug().log("[#findById]: Начало выполнения метода. ID: {}", id);
@@ -3,6 +3,8 @@ package me.stinper.jwtauth.service.entity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import me.stinper.jwtauth.core.error.RoleErrorCode;
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.role.RoleCreationRequest;
 import me.stinper.jwtauth.dto.role.RoleDto;
 import me.stinper.jwtauth.dto.role.RolePermissionUpdateRequest;
@@ -21,6 +23,8 @@ import me.stinper.jwtauth.utils.LoggingUtils;
 import me.stinper.jwtauth.validation.RoleCreationValidator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
@@ -30,8 +34,11 @@ import org.springframework.validation.SimpleErrors;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -66,6 +73,47 @@ public class RoleServiceImpl implements RoleService {
         }
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ScrollResponse<RoleDto> scroll(@NonNull KeysetScrollQuery scrollQuery) {
+        log.atDebug().log(() -> "[#scroll]: Начало выполнения метода. Запрос на обход по курсору: " + scrollQuery);
+
+        //Разрешения не загружаются вместе с порцией ролей: выборка коллекции вместе с LIMIT вынуждает Hibernate
+        //выполнять ограничение в памяти, поэтому разрешения выбранных ролей загружаются отдельным запросом по ID.
+        //Оба запроса выполняются в одной транзакции
+        Window<Role> roles = scrollQuery.toWindow(roleRepository.findBy(
+                scrollQuery.applyTo(Specification.where(null)),
+                query -> query
+                        .sortBy(scrollQuery.sort())
+                        .limit(scrollQuery.limit())
+                        .all()
+        ));
+
+        Map<Long, Role> rolesWithPermissions = roleRepository.findAllByIdIn(roles.map(Role::getId).getContent())
+                .stream()
+                .collect(Collectors.toMap(Role::getId, Function.identity()));
+
+        Long totalElements = scrollQuery.withTotal() ? roleRepository.count() : null;
+
+        log.atDebug().log("[#scroll]: Выполнение метода завершено. Выбрано ролей: {}, есть следующая порция: {}",
+                roles.size(), roles.hasNext()
+        );
+
+        //Роль, удаленная между запросами, пропускается. Курсор строится по порции, поэтому обход продолжается после нее
+        List<RoleDto> content = roles.stream()
+                .map(role -> rolesWithPermissions.get(role.getId()))
+                .filter(Objects::nonNull)
+                .map(roleMapper::toRoleDto)
+                .toList();
+
+        return new ScrollResponse<>(
+                content,
+                scrollQuery.nextCursor(roles),
+                roles.hasNext(),
+                totalElements
+        );
+    }
+
     @Override
     public Optional<RoleDto> findByName(@NonNull String name) {
         log.atDebug().log("[#findByName]: Начало выполнения метода. Имя роли: '{}'", name);
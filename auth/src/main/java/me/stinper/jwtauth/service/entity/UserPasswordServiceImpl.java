@@ -6,6 +6,7 @@ import me.stinper.jwtauth.core.security.jwt.JwtAuthUserDetails;
 import me.stinper.jwtauth.dto.user.PasswordChangeRequest;
 import me.stinper.jwtauth.entity.User;
 import me.stinper.jwtauth.exception.EntityValidationException;
+import me.stinper.jwtauth.exception.ResourceNotFoundException;
 import me.stinper.jwtauth.repository.UserRepository;
 import me.stinper.jwtauth.service.authentication.contract.JwtService;
 import me.stinper.jwtauth.service.entity.contract.UserPasswordService;
@@ -42,15 +43,33 @@ public class UserPasswordServiceImpl implements UserPasswordService {
             throw new EntityValidationException(validationErrors.getFieldErrors());
         }
 
-        User user = (User) userDetails;
+        User user = this.resolveUser(userDetails);
 
         user.setPassword(
                 passwordEncoder.encode(passwordChangeRequest.newPassword())
         );
 
         userRepository.save(user);
-        jwtService.invalidateRefreshTokens(user);
+        int revokedTokens = jwtService.invalidateRefreshTokens(user);
 
-        log.atInfo().log("[#changePassword]: Пароль пользователя '{}' успешно изменен", user.getUuid());
+        log.atInfo().log("[#changePassword]: Пароль пользователя '{}' успешно изменен. Отозвано Refresh-токенов: {}",
+                user.getUuid(), revokedTokens
+        );
+    }
+
+    /**
+     * Если Principal построен из полезной нагрузки токена (режим аутентификации STATELESS),
+     * модель пользователя загружается из БД
+     */
+    private User resolveUser(@NonNull JwtAuthUserDetails userDetails) {
+        if (userDetails instanceof User user)
+            return user;
+
+        return userRepository.findById(userDetails.getUuid())
+                .orElseThrow(() -> {
+                    log.atDebug().log("[#changePassword]: Пользователь с UUID '{}' не найден", userDetails.getUuid());
+
+                    return new ResourceNotFoundException("messages.user.not-found.uuid", userDetails.getUuid());
+                });
     }
 }
@@ -2,6 +2,8 @@ package me.stinper.jwtauth.service.entity;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.user.UserCreationRequest;
 import me.stinper.jwtauth.dto.user.UserDto;
 import me.stinper.jwtauth.entity.User;
@@ -17,6 +19,8 @@ import me.stinper.jwtauth.utils.LoggingUtils;
 import me.stinper.jwtauth.validation.UserCreationValidator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.lang.NonNull;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -43,25 +47,17 @@ public class UserServiceImpl implements UserService {
         try {
             log.atDebug().log(() -> "[#findAll]: Начало выполнения метода. Запрос на пагинацию: " + pageable.toString());
 
-            Page<User> users = userRepository.findAll(pageable);
-
-            log.atDebug().log(
-                    "[#findAll]: Выбраны все записи. \n\tВсего пользователей: {} \n\tВсего страниц: {}",
-                    users.getTotalElements(),
-                    users.getTotalPages()
-            );
-
-            Page<UserDto> filteredUsers = userFilterStrategy
-                    .filterUsersPage(users)
+            Page<UserDto> users = userRepository
+                    .findAll(userFilterStrategy.toSpecification(), pageable)
                     .map(userMapper::toUserDto);
 
             log.atDebug().log(
-                    "[#findAll]: Проведена фильтрация результирующего списка пользователей. \n\tВсего пользователей: {} \n\tВсего страниц: {}",
+                    "[#findAll]: Выбраны записи с учетом фильтрации. \n\tВсего пользователей: {} \n\tВсего страниц: {}",
                     users.getTotalElements(),
                     users.getTotalPages()
             );
 
-            return filteredUsers;
+            return users;
         }
         catch (PropertyReferenceException pre) {
             log.atWarn().log("[#findAll]: Свойство с именем '{}' не существует", pre.getPropertyName());
@@ -69,6 +65,34 @@ public class UserServiceImpl implements UserService {
         }
     }
 
+    @Override
+    public ScrollResponse<UserDto> scroll(@NonNull KeysetScrollQuery scrollQuery, @NonNull UserFilterStrategy userFilterStrategy) {
+        log.atDebug().log(() -> "[#scroll]: Начало выполнения метода. Запрос на обход по курсору: " + scrollQuery);
+
+        Specification<User> specification = userFilterStrategy.toSpecification();
+
+        Window<User> users = scrollQuery.toWindow(userRepository.findBy(
+                scrollQuery.applyTo(specification),
+                query -> query
+                        .sortBy(scrollQuery.sort())
+                        .limit(scrollQuery.limit())
+                        .all()
+        ));
+
+        Long totalElements = scrollQuery.withTotal() ? userRepository.count(specification) : null;
+
+        log.atDebug().log("[#scroll]: Выполнение метода завершено. Выбрано пользователей: {}, есть следующая порция: {}",
+                users.size(), users.hasNext()
+        );
+
+        return new ScrollResponse<>(
+                users.map(userMapper::toUserDto).getContent(),
+                scrollQuery.nextCursor(users),
+                users.hasNext(),
+                totalElements
+        );
+    }
+
     @Override
     public Optional<UserDto> findByUUID(@NonNull UUID uuid) {
         log.atDebug().log("[#findByUUID]: Начало выполнения метода. UUID: '{}'", uuid);
@@ -130,9 +154,11 @@ public class UserServiceImpl implements UserService {
 
         user.setDeactivatedAt(Instant.now());
         userRepository.save(user);
-        jwtService.invalidateRefreshTokens(user);
+        int revokedTokens = jwtService.invalidateRefreshTokens(user);
 
-        log.atInfo().log("[#deleteByUUID]: Учетная запись пользователя с UUID '{}' успешно деактивирована", uuid);
+        log.atInfo().log("[#deleteByUUID]: Учетная запись пользователя с UUID '{}' успешно деактивирована. Отозвано Refresh-токенов: {}",
+                uuid, revokedTokens
+        );
     }
 
 }
@@ -13,12 +13,15 @@ public interface IdempotencyService {
     /**
      * Метод, который оборачивает заданную операцию, пытаясь выполнить ее идемпотентно. Операция выполнится только
      * в том случае, если заданный ключ идемпотентности не существует в БД. В таком случае, операция будет выполнена
-     * и ее результат будет связан с этим ключом идемпотентности
+     * и ее результат будет связан с этим ключом идемпотентности. Если ключ захвачен другим запросом, операция которого
+     * еще выполняется, метод ожидает ее результат ограниченное время
      * @param idempotencyKey ключ идемпотентности
      * @param serviceOperation операция, которую необходимо выполнить идемпотентно
      * @param targetType тип возвращаемого значения операции сервиса
      * @return результат выполнения операции (если ключ идемпотентности не найден), либо связанные с ключом данные
      * @throws JsonProcessingException если в процессе преобразования JSON -> T или T -> JSON произошла ошибка
+     * @throws me.stinper.jwtauth.exception.IdempotencyKeyInProgressException если операция, захватившая ключ,
+     * не завершилась за время ожидания
      */
     <T> T process(@NonNull UUID idempotencyKey, @NonNull Supplier<T> serviceOperation, @NonNull Class<T> targetType)
             throws JsonProcessingException;
@@ -1,5 +1,7 @@
 package me.stinper.jwtauth.service.entity.contract;
 
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.permission.PermissionCreationRequest;
 import me.stinper.jwtauth.dto.permission.PermissionDto;
 import me.stinper.jwtauth.exception.RelatedEntityExistsException;
@@ -18,6 +20,12 @@ import java.util.Optional;
 public interface PermissionService {
     Page<PermissionDto> findAll(@NonNull Pageable pageable);
 
+    /**
+     * Возвращает порцию прав доступа при постраничном обходе по курсору (без {@code OFFSET})
+     * @param scrollQuery позиция, размер порции и сортировка
+     */
+    ScrollResponse<PermissionDto> scroll(@NonNull KeysetScrollQuery scrollQuery);
+
     Optional<PermissionDto> findById(@NonNull Long id);
 
     PermissionDto create(@NonNull PermissionCreationRequest permissionCreationRequest);
@@ -1,5 +1,7 @@
 package me.stinper.jwtauth.service.entity.contract;
 
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.role.RolePermissionUpdateRequest;
 import me.stinper.jwtauth.dto.role.RoleCreationRequest;
 import me.stinper.jwtauth.dto.role.RoleDto;
@@ -19,6 +21,12 @@ import java.util.Optional;
 public interface RoleService {
     Page<RoleDto> findAll(Pageable pageable);
 
+    /**
+     * Возвращает порцию ролей при постраничном обходе по курсору (без {@code OFFSET})
+     * @param scrollQuery позиция, размер порции и сортировка
+     */
+    ScrollResponse<RoleDto> scroll(@NonNull KeysetScrollQuery scrollQuery);
+
     Optional<RoleDto> findByName(@NonNull String name);
 
     /**
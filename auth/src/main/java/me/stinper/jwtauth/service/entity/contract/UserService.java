@@ -1,5 +1,7 @@
 package me.stinper.jwtauth.service.entity.contract;
 
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.user.UserCreationRequest;
 import me.stinper.jwtauth.dto.user.UserDto;
 import me.stinper.jwtauth.service.entity.support.UserFilterStrategy;
@@ -20,6 +22,13 @@ import java.util.UUID;
 public interface UserService {
     Page<UserDto> findAll(@NonNull Pageable pageable, @NonNull UserFilterStrategy userFilterStrategy);
 
+    /**
+     * Возвращает порцию пользователей при постраничном обходе по курсору (без {@code OFFSET})
+     * @param scrollQuery позиция, размер порции и сортировка
+     * @param userFilterStrategy стратегия выбора пользователей, доступных для просмотра
+     */
+    ScrollResponse<UserDto> scroll(@NonNull KeysetScrollQuery scrollQuery, @NonNull UserFilterStrategy userFilterStrategy);
+
     Optional<UserDto> findByUUID(@NonNull UUID uuid);
 
     UserDto create(@NonNull UserCreationRequest userCreationRequest);
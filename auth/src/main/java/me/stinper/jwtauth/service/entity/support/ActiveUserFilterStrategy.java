@@ -1,19 +1,14 @@
 package me.stinper.jwtauth.service.entity.support;
 
 import me.stinper.jwtauth.entity.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
-import java.util.List;
-
 public class ActiveUserFilterStrategy implements UserFilterStrategy {
     @Override
-    public Page<User> filterUsersPage(@NonNull Page<User> pageToFilter) {
-        List<User> activeUsers = pageToFilter.getContent().stream()
-                .filter(user -> user.getDeactivatedAt() == null)
-                .toList();
-
-        return new PageImpl<>(activeUsers, pageToFilter.getPageable(), activeUsers.size());
+    @NonNull
+    public Specification<User> toSpecification() {
+        //Условие совпадает с условием частичного индекса idx_users_active
+        return (root, query, criteriaBuilder) -> criteriaBuilder.isNull(root.get("deactivatedAt"));
     }
 }
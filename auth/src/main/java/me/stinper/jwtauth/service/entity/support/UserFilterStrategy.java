@@ -1,11 +1,16 @@
 package me.stinper.jwtauth.service.entity.support;
 
 import me.stinper.jwtauth.entity.User;
-import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.lang.NonNull;
 
+/**
+ * Стратегия выбора пользователей, доступных для просмотра. Фильтрация выполняется на стороне БД, поэтому
+ * страница пользователей и общее количество записей вычисляются уже с учетом фильтра
+ */
 public interface UserFilterStrategy {
 
-    Page<User> filterUsersPage(@NonNull Page<User> pageToFilter);
+    @NonNull
+    Specification<User> toSpecification();
 
 }
@@ -0,0 +1,57 @@
+package me.stinper.jwtauth.utils;
+
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * Чтение ключей в формате PEM: публичных ключей в кодировке X.509 ({@code BEGIN PUBLIC KEY})
+ * и приватных ключей в кодировке PKCS#8 ({@code BEGIN PRIVATE KEY}) для любого алгоритма {@link KeyFactory}
+ */
+public final class PemKeyUtils {
+    private PemKeyUtils() {}
+
+    public static PublicKey readPublicKey(Resource resource, String keyFactoryAlgorithm) {
+        try {
+            return KeyFactory.getInstance(keyFactoryAlgorithm)
+                    .generatePublic(new X509EncodedKeySpec(readPemContent(resource)));
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException(
+                    "Не удалось прочитать публичный ключ " + keyFactoryAlgorithm + " из ресурса " + resource, e
+            );
+        }
+    }
+
+    public static PrivateKey readPrivateKey(Resource resource, String keyFactoryAlgorithm) {
+        try {
+            return KeyFactory.getInstance(keyFactoryAlgorithm)
+                    .generatePrivate(new PKCS8EncodedKeySpec(readPemContent(resource)));
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException(
+                    "Не удалось прочитать приватный ключ " + keyFactoryAlgorithm + " из ресурса " + resource, e
+            );
+        }
+    }
+
+    private static byte[] readPemContent(Resource resource) throws IOException {
+        String pem = resource.getContentAsString(StandardCharsets.US_ASCII);
+        StringBuilder base64Content = new StringBuilder();
+
+        for (String line : pem.split("\\R")) {
+            if (line.startsWith("-----"))
+                continue;
+
+            base64Content.append(line.strip());
+        }
+
+        return Base64.getDecoder().decode(base64Content.toString());
+    }
+}
@@ -1,7 +1,7 @@
 package me.stinper.jwtauth.utils;
 
 import lombok.extern.slf4j.Slf4j;
-import me.stinper.jwtauth.entity.User;
+import me.stinper.jwtauth.core.security.jwt.JwtAuthUserDetails;
 import org.springframework.security.core.context.SecurityContextHolder;
 
 @Slf4j
@@ -10,20 +10,22 @@ public final class SecurityUtils {
 
     /**
      * Извлекает Principal из контекста безопасности ({@link SecurityContextHolder}), и пытается привести его к типу
-     * {@link User}
+     * {@link JwtAuthUserDetails}. Работает в любом режиме аутентификации, в том числе тогда, когда объект пользователя
+     * построен из полезной нагрузки токена. Если необходима сущность {@link me.stinper.jwtauth.entity.User}, ее следует
+     * загрузить из БД по UUID пользователя
      * @return объект пользователя
-     * @throws IllegalStateException если извлеченный из контекста безопасности объект нельзя привести к типу {@link User}
+     * @throws IllegalStateException если извлеченный из контекста безопасности объект нельзя привести к типу {@link JwtAuthUserDetails}
      */
-    public static User getCurrentUser() throws IllegalStateException {
-        log.atDebug().log("[#getCurrentUser]: Начало выполнения метода");
-
+    public static JwtAuthUserDetails getCurrentUserDetails() throws IllegalStateException {
         Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
 
-        if (principal instanceof User user) {
-            log.atDebug().log("[#getCurrentUser]: Из контекста безопасности извлечен объект [User] с UUID '{}'", user.getUuid() );
-            return user;
+        if (principal instanceof JwtAuthUserDetails userDetails) {
+            log.atDebug().log("[#getCurrentUserDetails]: Из контекста безопасности извлечен объект [{}] с UUID '{}'",
+                    userDetails.getClass().getSimpleName(), userDetails.getUuid()
+            );
+            return userDetails;
         }
 
-        throw new IllegalStateException("Объект, содержащийся в контексте безопасности не является объектом типа [User]");
+        throw new IllegalStateException("Объект, содержащийся в контексте безопасности не является объектом типа [JwtAuthUserDetails]");
     }
 }
@@ -0,0 +1,26 @@
+package me.stinper.jwtauth.utils;
+
+import org.springframework.lang.NonNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+public final class TokenDigestUtils {
+    private TokenDigestUtils() {}
+
+    /**
+     * Вычисляет SHA-256 дайджест компактного представления токена. Дайджест имеет фиксированный размер (32 байта)
+     * и используется вместо самого токена там, где токен нужно хранить или сравнивать
+     * @param token токен
+     * @return дайджест токена
+     */
+    public static byte[] sha256(@NonNull String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        }
+        catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("Алгоритм SHA-256 не поддерживается JVM", nsae);
+        }
+    }
+}
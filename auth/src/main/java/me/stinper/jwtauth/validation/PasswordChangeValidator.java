@@ -2,9 +2,12 @@ package me.stinper.jwtauth.validation;
 
 import lombok.RequiredArgsConstructor;
 import me.stinper.jwtauth.core.error.UserErrorCode;
+import me.stinper.jwtauth.core.security.jwt.JwtAuthUserDetails;
 import me.stinper.jwtauth.dto.user.PasswordChangeRequest;
 import me.stinper.jwtauth.entity.User;
+import me.stinper.jwtauth.exception.ResourceNotFoundException;
 import me.stinper.jwtauth.exception.ValidatorUnsupportedTypeException;
+import me.stinper.jwtauth.repository.UserRepository;
 import me.stinper.jwtauth.utils.MessageSourceHelper;
 import me.stinper.jwtauth.utils.SecurityUtils;
 import org.springframework.lang.NonNull;
@@ -18,6 +21,7 @@ import org.springframework.validation.Validator;
 public class PasswordChangeValidator implements Validator {
     private final PasswordEncoder passwordEncoder;
     private final MessageSourceHelper messageSourceHelper;
+    private final UserRepository userRepository;
 
     @Override
     public boolean supports(@NonNull Class<?> clazz) {
@@ -34,7 +38,7 @@ public class PasswordChangeValidator implements Validator {
                 newPassword = passwordChangeRequest.newPassword(),
                 repeatNewPassword = passwordChangeRequest.repeatNewPassword();
 
-        User currentUser = SecurityUtils.getCurrentUser();
+        User currentUser = this.resolveCurrentUser();
 
         if (!passwordEncoder.matches(oldPassword, currentUser.getPassword())) {
             errors.rejectValue(
@@ -61,4 +65,18 @@ public class PasswordChangeValidator implements Validator {
             );
         }
     }
+
+    /**
+     * Возвращает модель текущего пользователя. Если Principal построен из полезной нагрузки токена
+     * (режим аутентификации STATELESS), в нем нет хеша пароля, поэтому пользователь загружается из БД
+     */
+    private User resolveCurrentUser() {
+        JwtAuthUserDetails principal = SecurityUtils.getCurrentUserDetails();
+
+        if (principal instanceof User user)
+            return user;
+
+        return userRepository.findById(principal.getUuid())
+                .orElseThrow(() -> new ResourceNotFoundException("messages.user.not-found.uuid", principal.getUuid()));
+    }
 }
@@ -0,0 +1,9 @@
+-- Ранее сохраненные ключи уже содержат результат выполнения операции
+ALTER TABLE idempotency_keys ADD COLUMN status varchar(16) NOT NULL DEFAULT 'COMPLETED';
+ALTER TABLE idempotency_keys ALTER COLUMN status DROP DEFAULT;
+ALTER TABLE idempotency_keys ADD CONSTRAINT chk_idempotency_keys_status CHECK (status IN ('PENDING', 'COMPLETED'));
+
+-- Пока операция выполняется (статус PENDING), результата еще нет
+ALTER TABLE idempotency_keys ALTER COLUMN response_data DROP NOT NULL;
+ALTER TABLE idempotency_keys ADD CONSTRAINT chk_idempotency_keys_response_data
+    CHECK (status = 'PENDING' OR response_data IS NOT NULL);
@@ -0,0 +1,14 @@
+ALTER TABLE idempotency_keys ADD COLUMN response_payload bytea;
+ALTER TABLE idempotency_keys ADD COLUMN content_type varchar(64);
+
+-- Ранее сохраненные результаты остаются в формате JSON и читаются приложением без преобразования
+UPDATE idempotency_keys
+SET response_payload = convert_to(response_data, 'UTF8'),
+    content_type = 'application/json'
+WHERE response_data IS NOT NULL;
+
+ALTER TABLE idempotency_keys DROP CONSTRAINT chk_idempotency_keys_response_data;
+ALTER TABLE idempotency_keys DROP COLUMN response_data;
+
+ALTER TABLE idempotency_keys ADD CONSTRAINT chk_idempotency_keys_response_payload
+    CHECK (status = 'PENDING' OR (response_payload IS NOT NULL AND content_type IS NOT NULL));
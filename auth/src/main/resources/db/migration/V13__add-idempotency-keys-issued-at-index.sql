@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_issued_at ON idempotency_keys(issued_at);
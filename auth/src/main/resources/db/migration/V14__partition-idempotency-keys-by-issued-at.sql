@@ -0,0 +1,54 @@
+/*
+Таблица idempotency_keys секционируется по часам (по столбцу issued_at, границы секций - в UTC). Истекшие ключи
+удаляются отсоединением и удалением целых секций (IdempotencyKeysPartitionMaintenanceScheduler), а не построчно.
+
+Уникальное ограничение секционированной таблицы обязано включать ключ секционирования, поэтому уникальность
+столбца key больше не обеспечивается ограничением: ключ захватывается под рекомендательной блокировкой
+(см. JpaIdempotencyStore#claim)
+ */
+ALTER TABLE idempotency_keys RENAME TO idempotency_keys_legacy;
+
+CREATE SEQUENCE idempotency_keys_partitioned_id_seq AS bigint;
+
+CREATE TABLE idempotency_keys (
+    id bigint not null default nextval('idempotency_keys_partitioned_id_seq'),
+    key uuid not null,
+    issued_at timestamp with time zone not null default CURRENT_TIMESTAMP,
+    status varchar(16) not null,
+    response_payload bytea,
+    content_type varchar(64),
+
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (id, issued_at),
+    CONSTRAINT chk_idempotency_keys_status CHECK (status IN ('PENDING', 'COMPLETED')),
+    CONSTRAINT chk_idempotency_keys_response_payload
+        CHECK (status = 'PENDING' OR (response_payload IS NOT NULL AND content_type IS NOT NULL))
+) PARTITION BY RANGE (issued_at);
+
+ALTER SEQUENCE idempotency_keys_partitioned_id_seq OWNED BY idempotency_keys.id;
+
+-- Секции на предыдущий час и на сутки вперед, далее их создает приложение
+DO $$
+DECLARE
+    partition_start timestamp with time zone;
+BEGIN
+    FOR i IN -1..24 LOOP
+        partition_start := (date_trunc('hour', now() AT TIME ZONE 'UTC') + make_interval(hours => i)) AT TIME ZONE 'UTC';
+
+        EXECUTE format(
+            'CREATE TABLE IF NOT EXISTS %I PARTITION OF idempotency_keys FOR VALUES FROM (%L) TO (%L)',
+            'idempotency_keys_p' || to_char(partition_start AT TIME ZONE 'UTC', 'YYYYMMDDHH24'),
+            partition_start,
+            partition_start + interval '1 hour'
+        );
+    END LOOP;
+END $$;
+
+-- Ключи старше предыдущего часа уже истекли и не переносятся
+INSERT INTO idempotency_keys (key, issued_at, status, response_payload, content_type)
+SELECT key, issued_at, status, response_payload, content_type
+FROM idempotency_keys_legacy
+WHERE issued_at >= (date_trunc('hour', now() AT TIME ZONE 'UTC') - interval '1 hour') AT TIME ZONE 'UTC';
+
+DROP TABLE idempotency_keys_legacy;
+
+CREATE INDEX idx_idempotency_keys_key ON idempotency_keys(key);
@@ -0,0 +1,2 @@
+-- Выборка не деактивированных пользователей (ActiveUserFilterStrategy) и подсчет их количества для пагинации
+CREATE INDEX IF NOT EXISTS idx_users_active ON users(deactivated_at) WHERE deactivated_at IS NULL;
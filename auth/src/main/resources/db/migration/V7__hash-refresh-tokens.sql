@@ -0,0 +1,9 @@
+ALTER TABLE refresh_tokens ADD COLUMN token_hash bytea;
+
+UPDATE refresh_tokens SET token_hash = sha256(convert_to(token, 'UTF8'));
+
+ALTER TABLE refresh_tokens ALTER COLUMN token_hash SET NOT NULL;
+ALTER TABLE refresh_tokens ADD CONSTRAINT chk_refresh_tokens_token_hash_length CHECK (octet_length(token_hash) = 32);
+ALTER TABLE refresh_tokens ADD CONSTRAINT uq_refresh_tokens_token_hash UNIQUE (token_hash);
+
+ALTER TABLE refresh_tokens DROP COLUMN token;
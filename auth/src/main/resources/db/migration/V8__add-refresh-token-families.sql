@@ -0,0 +1,9 @@
+ALTER TABLE refresh_tokens ADD COLUMN family_id uuid;
+ALTER TABLE refresh_tokens ADD COLUMN consumed_at timestamp with time zone;
+
+-- Каждый ранее выданный токен становится отдельным семейством
+UPDATE refresh_tokens SET family_id = gen_random_uuid();
+
+ALTER TABLE refresh_tokens ALTER COLUMN family_id SET NOT NULL;
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family_id ON refresh_tokens(family_id);
@@ -1,13 +1,11 @@
 package me.stinper.jwtauth.controller;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import jakarta.validation.ConstraintViolationException;
 import me.stinper.jwtauth.dto.JwtResponse;
 import me.stinper.jwtauth.dto.user.LoginRequest;
 import me.stinper.jwtauth.entity.User;
 import me.stinper.jwtauth.exception.ResourceNotFoundException;
 import me.stinper.jwtauth.service.authentication.contract.AuthService;
-import me.stinper.jwtauth.service.entity.contract.IdempotencyService;
 import me.stinper.jwtauth.testutils.ConstraintViolationMockSupport;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -26,7 +24,6 @@ import org.springframework.security.authentication.LockedException;
 
 import java.util.Collections;
 import java.util.UUID;
-import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.*;
@@ -36,7 +33,6 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class AuthControllerUnitTest {
     @Mock private AuthService authService;
-    @Mock private IdempotencyService idempotencyService;
     @Mock private jakarta.validation.Validator validator;
 
     @InjectMocks
@@ -55,7 +51,7 @@ class AuthControllerUnitTest {
                 validator, errorMessage, invalidLoginRequest);
 
         //WHEN & THEN
-        assertThatThrownBy(() -> authController.login(UUID.randomUUID(), invalidLoginRequest))
+        assertThatThrownBy(() -> authController.login(invalidLoginRequest))
                 .isInstanceOf(ConstraintViolationException.class)
                 .hasMessageContaining(errorMessage);
     }
@@ -63,16 +59,17 @@ class AuthControllerUnitTest {
 
     @ParameterizedTest
     @MethodSource("exceptionsSource")
-    void login_whenLoginFails_thenThrowsException(Class<? extends Throwable> exceptionClass) throws JsonProcessingException {
+    void login_whenLoginFails_thenThrowsException(Class<? extends Throwable> exceptionClass) {
         //GIVEN
         final LoginRequest loginRequest = new LoginRequest(
                 "user@gmail.com", "123"
         );
 
-        when(idempotencyService.process(any(), any(), any())).thenThrow(exceptionClass);
+        when(validator.validate(any())).thenReturn(Collections.emptySet());
+        when(authService.login(loginRequest)).thenThrow(exceptionClass);
 
         //WHEN & THEN
-        assertThatThrownBy(() -> authController.login(UUID.randomUUID(), loginRequest))
+        assertThatThrownBy(() -> authController.login(loginRequest))
                 .isInstanceOf(exceptionClass);
     }
 
@@ -87,7 +84,7 @@ class AuthControllerUnitTest {
 
 
     @Test
-    void login_whenLoginRequestIsValid_thenReturnsJwtTokensPair() throws JsonProcessingException {
+    void login_whenLoginRequestIsValid_thenReturnsJwtTokensPair() {
         //GIVEN
         final LoginRequest loginRequest = new LoginRequest(
                 "user@gmail.com", "123"
@@ -100,19 +97,13 @@ class AuthControllerUnitTest {
         when(validator.validate(any())).thenReturn(Collections.emptySet());
         when(authService.login(loginRequest)).thenReturn(jwtResponse);
 
-        when(idempotencyService.process(any(), any(), any())).thenAnswer(ans -> {
-            Supplier<?> supplier = ans.getArgument(1);
-            return supplier.get();
-        });
-
         //WHEN
-        ResponseEntity<JwtResponse> response = authController.login(UUID.randomUUID(), loginRequest);
+        ResponseEntity<JwtResponse> response = authController.login(loginRequest);
 
         //THEN
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isEqualTo(jwtResponse);
 
-        verify(idempotencyService).process(any(), any(), any());
         verify(authService).login(loginRequest);
     }
 
@@ -1,18 +1,19 @@
 package me.stinper.jwtauth.controller;
 
-import me.stinper.jwtauth.dto.JwksDto;
+import me.stinper.jwtauth.dto.JwksDocument;
+import me.stinper.jwtauth.service.authentication.contract.JwksService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
-import java.math.BigInteger;
-import java.security.interfaces.RSAPublicKey;
-import java.util.Base64;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -20,38 +21,58 @@ import static org.mockito.Mockito.*;
 @DisplayName("Unit Tests for JwksController class")
 @ExtendWith(MockitoExtension.class)
 class JwksControllerUnitTest {
-    @Mock private RSAPublicKey publicKey;
+    private static final JwksDocument JWKS_DOCUMENT = new JwksDocument(
+            1, "{\"keys\":[]}".getBytes(StandardCharsets.UTF_8), "\"etag\""
+    );
+
+    @Mock private JwksService jwksService;
 
     private JwksController jwksController;
 
     @BeforeEach
     void setUp() {
-        jwksController = new JwksController(publicKey);
+        jwksController = new JwksController(jwksService, Duration.ofMinutes(5));
     }
 
     @Test
-    void getJwks_shouldReturnJwksDtoWithEncodedKeys() {
+    void getJwks_whenNoIfNoneMatch_thenReturnsDocumentWithCachingHeaders() {
         // GIVEN
-        BigInteger mockModulus = new BigInteger(1, new byte[]{1, 2, 3, 4});
-        BigInteger mockExponent = new BigInteger(1, new byte[]{5, 6, 7, 8});
+        when(jwksService.getJwksDocument()).thenReturn(JWKS_DOCUMENT);
+
+        // WHEN
+        ResponseEntity<byte[]> response = jwksController.getJwks(null);
 
-        when(publicKey.getModulus()).thenReturn(mockModulus);
-        when(publicKey.getPublicExponent()).thenReturn(mockExponent);
+        // THEN
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(JWKS_DOCUMENT.content());
+        assertThat(response.getHeaders().getETag()).isEqualTo(JWKS_DOCUMENT.eTag());
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CACHE_CONTROL)).isEqualTo("max-age=300, public");
+    }
 
-        String expectedModulus = Base64.getUrlEncoder().encodeToString(mockModulus.toByteArray());
-        String expectedExponent = Base64.getUrlEncoder().encodeToString(mockExponent.toByteArray());
+    @Test
+    void getJwks_whenIfNoneMatchContainsETag_thenReturnsNotModified() {
+        // GIVEN
+        when(jwksService.getJwksDocument()).thenReturn(JWKS_DOCUMENT);
 
         // WHEN
-        ResponseEntity<JwksDto> response = jwksController.getJwks();
+        ResponseEntity<byte[]> response = jwksController.getJwks("\"stale\", W/\"etag\"");
 
         // THEN
-        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
-        assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().keys()).hasSize(1);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getBody()).isNull();
+        assertThat(response.getHeaders().getETag()).isEqualTo(JWKS_DOCUMENT.eTag());
+    }
+
+    @Test
+    void getJwks_whenIfNoneMatchIsStale_thenReturnsDocument() {
+        // GIVEN
+        when(jwksService.getJwksDocument()).thenReturn(JWKS_DOCUMENT);
 
-        JwksDto.KeyBody key = response.getBody().keys().getFirst();
+        // WHEN
+        ResponseEntity<byte[]> response = jwksController.getJwks("\"stale\"");
 
-        assertThat(key.getN()).isEqualTo(expectedModulus);
-        assertThat(key.getE()).isEqualTo(expectedExponent);
+        // THEN
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo(JWKS_DOCUMENT.content());
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,12 @@
 package me.stinper.jwtauth.controller;
 
 import jakarta.validation.ConstraintViolationException;
+import me.stinper.jwtauth.core.pagination.KeysetCursor;
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.core.pagination.KeysetSortFields;
 import me.stinper.jwtauth.dto.EntityPaginationRequest;
+import me.stinper.jwtauth.dto.EntityScrollRequest;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.permission.PermissionCreationRequest;
 import me.stinper.jwtauth.dto.permission.PermissionDescriptionUpdateRequest;
 import me.stinper.jwtauth.dto.permission.PermissionDto;
@@ -19,12 +24,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 import java.net.URI;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -94,6 +102,59 @@ class PermissionControllerUnitTest {
     }
 
 
+    @Test
+    void scroll_whenEntityScrollRequestValidationFails_thenThrowsException() {
+        //GIVEN
+        EntityScrollRequest invalidScrollRequest = new EntityScrollRequest(
+                null, null, null, null, null
+        );
+
+        final String errorMessage = "Scroll size must not be null";
+
+        ConstraintViolationMockSupport.mockValidatorToReturnSingleConstraintViolation(
+                validator, errorMessage, invalidScrollRequest
+        );
+
+        //WHEN & THEN
+        assertThatThrownBy(() -> permissionController.scroll(invalidScrollRequest))
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessageContaining(errorMessage);
+
+        verify(validator).validate(invalidScrollRequest);
+        verifyNoInteractions(permissionService);
+    }
+
+
+    @Test
+    void scroll_whenCursorIsProvided_thenContinuesFromCursorPosition() {
+        //GIVEN
+        final String cursor = new KeysetCursor("id", Sort.Direction.ASC, Map.of("id", 2L)).encode();
+
+        EntityScrollRequest validScrollRequest = new EntityScrollRequest(
+                10, null, null, cursor, null
+        );
+
+        KeysetScrollQuery expectedQuery = new KeysetScrollQuery(
+                "id", Sort.Direction.ASC, ScrollPosition.forward(Map.of("id", 2L)), 10, false, KeysetSortFields.PERMISSIONS
+        );
+
+        final PermissionDto permission = new PermissionDto(3L, "permission.delete", "Delete permission");
+        final ScrollResponse<PermissionDto> scrollResponse = new ScrollResponse<>(List.of(permission), null, false, null);
+
+        when(validator.validate(any())).thenReturn(Collections.emptySet());
+        when(permissionService.scroll(expectedQuery)).thenReturn(scrollResponse);
+
+        //WHEN
+        ResponseEntity<ScrollResponse<PermissionDto>> result = permissionController.scroll(validScrollRequest);
+
+        //THEN
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(scrollResponse);
+
+        verify(permissionService).scroll(expectedQuery);
+    }
+
+
     @Test
     void findById_whenPermissionExists_thenReturnsPermissionDto() {
         //GIVEN
@@ -1,13 +1,20 @@
 package me.stinper.jwtauth.controller;
 
 import jakarta.validation.ConstraintViolationException;
+import me.stinper.jwtauth.core.pagination.KeysetCursor;
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.core.pagination.KeysetSortFields;
 import me.stinper.jwtauth.dto.EntityPaginationRequest;
+import me.stinper.jwtauth.dto.EntityScrollRequest;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.permission.PermissionDto;
 import me.stinper.jwtauth.dto.role.RoleCreationRequest;
 import me.stinper.jwtauth.dto.role.RoleDto;
 import me.stinper.jwtauth.dto.role.RolePermissionUpdateRequest;
+import me.stinper.jwtauth.exception.InvalidScrollCursorException;
 import me.stinper.jwtauth.exception.RelatedEntityExistsException;
 import me.stinper.jwtauth.exception.ResourceNotFoundException;
+import me.stinper.jwtauth.exception.UnsupportedSortPropertyException;
 import me.stinper.jwtauth.service.entity.contract.RoleService;
 import me.stinper.jwtauth.testutils.ConstraintViolationMockSupport;
 import me.stinper.jwtauth.testutils.ServletUriComponentsBuilderMockSupport;
@@ -20,17 +27,25 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.net.URI;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @DisplayName("Unit Tests for RoleController class")
 @ExtendWith(MockitoExtension.class)
@@ -96,6 +111,98 @@ class RoleControllerUnitTest {
     }
 
 
+    @Test
+    void scroll_whenEntityScrollRequestValidationFails_thenThrowsException() {
+        //GIVEN
+        EntityScrollRequest invalidScrollRequest = new EntityScrollRequest(
+                0, null, null, null, null
+        );
+
+        final String errorMessage = "Scroll size must be positive";
+
+        ConstraintViolationMockSupport.mockValidatorToReturnSingleConstraintViolation(
+                validator, errorMessage, invalidScrollRequest
+        );
+
+        //WHEN & THEN
+        assertThatThrownBy(() -> roleController.scroll(invalidScrollRequest))
+                .isInstanceOf(ConstraintViolationException.class)
+                .hasMessageContaining(errorMessage);
+
+        verify(validator).validate(invalidScrollRequest);
+        verifyNoInteractions(roleService);
+    }
+
+
+    @Test
+    void scroll_whenEntityScrollRequestIsValid_thenReturnsWindowOfRoles() {
+        //GIVEN
+        EntityScrollRequest validScrollRequest = new EntityScrollRequest(
+                2, "roleName", Sort.Direction.DESC, null, true
+        );
+
+        KeysetScrollQuery expectedQuery = new KeysetScrollQuery(
+                "roleName", Sort.Direction.DESC, ScrollPosition.keyset(), 2, true, KeysetSortFields.ROLES
+        );
+
+        final RoleDto firstRole = new RoleDto(2L, "ROLE_USER", "Пользователь", Collections.emptyList()),
+                secondRole = new RoleDto(1L, "ROLE_ADMIN", "Администратор", Collections.emptyList());
+
+        final ScrollResponse<RoleDto> scrollResponse = new ScrollResponse<>(
+                List.of(firstRole, secondRole), "next-cursor", true, 3L
+        );
+
+        when(validator.validate(any())).thenReturn(Collections.emptySet());
+        when(roleService.scroll(expectedQuery)).thenReturn(scrollResponse);
+
+        //WHEN
+        ResponseEntity<ScrollResponse<RoleDto>> result = roleController.scroll(validScrollRequest);
+
+        //THEN
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(scrollResponse);
+
+        verify(roleService).scroll(expectedQuery);
+    }
+
+
+    @Test
+    void scroll_whenSortPropertyIsNotSupported_thenThrowsException() {
+        //GIVEN
+        EntityScrollRequest scrollRequest = new EntityScrollRequest(
+                10, "description", null, null, null
+        );
+
+        when(validator.validate(any())).thenReturn(Collections.emptySet());
+
+        //WHEN & THEN
+        assertThatThrownBy(() -> roleController.scroll(scrollRequest))
+                .isInstanceOf(UnsupportedSortPropertyException.class);
+
+        verifyNoInteractions(roleService);
+    }
+
+
+    @Test
+    void scroll_whenCursorWasIssuedForAnotherSort_thenThrowsException() {
+        //GIVEN
+        final String cursor = new KeysetCursor("roleName", Sort.Direction.ASC, Map.of("roleName", "ROLE_ADMIN"))
+                .encode();
+
+        EntityScrollRequest scrollRequest = new EntityScrollRequest(
+                10, "roleName", Sort.Direction.DESC, cursor, null
+        );
+
+        when(validator.validate(any())).thenReturn(Collections.emptySet());
+
+        //WHEN & THEN
+        assertThatThrownBy(() -> roleController.scroll(scrollRequest))
+                .isInstanceOf(InvalidScrollCursorException.class);
+
+        verifyNoInteractions(roleService);
+    }
+
+
     @Test
     void findByRoleName_whenRoleExists_thenReturnsRoleDto() {
         //GIVEN
@@ -279,4 +386,41 @@ class RoleControllerUnitTest {
 
         verify(roleService).delete(roleName);
     }
-}
\ No newline at end of file
+
+
+    @Test
+    @DisplayName("[#findByRoleName]: Checks that a role named 'scroll' is routed to the lookup by name and not to the keyset scroll")
+    void findByRoleName_whenRoleIsNamedScroll_thenRequestIsRoutedToFindByRoleName() throws Exception {
+        //GIVEN
+        final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(roleController).build();
+        final RoleDto scrollRole = new RoleDto(3L, "scroll", "Прокрутка", Collections.emptyList());
+
+        when(roleService.findByName("scroll")).thenReturn(Optional.of(scrollRole));
+
+        //WHEN & THEN
+        mockMvc.perform(get("/api/v1/jwt-auth/roles/scroll"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role_name").value("scroll"));
+
+        verify(roleService).findByName("scroll");
+        verify(roleService, never()).scroll(any());
+    }
+
+
+    @Test
+    @DisplayName("[#scroll]: Checks that the keyset scroll is routed by the 'scroll' query parameter of the list endpoint")
+    void scroll_whenScrollParameterIsSet_thenRequestIsRoutedToScroll() throws Exception {
+        //GIVEN
+        final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(roleController).build();
+
+        when(roleService.scroll(any())).thenReturn(new ScrollResponse<>(Collections.emptyList(), null, false, null));
+
+        //WHEN & THEN
+        mockMvc.perform(get("/api/v1/jwt-auth/roles").param("scroll", "true").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        verify(roleService).scroll(any());
+        verify(roleService, never()).findAll(any());
+    }
+}
@@ -1,8 +1,12 @@
 package me.stinper.jwtauth.controller;
 
 import jakarta.validation.ConstraintViolationException;
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.core.pagination.KeysetSortFields;
 import me.stinper.jwtauth.core.security.jwt.JwtAuthUserDetails;
 import me.stinper.jwtauth.dto.EntityPaginationRequest;
+import me.stinper.jwtauth.dto.EntityScrollRequest;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.user.PasswordChangeRequest;
 import me.stinper.jwtauth.dto.user.UserCreationRequest;
 import me.stinper.jwtauth.dto.user.UserDto;
@@ -23,6 +27,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -111,6 +117,42 @@ class UserControllerUnitTest {
     }
 
 
+    @Test
+    void scroll_whenEntityScrollRequestIsValid_thenReturnsWindowOfUsersFilteredByStrategy() {
+        //GIVEN
+        EntityScrollRequest validScrollRequest = new EntityScrollRequest(
+                10, "email", null, null, null
+        );
+
+        KeysetScrollQuery expectedQuery = new KeysetScrollQuery(
+                "email", Sort.Direction.ASC, ScrollPosition.keyset(), 10, false, KeysetSortFields.USERS
+        );
+
+        final UserDto firstUser = UserDto.builder()
+                .uuid(UUID.fromString("9ee513f0-1cf3-4783-b822-6799406d9d81"))
+                .email("firstuser@gmail.com")
+                .build();
+
+        final ScrollResponse<UserDto> scrollResponse = new ScrollResponse<>(List.of(firstUser), null, false, null);
+
+        JwtAuthUserDetails user = mock(JwtAuthUserDetails.class);
+        UserFilterStrategy userFilterStrategy = mock(UserFilterStrategy.class);
+
+        when(validator.validate(any())).thenReturn(Collections.emptySet());
+        when(userSecurityService.chooseUserFilterStrategy(user)).thenReturn(userFilterStrategy);
+        when(userService.scroll(expectedQuery, userFilterStrategy)).thenReturn(scrollResponse);
+
+        //WHEN
+        ResponseEntity<ScrollResponse<UserDto>> result = userController.scroll(validScrollRequest, user);
+
+        //THEN
+        assertThat(result.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(result.getBody()).isEqualTo(scrollResponse);
+
+        verify(userService).scroll(expectedQuery, userFilterStrategy);
+    }
+
+
     @Test
     void findByUUID_whenUserExists_thenReturnsUserDto() {
         //GIVEN
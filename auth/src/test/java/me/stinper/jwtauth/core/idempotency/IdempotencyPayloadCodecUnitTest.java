@@ -0,0 +1,110 @@
+package me.stinper.jwtauth.core.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.stinper.jwtauth.dto.JwtResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Unit Tests for IdempotencyPayloadCodec class")
+class IdempotencyPayloadCodecUnitTest {
+    private static final JwtResponse RESPONSE = new JwtResponse("access-token", "refresh-token");
+
+    private final IdempotencyPayloadCodec payloadCodec = new IdempotencyPayloadCodec(new ObjectMapper());
+
+
+    @Test
+    @DisplayName("[#encode]: Checks that a result is encoded as compressed Smile and is decoded back without changes")
+    void encode_whenResultIsDecoded_thenRoundTripPreservesResult() throws JsonProcessingException {
+        //WHEN
+        IdempotencyPayload payload = payloadCodec.encode(RESPONSE);
+        JwtResponse decodedResponse = payloadCodec.decode(payload, JwtResponse.class);
+
+        //THEN
+        assertThat(payload.contentType()).isEqualTo(IdempotencyPayloadCodec.SMILE_DEFLATE);
+        assertThat(decodedResponse).isEqualTo(RESPONSE);
+    }
+
+
+    @Test
+    @DisplayName("[#decode]: Checks that a legacy JSON result migrated by V12 (convert_to(response_data, 'UTF8')) is decoded")
+    void decode_whenPayloadIsLegacyJson_thenDecodesResult() {
+        //GIVEN
+        IdempotencyPayload legacyPayload = new IdempotencyPayload(
+                "{\"access_token\":\"access-token\",\"refresh_token\":\"refresh-token\"}".getBytes(StandardCharsets.UTF_8),
+                IdempotencyPayloadCodec.JSON
+        );
+
+        //WHEN
+        JwtResponse decodedResponse = payloadCodec.decode(legacyPayload, JwtResponse.class);
+
+        //THEN
+        assertThat(decodedResponse).isEqualTo(RESPONSE);
+    }
+
+
+    @Test
+    @DisplayName("[#decode]: Checks that a truncated compressed result is reported as corrupted")
+    void decode_whenCompressedPayloadIsTruncated_thenThrowsException() throws JsonProcessingException {
+        //GIVEN
+        IdempotencyPayload payload = payloadCodec.encode(RESPONSE);
+        IdempotencyPayload truncatedPayload = new IdempotencyPayload(
+                Arrays.copyOf(payload.content(), payload.content().length / 2), payload.contentType()
+        );
+
+        //WHEN & THEN
+        assertThatIllegalStateException()
+                .isThrownBy(() -> payloadCodec.decode(truncatedPayload, JwtResponse.class))
+                .withMessageContaining("поврежден")
+                .withMessageContaining(IdempotencyPayloadCodec.SMILE_DEFLATE);
+    }
+
+
+    @Test
+    @DisplayName("[#decode]: Checks that bytes that are not compressed data are reported as corrupted")
+    void decode_whenCompressedPayloadIsCorrupted_thenThrowsException() {
+        //GIVEN
+        IdempotencyPayload corruptedPayload = new IdempotencyPayload(
+                "not a deflate stream".getBytes(StandardCharsets.UTF_8), IdempotencyPayloadCodec.SMILE_DEFLATE
+        );
+
+        //WHEN & THEN
+        assertThatIllegalStateException()
+                .isThrownBy(() -> payloadCodec.decode(corruptedPayload, JwtResponse.class))
+                .withMessageContaining("поврежден");
+    }
+
+
+    @Test
+    @DisplayName("[#decode]: Checks that a truncated legacy JSON result is reported as corrupted")
+    void decode_whenLegacyJsonIsTruncated_thenThrowsException() {
+        //GIVEN
+        IdempotencyPayload truncatedPayload = new IdempotencyPayload(
+                "{\"access_token\":\"access-to".getBytes(StandardCharsets.UTF_8), IdempotencyPayloadCodec.JSON
+        );
+
+        //WHEN & THEN
+        assertThatIllegalStateException()
+                .isThrownBy(() -> payloadCodec.decode(truncatedPayload, JwtResponse.class))
+                .withMessageContaining("поврежден")
+                .withMessageContaining(IdempotencyPayloadCodec.JSON)
+                .withCauseInstanceOf(JsonProcessingException.class);
+    }
+
+
+    @Test
+    @DisplayName("[#decode]: Checks that a result in an unsupported format is rejected")
+    void decode_whenContentTypeIsUnsupported_thenThrowsException() {
+        //GIVEN
+        IdempotencyPayload payload = new IdempotencyPayload(new byte[]{1, 2, 3}, "application/xml");
+
+        //WHEN & THEN
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> payloadCodec.decode(payload, JwtResponse.class));
+    }
+}
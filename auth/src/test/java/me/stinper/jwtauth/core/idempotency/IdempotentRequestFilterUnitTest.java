@@ -0,0 +1,528 @@
+package me.stinper.jwtauth.core.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import me.stinper.jwtauth.core.Headers;
+import me.stinper.jwtauth.core.idempotency.annotation.Idempotent;
+import me.stinper.jwtauth.exception.IdempotencyKeyInProgressException;
+import me.stinper.jwtauth.exception.handler.CommonExceptionsHandler;
+import me.stinper.jwtauth.exception.handler.RequestComponentsExceptionHandler;
+import me.stinper.jwtauth.service.entity.contract.IdempotencyService;
+import me.stinper.jwtauth.utils.MessageSourceHelper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.ExceptionHandlerExceptionResolver;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit Tests for IdempotentRequestFilter class")
+class IdempotentRequestFilterUnitTest {
+    private static final String REQUEST_URI = "/api/v1/jwt-auth/roles";
+    private static final String REQUEST_BODY = "{\"roleName\":\"ROLE_EDITOR\"}";
+    private static final String RESPONSE_BODY = "{\"id\":1,\"roleName\":\"ROLE_EDITOR\"}";
+    private static final String OTHER_REQUEST_BODY = "{\"roleName\":\"ROLE_VIEWER\"}";
+    private static final String LOCATION = "http://localhost/api/v1/jwt-auth/roles/1";
+
+    @Mock private IdempotencyService idempotencyService;
+    @Mock private RequestMappingHandlerMapping handlerMapping;
+    @Mock private MessageSourceHelper messageSourceHelper;
+
+    private final TestController testController = new TestController();
+    private IdempotentRequestFilter idempotentRequestFilter;
+
+    /**
+     * Количество вызовов остальной части цепочки фильтров (то есть контроллера)
+     */
+    private final AtomicInteger chainInvocations = new AtomicInteger();
+
+    /**
+     * Тело запроса, прочитанное контроллером
+     */
+    private final AtomicReference<String> bodySeenByController = new AtomicReference<>();
+
+
+    @BeforeEach
+    void setUp() {
+        //Ошибки обрабатываются теми же обработчиками, что и в приложении
+        StaticApplicationContext applicationContext = new StaticApplicationContext();
+        applicationContext.registerBean(CommonExceptionsHandler.class, () -> new CommonExceptionsHandler(messageSourceHelper));
+        applicationContext.registerBean(RequestComponentsExceptionHandler.class, () -> new RequestComponentsExceptionHandler(messageSourceHelper));
+        applicationContext.refresh();
+
+        ExceptionHandlerExceptionResolver handlerExceptionResolver = new ExceptionHandlerExceptionResolver();
+        handlerExceptionResolver.setApplicationContext(applicationContext);
+        handlerExceptionResolver.setMessageConverters(List.of(new MappingJackson2HttpMessageConverter()));
+        handlerExceptionResolver.afterPropertiesSet();
+
+        idempotentRequestFilter = new IdempotentRequestFilter(idempotencyService, handlerMapping, handlerExceptionResolver);
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that a request with a new key is executed once, its body reaches the controller and the 2xx response is stored")
+    void doFilter_whenKeyIsNew_thenExecutesRequestAndStoresResponse() throws Exception {
+        //GIVEN
+        this.mockHandler("create");
+        this.mockIdempotencyServiceToExecute();
+
+        MockHttpServletRequest request = request(UUID.randomUUID().toString(), REQUEST_BODY);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request, response, this.createdResponseChain());
+
+        //THEN
+        assertThat(chainInvocations).hasValue(1);
+        assertThat(bodySeenByController).hasValue(REQUEST_BODY);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(response.getContentAsString()).isEqualTo(RESPONSE_BODY);
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that a stored 2xx response is replayed with its status, content type, Location and body without invoking the controller")
+    void doFilter_whenResponseIsStored_thenReplaysStoredResponse() throws Exception {
+        //GIVEN
+        this.mockHandler("create");
+
+        IdempotentResponse storedResponse = new IdempotentResponse(
+                HttpStatus.CREATED.value(),
+                MediaType.APPLICATION_JSON_VALUE,
+                LOCATION,
+                RESPONSE_BODY.getBytes(StandardCharsets.UTF_8),
+                sha256Hex(REQUEST_BODY)
+        );
+
+        when(idempotencyService.process(any(UUID.class), any(), eq(IdempotentResponse.class))).thenReturn(storedResponse);
+
+        MockHttpServletRequest request = request(UUID.randomUUID().toString(), REQUEST_BODY);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request, response, this.createdResponseChain());
+
+        //THEN
+        assertThat(chainInvocations).hasValue(0);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(response.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(response.getHeader(HttpHeaders.LOCATION)).isEqualTo(LOCATION);
+        assertThat(response.getContentAsString()).isEqualTo(RESPONSE_BODY);
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that a non-2xx response is sent as is and is reported to IdempotencyService as a failure so that the key is released")
+    void doFilter_whenResponseIsNotSuccessful_thenKeyIsReleasedAndResponseIsSent() throws Exception {
+        //GIVEN
+        this.mockHandler("create");
+
+        AtomicReference<RuntimeException> operationFailure = new AtomicReference<>();
+
+        when(idempotencyService.process(any(UUID.class), any(), eq(IdempotentResponse.class))).thenAnswer(invocation -> {
+            Supplier<IdempotentResponse> operation = invocation.getArgument(1);
+
+            try {
+                return operation.get();
+            }
+            catch (RuntimeException re) {
+                //IdempotencyService освобождает ключ, если операция завершилась исключением
+                operationFailure.set(re);
+                throw re;
+            }
+        });
+
+        MockHttpServletRequest request = request(UUID.randomUUID().toString(), REQUEST_BODY);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        FilterChain badRequestChain = (req, res) -> {
+            chainInvocations.incrementAndGet();
+
+            HttpServletResponse httpResponse = (HttpServletResponse) res;
+            httpResponse.setStatus(HttpStatus.BAD_REQUEST.value());
+            httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            httpResponse.getOutputStream().write("{\"code\":\"invalid\"}".getBytes(StandardCharsets.UTF_8));
+        };
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request, response, badRequestChain);
+
+        //THEN
+        assertThat(operationFailure.get()).isNotNull();
+        assertThat(chainInvocations).hasValue(1);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(response.getContentAsString()).isEqualTo("{\"code\":\"invalid\"}");
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that a request without a key to an endpoint that requires it is rejected with 400")
+    void doFilter_whenRequiredKeyIsMissing_thenRejectsRequest() throws Exception {
+        //GIVEN
+        this.mockHandler("createWithRequiredKey");
+
+        MockHttpServletRequest request = request(null, REQUEST_BODY);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request, response, this.createdResponseChain());
+
+        //THEN
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(chainInvocations).hasValue(0);
+
+        verifyNoInteractions(idempotencyService);
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that a request without a key to an endpoint where it is optional is executed as usual")
+    void doFilter_whenOptionalKeyIsMissing_thenExecutesRequestWithoutIdempotency() throws Exception {
+        //GIVEN
+        this.mockHandler("create");
+
+        MockHttpServletRequest request = request(null, REQUEST_BODY);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request, response, this.createdResponseChain());
+
+        //THEN
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.CREATED.value());
+        assertThat(chainInvocations).hasValue(1);
+
+        verifyNoInteractions(idempotencyService);
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that a key that is not a UUID is rejected with 400")
+    void doFilter_whenKeyIsMalformed_thenRejectsRequest() throws Exception {
+        //GIVEN
+        this.mockHandler("create");
+
+        MockHttpServletRequest request = request("not-a-uuid", REQUEST_BODY);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request, response, this.createdResponseChain());
+
+        //THEN
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.BAD_REQUEST.value());
+        assertThat(chainInvocations).hasValue(0);
+
+        verifyNoInteractions(idempotencyService);
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that a concurrent duplicate whose original request is still in progress gets 409")
+    void doFilter_whenOriginalRequestIsInProgress_thenRespondsWithConflict() throws Exception {
+        //GIVEN
+        this.mockHandler("create");
+
+        UUID clientKey = UUID.randomUUID();
+
+        when(idempotencyService.process(any(UUID.class), any(), eq(IdempotentResponse.class)))
+                .thenThrow(new IdempotencyKeyInProgressException("messages.idempotency-key.in-progress", clientKey));
+
+        MockHttpServletRequest request = request(clientKey.toString(), REQUEST_BODY);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request, response, this.createdResponseChain());
+
+        //THEN
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.CONFLICT.value());
+        assertThat(chainInvocations).hasValue(0);
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that the key is scoped by method, URI and user only and the stored response carries the digest of the request body")
+    void doFilter_whenRequestIsExecuted_thenStoresDigestOfRequestBody() throws Exception {
+        //GIVEN
+        this.mockHandler("create");
+
+        List<IdempotentResponse> storedResponses = new ArrayList<>();
+
+        when(idempotencyService.process(any(UUID.class), any(), eq(IdempotentResponse.class))).thenAnswer(invocation -> {
+            Supplier<IdempotentResponse> operation = invocation.getArgument(1);
+            IdempotentResponse storedResponse = operation.get();
+
+            storedResponses.add(storedResponse);
+            return storedResponse;
+        });
+
+        String clientKey = UUID.randomUUID().toString();
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request(clientKey, REQUEST_BODY), new MockHttpServletResponse(), this.createdResponseChain());
+        idempotentRequestFilter.doFilter(request(clientKey, OTHER_REQUEST_BODY), new MockHttpServletResponse(), this.createdResponseChain());
+
+        //THEN
+        ArgumentCaptor<UUID> scopeKeyCaptor = ArgumentCaptor.forClass(UUID.class);
+        verify(idempotencyService, times(2)).process(scopeKeyCaptor.capture(), any(), eq(IdempotentResponse.class));
+
+        List<UUID> scopeKeys = scopeKeyCaptor.getAllValues();
+
+        assertThat(scopeKeys.get(0))
+                .isEqualTo(scopeKeys.get(1))
+                .isNotEqualTo(UUID.fromString(clientKey));
+        assertThat(storedResponses)
+                .extracting(IdempotentResponse::requestDigest)
+                .containsExactly(sha256Hex(REQUEST_BODY), sha256Hex(OTHER_REQUEST_BODY));
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that a digest is computed over the whole body even if the controller reads only a part of it")
+    void doFilter_whenControllerReadsPartOfBody_thenDigestCoversWholeBody() throws Exception {
+        //GIVEN
+        this.mockHandler("create");
+
+        AtomicReference<IdempotentResponse> storedResponse = new AtomicReference<>();
+
+        when(idempotencyService.process(any(UUID.class), any(), eq(IdempotentResponse.class))).thenAnswer(invocation -> {
+            Supplier<IdempotentResponse> operation = invocation.getArgument(1);
+            storedResponse.set(operation.get());
+            return storedResponse.get();
+        });
+
+        FilterChain partialReadChain = (req, res) -> {
+            chainInvocations.incrementAndGet();
+
+            req.getInputStream().read(new byte[5]);
+            req.getInputStream().close();
+
+            ((HttpServletResponse) res).setStatus(HttpStatus.CREATED.value());
+        };
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request(UUID.randomUUID().toString(), REQUEST_BODY), new MockHttpServletResponse(), partialReadChain);
+
+        //THEN
+        assertThat(storedResponse.get().requestDigest()).isEqualTo(sha256Hex(REQUEST_BODY));
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that reusing a key with a different request body is rejected with 422 instead of replaying the stored response")
+    void doFilter_whenKeyIsReusedWithDifferentBody_thenRejectsRequest() throws Exception {
+        //GIVEN
+        this.mockHandler("create");
+
+        IdempotentResponse storedResponse = new IdempotentResponse(
+                HttpStatus.CREATED.value(),
+                MediaType.APPLICATION_JSON_VALUE,
+                LOCATION,
+                RESPONSE_BODY.getBytes(StandardCharsets.UTF_8),
+                sha256Hex(REQUEST_BODY)
+        );
+
+        when(idempotencyService.process(any(UUID.class), any(), eq(IdempotentResponse.class))).thenReturn(storedResponse);
+
+        MockHttpServletRequest request = request(UUID.randomUUID().toString(), OTHER_REQUEST_BODY);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request, response, this.createdResponseChain());
+
+        //THEN
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY.value());
+        assertThat(response.getContentAsString()).doesNotContain(RESPONSE_BODY);
+        assertThat(response.getHeader(HttpHeaders.LOCATION)).isNull();
+        assertThat(chainInvocations).hasValue(0);
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that a handler without @Idempotent is executed without idempotency even if the key is present")
+    void doFilter_whenHandlerIsNotIdempotent_thenExecutesRequestWithoutIdempotency() throws Exception {
+        //GIVEN
+        this.mockHandler("notIdempotent");
+
+        MockHttpServletRequest request = request(UUID.randomUUID().toString(), REQUEST_BODY);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request, response, this.createdResponseChain());
+
+        //THEN
+        assertThat(chainInvocations).hasValue(1);
+        verifyNoInteractions(idempotencyService);
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that the handler is not looked up for safe methods")
+    void doFilter_whenMethodIsSafe_thenSkipsHandlerLookup() throws Exception {
+        //GIVEN
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", REQUEST_URI);
+        request.addHeader(Headers.X_IDEMPOTENCY_KEY, UUID.randomUUID().toString());
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request, new MockHttpServletResponse(), this.createdResponseChain());
+
+        //THEN
+        assertThat(chainInvocations).hasValue(1);
+        verifyNoInteractions(handlerMapping, idempotencyService);
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that a request whose method is not mapped is passed on so that DispatcherServlet responds with 405")
+    void doFilter_whenMethodIsNotSupported_thenPassesRequestToDispatcher() throws Exception {
+        //GIVEN
+        when(handlerMapping.getHandler(any()))
+                .thenThrow(new HttpRequestMethodNotSupportedException(HttpMethod.PUT.name(), List.of(HttpMethod.POST.name())));
+
+        MockHttpServletRequest request = request(UUID.randomUUID().toString(), REQUEST_BODY);
+        request.setMethod(HttpMethod.PUT.name());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request, response, this.statusResponseChain(HttpStatus.METHOD_NOT_ALLOWED));
+
+        //THEN
+        assertThat(chainInvocations).hasValue(1);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.METHOD_NOT_ALLOWED.value());
+
+        verifyNoInteractions(idempotencyService);
+    }
+
+
+    @Test
+    @DisplayName("[#doFilter]: Checks that a request with an unsupported content type is passed on so that DispatcherServlet responds with 415")
+    void doFilter_whenContentTypeIsNotSupported_thenPassesRequestToDispatcher() throws Exception {
+        //GIVEN
+        when(handlerMapping.getHandler(any())).thenThrow(new HttpMediaTypeNotSupportedException(
+                MediaType.TEXT_PLAIN, List.of(MediaType.APPLICATION_JSON), HttpMethod.POST
+        ));
+
+        MockHttpServletRequest request = request(UUID.randomUUID().toString(), REQUEST_BODY);
+        request.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        //WHEN
+        idempotentRequestFilter.doFilter(request, response, this.statusResponseChain(HttpStatus.UNSUPPORTED_MEDIA_TYPE));
+
+        //THEN
+        assertThat(chainInvocations).hasValue(1);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.UNSUPPORTED_MEDIA_TYPE.value());
+
+        verifyNoInteractions(idempotencyService);
+    }
+
+
+    private void mockHandler(String handlerMethodName) throws Exception {
+        HandlerMethod handlerMethod = new HandlerMethod(testController, TestController.class.getMethod(handlerMethodName));
+        when(handlerMapping.getHandler(any())).thenReturn(new HandlerExecutionChain(handlerMethod));
+    }
+
+    private void mockIdempotencyServiceToExecute() throws Exception {
+        when(idempotencyService.process(any(UUID.class), any(), eq(IdempotentResponse.class))).thenAnswer(invocation -> {
+            Supplier<IdempotentResponse> operation = invocation.getArgument(1);
+            return operation.get();
+        });
+    }
+
+    /**
+     * Цепочка фильтров, которая читает тело запроса и отвечает как контроллер, создавший ресурс
+     */
+    private FilterChain createdResponseChain() {
+        return (req, res) -> {
+            chainInvocations.incrementAndGet();
+            bodySeenByController.set(StreamUtils.copyToString(req.getInputStream(), StandardCharsets.UTF_8));
+
+            HttpServletResponse httpResponse = (HttpServletResponse) res;
+            httpResponse.setStatus(HttpStatus.CREATED.value());
+            httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            httpResponse.setHeader(HttpHeaders.LOCATION, LOCATION);
+            httpResponse.getOutputStream().write(RESPONSE_BODY.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    /**
+     * Цепочка фильтров, которая отвечает заданным статусом так, как {@code DispatcherServlet} отвечает на запрос,
+     * для которого не найден обработчик
+     */
+    private FilterChain statusResponseChain(HttpStatus status) {
+        return (req, res) -> {
+            chainInvocations.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(status.value());
+        };
+    }
+
+    private static String sha256Hex(String body) throws NoSuchAlgorithmException {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static MockHttpServletRequest request(String idempotencyKey, String body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", REQUEST_URI);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+
+        if (idempotencyKey != null)
+            request.addHeader(Headers.X_IDEMPOTENCY_KEY, idempotencyKey);
+
+        return request;
+    }
+
+
+    /**
+     * Контроллер, методы которого используются только как обработчики запросов, найденные {@link RequestMappingHandlerMapping}
+     */
+    static class TestController {
+        @Idempotent
+        public ResponseEntity<Void> create() {
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        }
+
+        @Idempotent(required = true)
+        public ResponseEntity<Void> createWithRequiredKey() {
+            return ResponseEntity.status(HttpStatus.CREATED).build();
+        }
+
+        public ResponseEntity<Void> notIdempotent() {
+            return ResponseEntity.ok().build();
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package me.stinper.jwtauth.core.idempotency;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.stinper.jwtauth.entity.IdempotencyKeyStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit Tests for TieredIdempotencyStore class")
+class TieredIdempotencyStoreUnitTest {
+    private static final Duration IDEMPOTENCY_PERIOD = Duration.ofMinutes(10);
+    private static final IdempotencyPayload PAYLOAD = new IdempotencyPayload(
+            "{}".getBytes(StandardCharsets.UTF_8), IdempotencyPayloadCodec.JSON
+    );
+
+    @Mock private JpaIdempotencyStore databaseTier;
+
+    private final AtomicLong tickerNanos = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private TieredIdempotencyStore tieredIdempotencyStore;
+
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tieredIdempotencyStore = new TieredIdempotencyStore(
+                databaseTier, IDEMPOTENCY_PERIOD, DataSize.ofMegabytes(1), meterRegistry, tickerNanos::get
+        );
+    }
+
+
+    @Test
+    @DisplayName("[#complete]: Checks that a completed key is cached and is then served without accessing the database")
+    void complete_whenKeyIsCompleted_thenSubsequentFindIsServedFromMemory() {
+        //GIVEN
+        UUID key = UUID.randomUUID();
+        Instant issuedAt = Instant.now();
+
+        when(databaseTier.complete(key, issuedAt, PAYLOAD)).thenReturn(true);
+
+        //WHEN
+        tieredIdempotencyStore.complete(key, issuedAt, PAYLOAD);
+        Optional<IdempotencyRecord> foundRecord = tieredIdempotencyStore.find(key);
+
+        //THEN
+        assertThat(foundRecord).hasValueSatisfying(record -> {
+            assertThat(record.status()).isEqualTo(IdempotencyKeyStatus.COMPLETED);
+            assertThat(record.payload()).isSameAs(PAYLOAD);
+        });
+
+        verify(databaseTier, never()).find(any());
+    }
+
+
+    @Test
+    @DisplayName("[#claim]: Checks that a cached completed key is not claimed again and the database is not accessed")
+    void claim_whenKeyIsCachedAsCompleted_thenReturnsFalseWithoutAccessingDatabase() {
+        //GIVEN
+        UUID key = UUID.randomUUID();
+        Instant issuedAt = Instant.now();
+
+        when(databaseTier.complete(key, issuedAt, PAYLOAD)).thenReturn(true);
+        tieredIdempotencyStore.complete(key, issuedAt, PAYLOAD);
+
+        //WHEN
+        boolean claimed = tieredIdempotencyStore.claim(key, issuedAt);
+
+        //THEN
+        assertThat(claimed).isFalse();
+        verify(databaseTier, never()).claim(any(), any());
+    }
+
+
+    @Test
+    @DisplayName("[#find]: Checks that a cache miss falls back to the database and a completed record is cached")
+    void find_whenKeyIsNotCached_thenFallsBackToDatabaseAndCachesCompletedRecord() {
+        //GIVEN
+        UUID key = UUID.randomUUID();
+        IdempotencyRecord storedRecord = new IdempotencyRecord(key, IdempotencyKeyStatus.COMPLETED, Instant.now(), PAYLOAD);
+
+        when(databaseTier.find(key)).thenReturn(Optional.of(storedRecord));
+
+        //WHEN
+        Optional<IdempotencyRecord> firstRecord = tieredIdempotencyStore.find(key);
+        Optional<IdempotencyRecord> secondRecord = tieredIdempotencyStore.find(key);
+
+        //THEN
+        assertThat(firstRecord).containsSame(storedRecord);
+        assertThat(secondRecord).containsSame(storedRecord);
+
+        verify(databaseTier, times(1)).find(key);
+    }
+
+
+    @Test
+    @DisplayName("[#find]: Checks that a pending key is never cached and every lookup reaches the database")
+    void find_whenStoredKeyIsPending_thenRecordIsNotCached() {
+        //GIVEN
+        UUID key = UUID.randomUUID();
+        IdempotencyRecord pendingRecord = new IdempotencyRecord(key, IdempotencyKeyStatus.PENDING, Instant.now(), null);
+
+        when(databaseTier.find(key)).thenReturn(Optional.of(pendingRecord));
+
+        //WHEN
+        tieredIdempotencyStore.find(key);
+        Optional<IdempotencyRecord> secondRecord = tieredIdempotencyStore.find(key);
+
+        //THEN
+        assertThat(secondRecord).containsSame(pendingRecord);
+        verify(databaseTier, times(2)).find(key);
+    }
+
+
+    @Test
+    @DisplayName("[#complete]: Checks that a key is not cached if the database did not accept the result")
+    void complete_whenDatabaseRejectsResult_thenKeyIsNotCached() {
+        //GIVEN
+        UUID key = UUID.randomUUID();
+        Instant issuedAt = Instant.now();
+
+        when(databaseTier.complete(key, issuedAt, PAYLOAD)).thenReturn(false);
+        when(databaseTier.find(key)).thenReturn(Optional.empty());
+
+        //WHEN
+        tieredIdempotencyStore.complete(key, issuedAt, PAYLOAD);
+        Optional<IdempotencyRecord> foundRecord = tieredIdempotencyStore.find(key);
+
+        //THEN
+        assertThat(foundRecord).isEmpty();
+        verify(databaseTier).find(key);
+    }
+
+
+    @Test
+    @DisplayName("[#find]: Checks that a cached key expires at issuedAt + idempotency period")
+    void find_whenIdempotencyPeriodElapses_thenCachedKeyExpires() {
+        //GIVEN
+        UUID key = UUID.randomUUID();
+        Instant issuedAt = Instant.now().minus(Duration.ofMinutes(4));
+        Duration remaining = IDEMPOTENCY_PERIOD.minus(Duration.ofMinutes(4));
+
+        when(databaseTier.complete(key, issuedAt, PAYLOAD)).thenReturn(true);
+        when(databaseTier.find(key)).thenReturn(Optional.empty());
+
+        tieredIdempotencyStore.complete(key, issuedAt, PAYLOAD);
+
+        //WHEN
+        tickerNanos.addAndGet(remaining.minusSeconds(1).toNanos());
+        Optional<IdempotencyRecord> beforeExpiration = tieredIdempotencyStore.find(key);
+
+        tickerNanos.addAndGet(Duration.ofSeconds(2).toNanos());
+        Optional<IdempotencyRecord> afterExpiration = tieredIdempotencyStore.find(key);
+
+        //THEN
+        assertThat(beforeExpiration).isPresent();
+        assertThat(afterExpiration).isEmpty();
+
+        verify(databaseTier, times(1)).find(key);
+    }
+
+
+    @Test
+    @DisplayName("[#release]: Checks that releasing a key is delegated to the database")
+    void release_whenCalled_thenDelegatesToDatabase() {
+        //GIVEN
+        UUID key = UUID.randomUUID();
+
+        //WHEN
+        tieredIdempotencyStore.release(key);
+
+        //THEN
+        verify(databaseTier).release(key);
+    }
+
+
+    @Test
+    @DisplayName("[#find]: Checks that the latency of each tier is recorded under the 'tier' tag")
+    void find_whenTiersAreAccessed_thenLatencyIsRecordedPerTier() {
+        //GIVEN
+        UUID key = UUID.randomUUID();
+        IdempotencyRecord storedRecord = new IdempotencyRecord(key, IdempotencyKeyStatus.COMPLETED, Instant.now(), PAYLOAD);
+
+        when(databaseTier.find(key)).thenReturn(Optional.of(storedRecord));
+
+        //WHEN
+        tieredIdempotencyStore.find(key); //Промах: обращение к памяти и к БД
+        tieredIdempotencyStore.find(key); //Попадание: обращение только к памяти
+
+        //THEN
+        Timer memoryTimer = meterRegistry.get(TieredIdempotencyStore.LATENCY_METER).tag("tier", "memory").timer();
+        Timer databaseTimer = meterRegistry.get(TieredIdempotencyStore.LATENCY_METER).tag("tier", "database").timer();
+
+        assertThat(memoryTimer.count()).isEqualTo(2);
+        assertThat(databaseTimer.count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,206 @@
+package me.stinper.jwtauth.core.scheduling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.stinper.jwtauth.testutils.TestContainersUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@JdbcTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) //Обслуживание секций выполняется в режиме автофиксации
+class IdempotencyKeysPartitionMaintenanceSchedulerTest {
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    /**
+     * Миграция V14 создает секции на сутки вперед, поэтому заблаговременное создание проверяется за ее пределами
+     */
+    private static final int PRECREATE_HOURS = 30;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = TestContainersUtils.initPostgreSQLContainer();
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    DataSource dataSource;
+
+    SimpleMeterRegistry meterRegistry;
+    IdempotencyKeysPartitionMaintenanceScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new IdempotencyKeysPartitionMaintenanceScheduler(jdbcTemplate, RETENTION, PRECREATE_HOURS, meterRegistry);
+    }
+
+    @Test
+    void maintainPartitions_whenCalled_thenCreatesPartitionsAhead() {
+        //GIVEN
+        Instant currentHour = Instant.now().truncatedTo(ChronoUnit.HOURS);
+        String lastPrecreatedPartition = partitionName(currentHour.plus(PRECREATE_HOURS, ChronoUnit.HOURS));
+
+        //WHEN
+        scheduler.maintainPartitions();
+
+        //THEN
+        assertThat(partitionExists(partitionName(currentHour))).isTrue();
+        assertThat(partitionExists(lastPrecreatedPartition)).isTrue();
+        assertThat(isAttached(lastPrecreatedPartition)).isTrue();
+        assertThat(meterRegistry.get("idempotency.partitions.created").counter().count()).isPositive();
+
+        //Секция, в границы которой попадает новый ключ, принимает вставку
+        jdbcTemplate.update(
+                "INSERT INTO idempotency_keys (key, issued_at, status) VALUES (gen_random_uuid(), ?::timestamptz, 'PENDING')",
+                currentHour.plus(PRECREATE_HOURS, ChronoUnit.HOURS).plusSeconds(1).toString()
+        );
+    }
+
+    @Test
+    void maintainPartitions_whenPartitionIsExpired_thenDetachesAndDropsPartition() {
+        //GIVEN
+        Instant expiredHour = Instant.now().truncatedTo(ChronoUnit.HOURS).minus(48, ChronoUnit.HOURS);
+        String expiredPartition = createPartitionWithKey(expiredHour);
+
+        Instant previousHour = Instant.now().truncatedTo(ChronoUnit.HOURS).minus(1, ChronoUnit.HOURS);
+        String retainedPartition = partitionName(previousHour);
+
+        //WHEN
+        scheduler.maintainPartitions();
+
+        //THEN
+        assertThat(partitionExists(expiredPartition)).isFalse();
+        assertThat(partitionExists(retainedPartition)).isTrue();
+        assertThat(meterRegistry.get("idempotency.partitions.dropped").counter().count()).isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void maintainPartitions_whenDetachIsPending_thenFinalizesDetachAndDropsPartition() throws SQLException {
+        //GIVEN
+        Instant expiredHour = Instant.now().truncatedTo(ChronoUnit.HOURS).minus(72, ChronoUnit.HOURS);
+        String expiredPartition = createPartitionWithKey(expiredHour);
+
+        this.interruptConcurrentDetach(expiredPartition);
+
+        assertThat(isDetachPending(expiredPartition)).isTrue();
+
+        //WHEN
+        scheduler.maintainPartitions();
+
+        //THEN
+        assertThat(partitionExists(expiredPartition)).isFalse();
+    }
+
+    @Test
+    void maintainPartitions_whenAnotherNodeHoldsMaintenanceLock_thenSkipsMaintenance() throws SQLException {
+        //GIVEN
+        Instant expiredHour = Instant.now().truncatedTo(ChronoUnit.HOURS).minus(96, ChronoUnit.HOURS);
+        String expiredPartition = createPartitionWithKey(expiredHour);
+
+        try (Connection otherNode = dataSource.getConnection(); Statement statement = otherNode.createStatement()) {
+            statement.execute("SELECT pg_advisory_lock(" + IdempotencyKeysPartitionMaintenanceScheduler.MAINTENANCE_LOCK_ID + ")");
+
+            //WHEN
+            scheduler.maintainPartitions();
+
+            //THEN
+            assertThat(partitionExists(expiredPartition)).isTrue();
+            assertThat(meterRegistry.get("idempotency.partitions.created").counter().count()).isZero();
+            assertThat(meterRegistry.get("idempotency.partitions.dropped").counter().count()).isZero();
+
+            statement.execute("SELECT pg_advisory_unlock(" + IdempotencyKeysPartitionMaintenanceScheduler.MAINTENANCE_LOCK_ID + ")");
+        }
+
+        //Блокировка освобождена - обслуживание выполняется
+        scheduler.maintainPartitions();
+
+        assertThat(partitionExists(expiredPartition)).isFalse();
+    }
+
+    /**
+     * Воспроизводит прерванное {@code DETACH PARTITION CONCURRENTLY}: первая транзакция команды помечает секцию как
+     * ожидающую отсоединения, а вторая ожидает завершения транзакций, читающих таблицу, и прерывается по таймауту
+     */
+    private void interruptConcurrentDetach(String partitionName) throws SQLException {
+        try (Connection reader = dataSource.getConnection();
+             Connection detacher = dataSource.getConnection()) {
+            reader.setAutoCommit(false);
+
+            try (Statement statement = reader.createStatement()) {
+                statement.execute("SELECT count(*) FROM idempotency_keys");
+            }
+
+            try (Statement statement = detacher.createStatement()) {
+                statement.execute("SET statement_timeout = '1s'");
+
+                assertThatExceptionOfType(SQLException.class).isThrownBy(() -> statement.execute(
+                        "ALTER TABLE idempotency_keys DETACH PARTITION " + partitionName + " CONCURRENTLY"
+                ));
+
+                statement.execute("RESET statement_timeout");
+            }
+
+            reader.rollback();
+        }
+    }
+
+    private String createPartitionWithKey(Instant from) {
+        String partitionName = partitionName(from);
+
+        jdbcTemplate.execute(String.format(
+                "CREATE TABLE %s PARTITION OF idempotency_keys FOR VALUES FROM ('%s') TO ('%s')",
+                partitionName, from, from.plus(1, ChronoUnit.HOURS)
+        ));
+        jdbcTemplate.update(
+                "INSERT INTO idempotency_keys (key, issued_at, status) VALUES (gen_random_uuid(), ?::timestamptz, 'PENDING')",
+                from.plusSeconds(1).toString()
+        );
+
+        return partitionName;
+    }
+
+    private boolean partitionExists(String partitionName) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partitionName));
+    }
+
+    private boolean isAttached(String partitionName) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_inherits WHERE inhrelid = to_regclass(?))", Boolean.class, partitionName
+        ));
+    }
+
+    private boolean isDetachPending(String partitionName) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT inhdetachpending FROM pg_inherits WHERE inhrelid = to_regclass(?)", Boolean.class, partitionName
+        ));
+    }
+
+    private static String partitionName(Instant from) {
+        return "idempotency_keys_p" + DateTimeFormatter.ofPattern("yyyyMMddHH").format(LocalDateTime.ofInstant(from, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,78 @@
+package me.stinper.jwtauth.core.security;
+
+import me.stinper.jwtauth.core.security.jwt.JwtClaimsUserDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Unit Tests for TokenClaimsAuthorityChecker class")
+class TokenClaimsAuthorityCheckerUnitTest {
+    private static final String ADMIN_ROLE_NAME = "ROLE_ADMIN";
+
+    private TokenClaimsAuthorityChecker authorityChecker;
+
+    @BeforeEach
+    void setUp() {
+        this.authorityChecker = new TokenClaimsAuthorityChecker(() -> ADMIN_ROLE_NAME);
+    }
+
+
+    @Test
+    void hasAuthority_whenClaimsContainRoleOrPermission_thenReturnsTrue() {
+        //GIVEN
+        final JwtClaimsUserDetails user = new JwtClaimsUserDetails(
+                UUID.randomUUID(), "user@gmail.com", Set.of("ROLE_MANAGER"), Set.of("user.read.find-all-users")
+        );
+
+        //WHEN & THEN
+        assertThat(authorityChecker.hasAuthority(user, "ROLE_MANAGER")).isTrue();
+        assertThat(authorityChecker.hasAuthority(user, "user.read.find-all-users")).isTrue();
+        assertThat(authorityChecker.hasAuthority(user, "user.delete")).isFalse();
+    }
+
+
+    @Test
+    void hasAuthority_whenUserIsNotBuiltFromClaims_thenChecksGrantedAuthorities() {
+        //GIVEN
+        final UserDetails user = User.withUsername("user@gmail.com")
+                .password("123")
+                .authorities(new SimpleGrantedAuthority("user.read.find-all-users"))
+                .build();
+
+        //WHEN & THEN
+        assertThat(authorityChecker.hasAuthority(user, "user.read.find-all-users")).isTrue();
+        assertThat(authorityChecker.hasAuthority(user, "user.delete")).isFalse();
+    }
+
+
+    @Test
+    void isAdmin_whenClaimsContainAdminRole_thenReturnsTrue() {
+        //GIVEN
+        final JwtClaimsUserDetails admin = new JwtClaimsUserDetails(
+                UUID.randomUUID(), "admin@gmail.com", Set.of(ADMIN_ROLE_NAME), Set.of()
+        );
+
+        //WHEN & THEN
+        assertThat(authorityChecker.isAdmin(admin)).isTrue();
+    }
+
+
+    @Test
+    void isAdminOrHasPermission_whenClaimsContainNoAuthorities_thenReturnsFalse() {
+        //GIVEN
+        final JwtClaimsUserDetails user = new JwtClaimsUserDetails(
+                UUID.randomUUID(), "user@gmail.com", Set.of(), Set.of()
+        );
+
+        //WHEN & THEN
+        assertThat(authorityChecker.isAdminOrHasPermission(user, "user.read.find-all-users")).isFalse();
+    }
+}
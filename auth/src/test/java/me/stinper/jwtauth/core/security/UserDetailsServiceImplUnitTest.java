@@ -0,0 +1,153 @@
+package me.stinper.jwtauth.core.security;
+
+import me.stinper.jwtauth.core.security.password.CalibratedPasswordEncoderFactory;
+import me.stinper.jwtauth.core.security.password.PasswordHashingAlgorithm;
+import me.stinper.jwtauth.entity.User;
+import me.stinper.jwtauth.repository.UserRepository;
+import me.stinper.jwtauth.utils.MessageSourceHelper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit Tests for UserDetailsServiceImpl class")
+class UserDetailsServiceImplUnitTest {
+    private static final String EMAIL = "user@gmail.com";
+    private static final String RAW_PASSWORD = "Password-123";
+
+    /**
+     * Минимальный бюджет задержки фиксирует стоимость BCrypt на безопасном минимуме независимо от оборудования
+     */
+    private static PasswordEncoder passwordEncoder;
+
+    @Mock private UserRepository userRepository;
+    @Mock private MessageSourceHelper messageSourceHelper;
+
+    @InjectMocks
+    private UserDetailsServiceImpl userDetailsService;
+
+    private DaoAuthenticationProvider authenticationProvider;
+
+
+    @BeforeAll
+    static void createPasswordEncoder() {
+        passwordEncoder = CalibratedPasswordEncoderFactory.create(PasswordHashingAlgorithm.BCRYPT, Duration.ofMillis(1));
+    }
+
+    @BeforeEach
+    void setUp() {
+        authenticationProvider = new DaoAuthenticationProvider();
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+        authenticationProvider.setUserDetailsService(userDetailsService);
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
+    }
+
+
+    @Test
+    @DisplayName("[#updatePassword]: Checks that a password stored with an outdated BCrypt strength is rehashed on successful login")
+    void updatePassword_whenStoredHashHasOutdatedStrength_thenPasswordIsRehashedOnLogin() {
+        //GIVEN
+        String outdatedHash = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(RAW_PASSWORD);
+        User user = user(outdatedHash);
+
+        when(userRepository.findByEmailIgnoreCase(EMAIL)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        //WHEN
+        authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, RAW_PASSWORD));
+
+        //THEN
+        ArgumentCaptor<User> savedUserCaptor = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(savedUserCaptor.capture());
+
+        String upgradedHash = savedUserCaptor.getValue().getPassword();
+
+        assertThat(upgradedHash)
+                .isNotEqualTo(outdatedHash)
+                .startsWith("{bcrypt}$2a$10$");
+        assertThat(passwordEncoder.matches(RAW_PASSWORD, upgradedHash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(upgradedHash)).isFalse();
+    }
+
+
+    @Test
+    @DisplayName("[#updatePassword]: Checks that a legacy hash without the algorithm prefix is rehashed on successful login")
+    void updatePassword_whenStoredHashHasNoAlgorithmPrefix_thenPasswordIsRehashedOnLogin() {
+        //GIVEN
+        String legacyHash = new BCryptPasswordEncoder(4).encode(RAW_PASSWORD);
+        User user = user(legacyHash);
+
+        when(userRepository.findByEmailIgnoreCase(EMAIL)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        //WHEN
+        authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, RAW_PASSWORD));
+
+        //THEN
+        ArgumentCaptor<User> savedUserCaptor = ArgumentCaptor.forClass(User.class);
+        verify(userRepository).save(savedUserCaptor.capture());
+
+        assertThat(savedUserCaptor.getValue().getPassword()).startsWith("{bcrypt}");
+        assertThat(passwordEncoder.matches(RAW_PASSWORD, savedUserCaptor.getValue().getPassword())).isTrue();
+    }
+
+
+    @Test
+    @DisplayName("[#updatePassword]: Checks that a password stored with the current strength is not rehashed on login")
+    void updatePassword_whenStoredHashIsUpToDate_thenPasswordIsNotRehashed() {
+        //GIVEN
+        User user = user(passwordEncoder.encode(RAW_PASSWORD));
+
+        when(userRepository.findByEmailIgnoreCase(EMAIL)).thenReturn(Optional.of(user));
+
+        //WHEN
+        authenticationProvider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated(EMAIL, RAW_PASSWORD));
+
+        //THEN
+        verify(userRepository, never()).save(any());
+    }
+
+
+    @Test
+    @DisplayName("[#updatePassword]: Checks that UsernameNotFoundException is thrown if the user was removed before the rehash")
+    void updatePassword_whenUserIsNotFound_thenThrowsException() {
+        //GIVEN
+        User user = user("{bcrypt}hash");
+
+        when(userRepository.findByEmailIgnoreCase(EMAIL)).thenReturn(Optional.empty());
+
+        //WHEN & THEN
+        assertThatExceptionOfType(UsernameNotFoundException.class)
+                .isThrownBy(() -> userDetailsService.updatePassword(user, "{bcrypt}new-hash"));
+
+        verify(userRepository, never()).save(any());
+    }
+
+
+    private static User user(String passwordHash) {
+        return User.builder()
+                .uuid(UUID.randomUUID())
+                .email(EMAIL)
+                .password(passwordHash)
+                .build();
+    }
+}
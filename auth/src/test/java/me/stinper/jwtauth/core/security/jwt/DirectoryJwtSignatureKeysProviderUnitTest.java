@@ -0,0 +1,124 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+
+import static me.stinper.jwtauth.testutils.JwtSigningKeySupport.*;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit Tests for DirectoryJwtSignatureKeysProvider class")
+class DirectoryJwtSignatureKeysProviderUnitTest {
+    @Mock private ApplicationEventPublisher eventPublisher;
+
+    @TempDir
+    private Path keysDirectory;
+
+    private final KeyPair firstKeyPair = generateKeyPair(),
+            secondKeyPair = generateKeyPair();
+
+
+    @Test
+    void constructor_whenActiveKidFileExists_thenUsesKeyFromFileAsActive() throws IOException {
+        //GIVEN
+        writeKeyFiles(keysDirectory, "2025-01", firstKeyPair, true);
+        writeKeyFiles(keysDirectory, "2025-02", secondKeyPair, true);
+        Files.writeString(keysDirectory.resolve(DirectoryJwtSignatureKeysProvider.ACTIVE_KID_FILE_NAME), "2025-01\n");
+
+        //WHEN
+        JwtKeyRing keyRing = this.createProvider().keyRing();
+
+        //THEN
+        assertThat(keyRing.version()).isEqualTo(1);
+        assertThat(keyRing.activeKey().kid()).isEqualTo("2025-01");
+        assertThat(keyRing.activeKey().publicKey()).isEqualTo(firstKeyPair.getPublic());
+        assertThat(keyRing.keysById()).containsOnlyKeys("2025-01", "2025-02");
+    }
+
+
+    @Test
+    void constructor_whenActiveKidFileIsAbsent_thenUsesGreatestKidWithPrivateKeyAsActive() throws IOException {
+        //GIVEN
+        writeKeyFiles(keysDirectory, "2025-01", firstKeyPair, true);
+        writeKeyFiles(keysDirectory, "2025-02", secondKeyPair, false);
+
+        //WHEN
+        JwtKeyRing keyRing = this.createProvider().keyRing();
+
+        //THEN
+        assertThat(keyRing.activeKey().kid()).isEqualTo("2025-01");
+        assertThat(keyRing.findByKid("2025-02")).isNotNull()
+                .satisfies(key -> assertThat(key.canSign()).isFalse());
+    }
+
+
+    @Test
+    void constructor_whenNoKeyCanSign_thenThrowsException() throws IOException {
+        //GIVEN
+        writeKeyFiles(keysDirectory, "2025-01", firstKeyPair, false);
+
+        //WHEN & THEN
+        assertThatIllegalStateException().isThrownBy(this::createProvider);
+    }
+
+
+    @Test
+    void reload_whenKeyIsRotated_thenActivatesNewKeyAndKeepsRetiredKeyForVerification() throws IOException {
+        //GIVEN
+        writeKeyFiles(keysDirectory, "2025-01", firstKeyPair, true);
+        DirectoryJwtSignatureKeysProvider keysProvider = this.createProvider();
+
+        writeKeyFiles(keysDirectory, "2025-02", secondKeyPair, true);
+        Files.delete(keysDirectory.resolve("2025-01" + DirectoryJwtSignatureKeysProvider.PRIVATE_KEY_EXTENSION));
+
+        //WHEN
+        keysProvider.reload();
+
+        //THEN
+        JwtKeyRing keyRing = keysProvider.keyRing();
+
+        assertThat(keyRing.version()).isEqualTo(2);
+        assertThat(keyRing.activeKey().kid()).isEqualTo("2025-02");
+        assertThat(keyRing.findByKid("2025-01")).isNotNull()
+                .satisfies(key -> assertThat(key.canSign()).isFalse());
+
+        ArgumentCaptor<JwtKeyRingChangedEvent> eventCaptor = ArgumentCaptor.forClass(JwtKeyRingChangedEvent.class);
+        verify(eventPublisher).publishEvent(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().keyRing()).isSameAs(keyRing);
+    }
+
+
+    @Test
+    void reload_whenDirectoryContentIsInvalid_thenKeepsPreviousKeyRing() throws IOException {
+        //GIVEN
+        writeKeyFiles(keysDirectory, "2025-01", firstKeyPair, true);
+        DirectoryJwtSignatureKeysProvider keysProvider = this.createProvider();
+        JwtKeyRing previousKeyRing = keysProvider.keyRing();
+
+        Files.writeString(keysDirectory.resolve(DirectoryJwtSignatureKeysProvider.ACTIVE_KID_FILE_NAME), "unknown");
+
+        //WHEN
+        keysProvider.reload();
+
+        //THEN
+        assertThat(keysProvider.keyRing()).isSameAs(previousKeyRing);
+        verifyNoInteractions(eventPublisher);
+    }
+
+
+    private DirectoryJwtSignatureKeysProvider createProvider() throws IOException {
+        return new DirectoryJwtSignatureKeysProvider(keysDirectory, JwtSignatureAlgorithm.EdDSA, eventPublisher);
+    }
+}
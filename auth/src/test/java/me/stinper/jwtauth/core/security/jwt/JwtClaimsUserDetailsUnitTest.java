@@ -0,0 +1,88 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Unit Tests for JwtClaimsUserDetails class")
+class JwtClaimsUserDetailsUnitTest {
+
+    @Test
+    void constructor_whenRolesAndPermissionsProvided_thenExposesBothAsGrantedAuthorities() {
+        //GIVEN
+        final UUID uuid = UUID.randomUUID();
+
+        //WHEN
+        JwtClaimsUserDetails user = new JwtClaimsUserDetails(
+                uuid, "user@gmail.com", Set.of("ROLE_USER"), Set.of("user.read", "user.update")
+        );
+
+        //THEN
+        assertThat(user.getUuid()).isEqualTo(uuid);
+        assertThat(user.getUsername()).isEqualTo("user@gmail.com");
+        assertThat(user.getAuthorities())
+                .extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_USER", "user.read", "user.update");
+    }
+
+
+    @Test
+    void constructor_whenSourceSetsChangeAfterwards_thenAuthoritiesStayUnchanged() {
+        //GIVEN
+        final Set<String> permissions = new HashSet<>(Set.of("user.read"));
+
+        JwtClaimsUserDetails user = new JwtClaimsUserDetails(UUID.randomUUID(), "user@gmail.com", Set.of(), permissions);
+
+        //WHEN & THEN
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> user.getPermissions().add("user.delete"));
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> user.getAuthorities().clear());
+    }
+
+
+    @Test
+    void hasAuthority_checksBothRolesAndPermissions() {
+        //GIVEN
+        JwtClaimsUserDetails user = new JwtClaimsUserDetails(
+                UUID.randomUUID(), "user@gmail.com", Set.of("ROLE_USER"), Set.of("user.read")
+        );
+
+        //WHEN & THEN
+        assertThat(user.hasAuthority("ROLE_USER")).isTrue();
+        assertThat(user.hasAuthority("user.read")).isTrue();
+        assertThat(user.hasAuthority("ROLE_ADMIN")).isFalse();
+    }
+
+
+    @Test
+    void getters_whenValueIsNotPresentInToken_thenReturnNull() {
+        //GIVEN
+        JwtClaimsUserDetails user = new JwtClaimsUserDetails(UUID.randomUUID(), "user@gmail.com", Set.of(), Set.of());
+
+        //WHEN & THEN
+        assertThat(user.getPassword()).isNull();
+        assertThat(user.getRegisteredAt()).isNull();
+        assertThat(user.getIsEmailVerified()).isNull();
+        assertThat(user.getDeactivatedAt()).isNull();
+    }
+
+
+    @Test
+    void equals_comparesUsersByUuidOnly() {
+        //GIVEN
+        final UUID uuid = UUID.randomUUID();
+
+        JwtClaimsUserDetails user = new JwtClaimsUserDetails(uuid, "user@gmail.com", Set.of("ROLE_USER"), Set.of());
+        JwtClaimsUserDetails sameUserWithNewClaims = new JwtClaimsUserDetails(uuid, "new@gmail.com", Set.of("ROLE_ADMIN"), Set.of());
+
+        //WHEN & THEN
+        assertThat(user).isEqualTo(sameUserWithNewClaims).hasSameHashCodeAs(sameUserWithNewClaims);
+    }
+}
@@ -0,0 +1,104 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static me.stinper.jwtauth.testutils.JwtSigningKeySupport.*;
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Unit Tests for JwtKeyRing class")
+class JwtKeyRingUnitTest {
+    private final KeyPair firstKeyPair = generateKeyPair(),
+            secondKeyPair = generateKeyPair(),
+            thirdKeyPair = generateKeyPair();
+
+
+    @Test
+    void constructor_whenActiveKeyIsNotInKeys_thenAddsActiveKey() {
+        //GIVEN
+        JwtSigningKey retiredKey = verificationOnlyKey("2025-01", firstKeyPair);
+        JwtSigningKey activeKey = signingKey("2025-02", secondKeyPair);
+
+        //WHEN
+        JwtKeyRing keyRing = new JwtKeyRing(1, activeKey, Map.of(retiredKey.kid(), retiredKey));
+
+        //THEN
+        assertThat(keyRing.keysById()).containsOnlyKeys("2025-01", "2025-02");
+        assertThat(keyRing.activeKey()).isSameAs(activeKey);
+    }
+
+
+    @Test
+    void constructor_whenActiveKeyCannotSign_thenThrowsException() {
+        //GIVEN
+        JwtSigningKey verificationOnlyKey = verificationOnlyKey("2025-01", firstKeyPair);
+
+        //WHEN & THEN
+        assertThatIllegalArgumentException().isThrownBy(() -> JwtKeyRing.of(1, verificationOnlyKey));
+    }
+
+
+    @Test
+    void verificationKeys_returnsKeysOrderedByKidRegardlessOfLoadingOrder() {
+        //GIVEN
+        JwtSigningKey firstKey = verificationOnlyKey("2025-01", firstKeyPair),
+                secondKey = verificationOnlyKey("2025-02", secondKeyPair),
+                activeKey = signingKey("2025-03", thirdKeyPair);
+
+        Map<String, JwtSigningKey> loadedInOneOrder = new LinkedHashMap<>();
+        loadedInOneOrder.put(secondKey.kid(), secondKey);
+        loadedInOneOrder.put(firstKey.kid(), firstKey);
+
+        Map<String, JwtSigningKey> loadedInAnotherOrder = new LinkedHashMap<>();
+        loadedInAnotherOrder.put(firstKey.kid(), firstKey);
+        loadedInAnotherOrder.put(secondKey.kid(), secondKey);
+
+        //WHEN
+        JwtKeyRing oneKeyRing = new JwtKeyRing(1, activeKey, loadedInOneOrder);
+        JwtKeyRing anotherKeyRing = new JwtKeyRing(1, activeKey, loadedInAnotherOrder);
+
+        //THEN
+        assertThat(oneKeyRing.verificationKeys())
+                .extracting(JwtSigningKey::kid)
+                .containsExactly("2025-01", "2025-02", "2025-03");
+        assertThat(anotherKeyRing.verificationKeys())
+                .containsExactlyElementsOf(oneKeyRing.verificationKeys());
+    }
+
+
+    @Test
+    void findByKid_whenKidIsKnown_thenReturnsKey() {
+        //GIVEN
+        JwtSigningKey retiredKey = verificationOnlyKey("2025-01", firstKeyPair);
+        JwtKeyRing keyRing = new JwtKeyRing(1, signingKey("2025-02", secondKeyPair), Map.of(retiredKey.kid(), retiredKey));
+
+        //WHEN & THEN
+        assertThat(keyRing.findByKid("2025-01")).isSameAs(retiredKey);
+        assertThat(keyRing.findByKid("2025-02")).isSameAs(keyRing.activeKey());
+    }
+
+
+    @Test
+    void findByKid_whenKidIsUnknown_thenReturnsNull() {
+        //GIVEN
+        JwtKeyRing keyRing = JwtKeyRing.of(1, signingKey("2025-01", firstKeyPair));
+
+        //WHEN & THEN
+        assertThat(keyRing.findByKid("unknown")).isNull();
+    }
+
+
+    @Test
+    void keysById_isUnmodifiable() {
+        //GIVEN
+        JwtKeyRing keyRing = JwtKeyRing.of(1, signingKey("2025-01", firstKeyPair));
+
+        //WHEN & THEN
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> keyRing.keysById().clear());
+    }
+}
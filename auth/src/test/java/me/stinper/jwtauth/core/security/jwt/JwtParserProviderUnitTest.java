@@ -0,0 +1,116 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static me.stinper.jwtauth.testutils.JwtSigningKeySupport.*;
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Проверяет выбор ключа проверки подписи по заголовку {@code kid} токена
+ */
+@DisplayName("Unit Tests for JwtParserProvider class")
+class JwtParserProviderUnitTest {
+    private final KeyPair firstKeyPair = generateKeyPair(),
+            secondKeyPair = generateKeyPair();
+
+    private final AtomicReference<JwtKeyRing> keyRing = new AtomicReference<>();
+    private JwtParserProvider jwtParserProvider;
+
+    @BeforeEach
+    void setUp() {
+        this.keyRing.set(JwtKeyRing.of(1, signingKey("2025-01", firstKeyPair)));
+        this.jwtParserProvider = new JwtParserProvider(keyRing::get);
+    }
+
+
+    @Test
+    void parser_whenTokenKidIsActiveKey_thenVerifiesToken() {
+        //GIVEN
+        String token = signedToken(firstKeyPair, "2025-01");
+
+        //WHEN
+        Claims claims = jwtParserProvider.parser().parseSignedClaims(token).getPayload();
+
+        //THEN
+        assertThat(claims.getSubject()).isEqualTo("user");
+    }
+
+
+    @Test
+    void parser_whenKeyIsRotated_thenVerifiesTokensOfRetiredAndActiveKeys() {
+        //GIVEN
+        String issuedBeforeRotation = signedToken(firstKeyPair, "2025-01");
+
+        JwtSigningKey retiredKey = verificationOnlyKey("2025-01", firstKeyPair);
+        this.keyRing.set(new JwtKeyRing(2, signingKey("2025-02", secondKeyPair), Map.of(retiredKey.kid(), retiredKey)));
+
+        String issuedAfterRotation = signedToken(secondKeyPair, "2025-02");
+
+        //WHEN & THEN
+        assertThatNoException().isThrownBy(() -> jwtParserProvider.parser().parseSignedClaims(issuedBeforeRotation));
+        assertThatNoException().isThrownBy(() -> jwtParserProvider.parser().parseSignedClaims(issuedAfterRotation));
+    }
+
+
+    @Test
+    void parser_whenRetiredKeyIsRemovedFromKeyRing_thenRejectsItsTokens() {
+        //GIVEN
+        String issuedBeforeRotation = signedToken(firstKeyPair, "2025-01");
+
+        this.keyRing.set(JwtKeyRing.of(2, signingKey("2025-02", secondKeyPair)));
+
+        //WHEN & THEN
+        assertThatExceptionOfType(JwtException.class)
+                .isThrownBy(() -> jwtParserProvider.parser().parseSignedClaims(issuedBeforeRotation));
+    }
+
+
+    @Test
+    void parser_whenTokenKidIsUnknown_thenThrowsException() {
+        //GIVEN
+        String token = signedToken(firstKeyPair, "unknown");
+
+        //WHEN & THEN
+        assertThatExceptionOfType(JwtException.class)
+                .isThrownBy(() -> jwtParserProvider.parser().parseSignedClaims(token));
+    }
+
+
+    @Test
+    void parser_whenTokenIsSignedByAnotherKeyThanKid_thenThrowsException() {
+        //GIVEN
+        String token = signedToken(secondKeyPair, "2025-01");
+
+        //WHEN & THEN
+        assertThatExceptionOfType(JwtException.class)
+                .isThrownBy(() -> jwtParserProvider.parser().parseSignedClaims(token));
+    }
+
+
+    @Test
+    void parser_whenTokenHasNoKid_thenVerifiesWithActiveKey() {
+        //GIVEN
+        String token = signedToken(firstKeyPair, null);
+
+        //WHEN & THEN
+        assertThatNoException().isThrownBy(() -> jwtParserProvider.parser().parseSignedClaims(token));
+    }
+
+
+    private static String signedToken(KeyPair keyPair, String kid) {
+        return Jwts.builder()
+                .header().keyId(kid).and()
+                .subject("user")
+                .signWith(keyPair.getPrivate(), JwtSignatureAlgorithm.EdDSA.getSignatureAlgorithm())
+                .compact();
+    }
+}
@@ -0,0 +1,130 @@
+package me.stinper.jwtauth.core.security.jwt;
+
+import io.jsonwebtoken.ClaimsBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import me.stinper.jwtauth.core.security.jwt.service.JwtTokenType;
+import me.stinper.jwtauth.core.security.jwt.service.VerifiedJwt;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Unit Tests for TokenClaimsJwtPrincipalResolver class")
+class TokenClaimsJwtPrincipalResolverUnitTest {
+    private static final UUID USER_UUID = UUID.fromString("01955bac-754c-7d9c-887d-76e2426ddd71");
+    private static final String USER_EMAIL = "user@gmail.com";
+
+    private final TokenClaimsJwtPrincipalResolver principalResolver = new TokenClaimsJwtPrincipalResolver();
+
+
+    @Test
+    void resolvePrincipal_whenClaimsAreValid_thenMapsSubjectEmailAndAuthorities() {
+        //GIVEN
+        VerifiedJwt accessToken = accessToken(Jwts.claims()
+                .subject(USER_UUID.toString())
+                .add("email", USER_EMAIL)
+                .add("authorities", Map.of(
+                        "roles", List.of("ROLE_USER"),
+                        "permissions", List.of("user.read", "user.update")
+                ))
+        );
+
+        //WHEN
+        JwtAuthUserDetails principal = principalResolver.resolvePrincipal(accessToken);
+
+        //THEN
+        assertThat(principal).isInstanceOfSatisfying(JwtClaimsUserDetails.class, user -> {
+            assertThat(user.getUuid()).isEqualTo(USER_UUID);
+            assertThat(user.getUsername()).isEqualTo(USER_EMAIL);
+            assertThat(user.getRoles()).containsExactly("ROLE_USER");
+            assertThat(user.getPermissions()).containsExactlyInAnyOrder("user.read", "user.update");
+        });
+    }
+
+
+    @Test
+    void resolvePrincipal_whenAuthoritiesClaimIsMissing_thenReturnsUserWithoutAuthorities() {
+        //GIVEN
+        VerifiedJwt accessToken = accessToken(Jwts.claims()
+                .subject(USER_UUID.toString())
+                .add("email", USER_EMAIL)
+        );
+
+        //WHEN
+        JwtAuthUserDetails principal = principalResolver.resolvePrincipal(accessToken);
+
+        //THEN
+        assertThat(principal.getAuthorities()).isEmpty();
+    }
+
+
+    @Test
+    void resolvePrincipal_whenAuthoritiesClaimIsMalformed_thenIgnoresMalformedParts() {
+        //GIVEN
+        VerifiedJwt accessToken = accessToken(Jwts.claims()
+                .subject(USER_UUID.toString())
+                .add("email", USER_EMAIL)
+                .add("authorities", Map.of(
+                        "roles", "ROLE_USER",
+                        "permissions", Arrays.asList("user.read", null)
+                ))
+        );
+
+        //WHEN
+        JwtAuthUserDetails principal = principalResolver.resolvePrincipal(accessToken);
+
+        //THEN
+        assertThat(principal).isInstanceOfSatisfying(JwtClaimsUserDetails.class, user -> {
+            assertThat(user.getRoles()).isEmpty();
+            assertThat(user.getPermissions()).containsExactly("user.read");
+        });
+    }
+
+
+    @Test
+    void resolvePrincipal_whenSubjectIsMissing_thenThrowsException() {
+        //GIVEN
+        VerifiedJwt accessToken = accessToken(Jwts.claims().add("email", USER_EMAIL));
+
+        //WHEN & THEN
+        assertThatExceptionOfType(JwtException.class)
+                .isThrownBy(() -> principalResolver.resolvePrincipal(accessToken));
+    }
+
+
+    @Test
+    void resolvePrincipal_whenEmailIsMissing_thenThrowsException() {
+        //GIVEN
+        VerifiedJwt accessToken = accessToken(Jwts.claims().subject(USER_UUID.toString()));
+
+        //WHEN & THEN
+        assertThatExceptionOfType(JwtException.class)
+                .isThrownBy(() -> principalResolver.resolvePrincipal(accessToken));
+    }
+
+
+    @Test
+    void resolvePrincipal_whenSubjectIsNotUuid_thenThrowsException() {
+        //GIVEN
+        VerifiedJwt accessToken = accessToken(Jwts.claims()
+                .subject("not-a-uuid")
+                .add("email", USER_EMAIL)
+        );
+
+        //WHEN & THEN
+        assertThatExceptionOfType(JwtException.class)
+                .isThrownBy(() -> principalResolver.resolvePrincipal(accessToken))
+                .withCauseInstanceOf(IllegalArgumentException.class);
+    }
+
+
+    private static VerifiedJwt accessToken(ClaimsBuilder claims) {
+        return new VerifiedJwt("ACCESS_TOKEN", JwtTokenType.ACCESS, claims.add(JwtTokenType.CLAIM_NAME, "ACCESS").build());
+    }
+}
@@ -0,0 +1,157 @@
+package me.stinper.jwtauth.core.security.jwt.cache;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.stinper.jwtauth.core.security.jwt.service.JwtTokenType;
+import me.stinper.jwtauth.core.security.jwt.service.VerifiedJwt;
+import me.stinper.jwtauth.utils.TokenDigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Unit Tests for CaffeineVerifiedJwtCache class")
+class CaffeineVerifiedJwtCacheUnitTest {
+    private final AtomicLong tickerNanos = new AtomicLong();
+
+    private CaffeineVerifiedJwtCache verifiedJwtCache;
+
+    @BeforeEach
+    void setUp() {
+        this.verifiedJwtCache = new CaffeineVerifiedJwtCache(100, new SimpleMeterRegistry(), tickerNanos::get, TokenDigestUtils::sha256);
+    }
+
+
+    @Test
+    void get_whenAccessTokenWasPut_thenReturnsSameToken() {
+        //GIVEN
+        VerifiedJwt accessToken = verifiedJwt("ACCESS_TOKEN", JwtTokenType.ACCESS, Duration.ofMinutes(5));
+
+        //WHEN
+        verifiedJwtCache.put(accessToken);
+
+        //THEN
+        assertThat(verifiedJwtCache.get("ACCESS_TOKEN")).isSameAs(accessToken);
+    }
+
+
+    @Test
+    void get_whenTokenExpirationPassed_thenReturnsNull() {
+        //GIVEN
+        VerifiedJwt accessToken = verifiedJwt("ACCESS_TOKEN", JwtTokenType.ACCESS, Duration.ofSeconds(60));
+
+        verifiedJwtCache.put(accessToken);
+
+        //WHEN
+        this.advance(Duration.ofSeconds(55));
+        VerifiedJwt beforeExpiration = verifiedJwtCache.get("ACCESS_TOKEN");
+
+        this.advance(Duration.ofSeconds(10));
+        VerifiedJwt afterExpiration = verifiedJwtCache.get("ACCESS_TOKEN");
+
+        //THEN
+        assertThat(beforeExpiration).isSameAs(accessToken);
+        assertThat(afterExpiration).isNull();
+    }
+
+
+    @Test
+    void put_whenTokenIsAlreadyExpired_thenTokenIsNotReturned() {
+        //GIVEN
+        VerifiedJwt expiredToken = verifiedJwt("ACCESS_TOKEN", JwtTokenType.ACCESS, Duration.ofSeconds(-1));
+
+        //WHEN
+        verifiedJwtCache.put(expiredToken);
+
+        //THEN
+        assertThat(verifiedJwtCache.get("ACCESS_TOKEN")).isNull();
+    }
+
+
+    @Test
+    void put_whenTokenIsRefreshToken_thenTokenIsNotCached() {
+        //GIVEN
+        VerifiedJwt refreshToken = verifiedJwt("REFRESH_TOKEN", JwtTokenType.REFRESH, Duration.ofDays(14));
+
+        //WHEN
+        verifiedJwtCache.put(refreshToken);
+
+        //THEN
+        assertThat(verifiedJwtCache.get("REFRESH_TOKEN")).isNull();
+    }
+
+
+    @Test
+    void put_whenTokenHasNoExpiration_thenTokenIsNotCached() {
+        //GIVEN
+        VerifiedJwt tokenWithoutExpiration = new VerifiedJwt(
+                "ACCESS_TOKEN",
+                JwtTokenType.ACCESS,
+                Jwts.claims().add(JwtTokenType.CLAIM_NAME, JwtTokenType.ACCESS.name()).build()
+        );
+
+        //WHEN
+        verifiedJwtCache.put(tokenWithoutExpiration);
+
+        //THEN
+        assertThat(verifiedJwtCache.get("ACCESS_TOKEN")).isNull();
+    }
+
+
+    @Test
+    void get_whenAnotherTokenHasSameDigest_thenReturnsNull() {
+        //GIVEN
+        CaffeineVerifiedJwtCache collidingCache = new CaffeineVerifiedJwtCache(
+                100, new SimpleMeterRegistry(), tickerNanos::get, token -> new byte[] {42}
+        );
+
+        VerifiedJwt accessToken = verifiedJwt("ACCESS_TOKEN", JwtTokenType.ACCESS, Duration.ofMinutes(5));
+
+        collidingCache.put(accessToken);
+
+        //WHEN
+        VerifiedJwt collidingToken = collidingCache.get("ANOTHER_ACCESS_TOKEN");
+
+        //THEN
+        assertThat(collidingToken).isNull();
+        assertThat(collidingCache.get("ACCESS_TOKEN")).isSameAs(accessToken);
+    }
+
+
+    @Test
+    void invalidateAll_removesAllTokens() {
+        //GIVEN
+        verifiedJwtCache.put(verifiedJwt("FIRST_ACCESS_TOKEN", JwtTokenType.ACCESS, Duration.ofMinutes(5)));
+        verifiedJwtCache.put(verifiedJwt("SECOND_ACCESS_TOKEN", JwtTokenType.ACCESS, Duration.ofMinutes(5)));
+
+        //WHEN
+        verifiedJwtCache.invalidateAll();
+
+        //THEN
+        assertThat(verifiedJwtCache.get("FIRST_ACCESS_TOKEN")).isNull();
+        assertThat(verifiedJwtCache.get("SECOND_ACCESS_TOKEN")).isNull();
+    }
+
+
+    private void advance(Duration duration) {
+        this.tickerNanos.addAndGet(duration.toNanos());
+    }
+
+    private static VerifiedJwt verifiedJwt(String token, JwtTokenType type, Duration expiresIn) {
+        return new VerifiedJwt(
+                token,
+                type,
+                Jwts.claims()
+                        .subject("01955bac-754c-7d9c-887d-76e2426ddd71")
+                        .expiration(Date.from(Instant.now().plus(expiresIn)))
+                        .add(JwtTokenType.CLAIM_NAME, type.name())
+                        .build()
+        );
+    }
+}
@@ -0,0 +1,141 @@
+package me.stinper.jwtauth.core.security.jwt.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jws;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import me.stinper.jwtauth.core.security.jwt.JwtParserProvider;
+import me.stinper.jwtauth.core.security.jwt.cache.VerifiedJwtCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit Tests for JwtVerificationServiceImpl class")
+class JwtVerificationServiceImplUnitTest {
+    private static final String TOKEN = "header.payload.signature";
+
+    @Mock private JwtParserProvider jwtParserProvider;
+    @Mock private VerifiedJwtCache verifiedJwtCache;
+    @Mock private UnverifiedJwtPrecheck unverifiedJwtPrecheck;
+
+    @InjectMocks
+    private JwtVerificationServiceImpl jwtVerificationService;
+
+
+    @Test
+    @DisplayName("[#verifyToken]: Checks that a cached token of another type is rejected without verifying the signature again")
+    void verifyToken_whenCachedTokenHasUnexpectedType_thenThrowsException() {
+        //GIVEN
+        VerifiedJwt cachedRefreshToken = new VerifiedJwt(TOKEN, JwtTokenType.REFRESH, claims(JwtTokenType.REFRESH.name()));
+
+        when(verifiedJwtCache.get(TOKEN)).thenReturn(cachedRefreshToken);
+
+        //WHEN & THEN
+        assertThatExceptionOfType(JwtException.class)
+                .isThrownBy(() -> jwtVerificationService.verifyToken(TOKEN, JwtTokenType.ACCESS));
+
+        verifyNoInteractions(unverifiedJwtPrecheck, jwtParserProvider);
+        verify(verifiedJwtCache, never()).put(any());
+    }
+
+
+    @Test
+    @DisplayName("[#verifyToken]: Checks that a cached token of the expected type is returned without verifying the signature again")
+    void verifyToken_whenCachedTokenHasExpectedType_thenReturnsCachedToken() {
+        //GIVEN
+        VerifiedJwt cachedAccessToken = new VerifiedJwt(TOKEN, JwtTokenType.ACCESS, claims(JwtTokenType.ACCESS.name()));
+
+        when(verifiedJwtCache.get(TOKEN)).thenReturn(cachedAccessToken);
+
+        //WHEN
+        VerifiedJwt verifiedJwt = jwtVerificationService.verifyToken(TOKEN, JwtTokenType.ACCESS);
+
+        //THEN
+        assertThat(verifiedJwt).isSameAs(cachedAccessToken);
+
+        verifyNoInteractions(unverifiedJwtPrecheck, jwtParserProvider);
+    }
+
+
+    @Test
+    @DisplayName("[#verifyToken]: Checks that on a cache miss the token is prechecked, verified and then put into the cache")
+    void verifyToken_whenTokenIsNotCached_thenVerifiesAndCachesToken() {
+        //GIVEN
+        Claims claims = claims(JwtTokenType.ACCESS.name());
+
+        when(verifiedJwtCache.get(TOKEN)).thenReturn(null);
+        this.mockParserToReturn(claims);
+
+        //WHEN
+        VerifiedJwt verifiedJwt = jwtVerificationService.verifyToken(TOKEN, JwtTokenType.ACCESS);
+
+        //THEN
+        assertThat(verifiedJwt.token()).isEqualTo(TOKEN);
+        assertThat(verifiedJwt.type()).isEqualTo(JwtTokenType.ACCESS);
+        assertThat(verifiedJwt.claims()).isSameAs(claims);
+
+        var inOrder = inOrder(unverifiedJwtPrecheck, jwtParserProvider, verifiedJwtCache);
+        inOrder.verify(unverifiedJwtPrecheck).check(TOKEN, JwtTokenType.ACCESS);
+        inOrder.verify(jwtParserProvider).parser();
+        inOrder.verify(verifiedJwtCache).put(verifiedJwt);
+    }
+
+
+    @Test
+    @DisplayName("[#verifyToken]: Checks that a token without the 'type' claim is rejected and is not cached")
+    void verifyToken_whenTokenHasNoTypeClaim_thenThrowsException() {
+        //GIVEN
+        when(verifiedJwtCache.get(TOKEN)).thenReturn(null);
+        this.mockParserToReturn(claims(null));
+
+        //WHEN & THEN
+        assertThatExceptionOfType(JwtException.class)
+                .isThrownBy(() -> jwtVerificationService.verifyToken(TOKEN, JwtTokenType.ACCESS));
+
+        verify(verifiedJwtCache, never()).put(any());
+    }
+
+
+    @Test
+    @DisplayName("[#verifyToken]: Checks that a verified token of another type is rejected and is not cached")
+    void verifyToken_whenVerifiedTokenHasUnexpectedType_thenThrowsException() {
+        //GIVEN
+        when(verifiedJwtCache.get(TOKEN)).thenReturn(null);
+        this.mockParserToReturn(claims(JwtTokenType.REFRESH.name()));
+
+        //WHEN & THEN
+        assertThatExceptionOfType(JwtException.class)
+                .isThrownBy(() -> jwtVerificationService.verifyToken(TOKEN, JwtTokenType.ACCESS));
+
+        verify(verifiedJwtCache, never()).put(any());
+    }
+
+
+    @SuppressWarnings("unchecked")
+    private void mockParserToReturn(Claims claims) {
+        JwtParser jwtParser = mock(JwtParser.class);
+        Jws<Claims> jws = mock(Jws.class);
+
+        when(jwtParserProvider.parser()).thenReturn(jwtParser);
+        when(jwtParser.parseSignedClaims(TOKEN)).thenReturn(jws);
+        when(jws.getPayload()).thenReturn(claims);
+    }
+
+    private static Claims claims(String type) {
+        return Jwts.claims()
+                .subject("user@gmail.com")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .add(JwtTokenType.CLAIM_NAME, type)
+                .build();
+    }
+}
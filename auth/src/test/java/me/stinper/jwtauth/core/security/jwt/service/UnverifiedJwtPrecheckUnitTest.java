@@ -0,0 +1,161 @@
+package me.stinper.jwtauth.core.security.jwt.service;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureAlgorithm;
+import me.stinper.jwtauth.testutils.JwtSigningKeySupport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Предварительная проверка может только отклонить токен. Во всех остальных случаях (в том числе при невозможности
+ * декодировать полезную нагрузку) метод должен завершиться без исключения, оставляя решение полной верификации
+ */
+@DisplayName("Unit Tests for UnverifiedJwtPrecheck class")
+class UnverifiedJwtPrecheckUnitTest {
+    private static final String ENCODED_HEADER = encode("{\"alg\":\"EdDSA\"}");
+
+    private MeterRegistry meterRegistry;
+    private UnverifiedJwtPrecheck unverifiedJwtPrecheck;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.unverifiedJwtPrecheck = new UnverifiedJwtPrecheck(meterRegistry);
+    }
+
+
+    @Test
+    void check_whenTokenIsExpired_thenThrowsExpiredJwtException() {
+        //GIVEN
+        String token = unsignedToken(String.format(
+                "{\"sub\":\"user\",\"exp\":%d,\"type\":\"ACCESS\"}", Instant.now().minusSeconds(60).getEpochSecond()
+        ));
+
+        //WHEN & THEN
+        assertThatExceptionOfType(ExpiredJwtException.class)
+                .isThrownBy(() -> unverifiedJwtPrecheck.check(token, JwtTokenType.ACCESS));
+
+        assertThat(skippedVerifications("expired")).isEqualTo(1);
+        assertThat(skippedVerifications("unexpected-type")).isZero();
+    }
+
+
+    @Test
+    void check_whenTokenHasUnexpectedType_thenThrowsJwtException() {
+        //GIVEN
+        String token = unsignedToken(String.format(
+                "{\"sub\":\"user\",\"exp\":%d,\"type\":\"REFRESH\"}", Instant.now().plusSeconds(60).getEpochSecond()
+        ));
+
+        //WHEN & THEN
+        assertThatExceptionOfType(JwtException.class)
+                .isThrownBy(() -> unverifiedJwtPrecheck.check(token, JwtTokenType.ACCESS))
+                .isNotInstanceOf(ExpiredJwtException.class);
+
+        assertThat(skippedVerifications("unexpected-type")).isEqualTo(1);
+    }
+
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "not-a-jwt",
+            "header.%%%not-base64%%%.signature",
+            "header..signature"
+    })
+    void check_whenPayloadCannotBeDecoded_thenLeavesDecisionToFullVerification(String token) {
+        //WHEN & THEN
+        assertThatNoException().isThrownBy(() -> unverifiedJwtPrecheck.check(token, JwtTokenType.ACCESS));
+
+        assertThat(skippedVerifications("expired") + skippedVerifications("unexpected-type")).isZero();
+    }
+
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"sub\":\"user\",",
+            "[\"ACCESS\"]",
+            "\"ACCESS\"",
+            "{\"exp\":\"tomorrow\",\"type\":42}"
+    })
+    void check_whenPayloadIsNotExpectedJson_thenLeavesDecisionToFullVerification(String payload) {
+        //GIVEN
+        String token = unsignedToken(payload);
+
+        //WHEN & THEN
+        assertThatNoException().isThrownBy(() -> unverifiedJwtPrecheck.check(token, JwtTokenType.ACCESS));
+    }
+
+
+    @Test
+    void check_whenExpAndTypeAreMissing_thenLeavesDecisionToFullVerification() {
+        //GIVEN
+        String token = unsignedToken("{\"sub\":\"user\",\"authorities\":{\"roles\":[\"ROLE_USER\"]}}");
+
+        //WHEN & THEN
+        assertThatNoException().isThrownBy(() -> unverifiedJwtPrecheck.check(token, JwtTokenType.ACCESS));
+    }
+
+
+    @Test
+    void check_whenNestedObjectContainsExpAndType_thenIgnoresThem() {
+        //GIVEN
+        String token = unsignedToken(String.format(
+                "{\"nested\":{\"exp\":%d,\"type\":\"REFRESH\"},\"type\":\"ACCESS\"}",
+                Instant.now().minusSeconds(60).getEpochSecond()
+        ));
+
+        //WHEN & THEN
+        assertThatNoException().isThrownBy(() -> unverifiedJwtPrecheck.check(token, JwtTokenType.ACCESS));
+    }
+
+
+    @Test
+    void check_whenTokenIsValidAndSigned_thenPassesToFullVerification() {
+        //GIVEN
+        String token = Jwts.builder()
+                .subject("user")
+                .expiration(Date.from(Instant.now().plus(Duration.ofMinutes(5))))
+                .claim(JwtTokenType.CLAIM_NAME, JwtTokenType.ACCESS.name())
+                .signWith(
+                        JwtSigningKeySupport.generateKeyPair().getPrivate(),
+                        JwtSignatureAlgorithm.EdDSA.getSignatureAlgorithm()
+                )
+                .compact();
+
+        //WHEN & THEN
+        assertThatNoException().isThrownBy(() -> unverifiedJwtPrecheck.check(token, JwtTokenType.ACCESS));
+
+        assertThat(skippedVerifications("expired") + skippedVerifications("unexpected-type")).isZero();
+    }
+
+
+    private double skippedVerifications(String reason) {
+        return meterRegistry.get(UnverifiedJwtPrecheck.SKIPPED_VERIFICATIONS_METRIC)
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+
+    private static String unsignedToken(String payload) {
+        return ENCODED_HEADER + "." + encode(payload) + ".signature";
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
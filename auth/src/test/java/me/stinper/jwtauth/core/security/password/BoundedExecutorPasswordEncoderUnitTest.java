@@ -0,0 +1,158 @@
+package me.stinper.jwtauth.core.security.password;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.stinper.commons.api.response.Problem;
+import me.stinper.jwtauth.exception.PasswordHashingOverloadedException;
+import me.stinper.jwtauth.exception.handler.CommonExceptionsHandler;
+import me.stinper.jwtauth.utils.MessageSourceHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DisplayName("Unit Tests for BoundedExecutorPasswordEncoder class")
+class BoundedExecutorPasswordEncoderUnitTest {
+    private final CountDownLatch hashingStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseHashing = new CountDownLatch(1);
+
+    private MeterRegistry meterRegistry;
+    private BoundedExecutorPasswordEncoder passwordEncoder;
+
+    @BeforeEach
+    void setUp() {
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.passwordEncoder = new BoundedExecutorPasswordEncoder(new BlockingPasswordEncoder(), 1, 1, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseHashing.countDown();
+        passwordEncoder.close();
+    }
+
+
+    @Test
+    void encode_whenExecutorHasCapacity_thenReturnsDelegateResult() {
+        //GIVEN
+        releaseHashing.countDown();
+
+        //WHEN
+        String encodedPassword = passwordEncoder.encode("password");
+
+        //THEN
+        assertThat(encodedPassword).isEqualTo("{hashed}password");
+        assertThat(passwordEncoder.matches("password", encodedPassword)).isTrue();
+        assertThat(rejectedOperations()).isZero();
+    }
+
+
+    @Test
+    void encode_whenThreadAndQueueAreBusy_thenRejectsOperationImmediately() throws Exception {
+        //GIVEN
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("running"));
+        assertThat(hashingStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> passwordEncoder.encode("queued"));
+        await(() -> this.queueSize() == 1);
+
+        //WHEN & THEN
+        assertThatExceptionOfType(PasswordHashingOverloadedException.class)
+                .isThrownBy(() -> passwordEncoder.matches("rejected", "{hashed}rejected"))
+                .satisfies(ex -> assertThat(ex.getErrorMessageCode()).isEqualTo("messages.password-hashing.overloaded"));
+
+        assertThat(rejectedOperations()).isEqualTo(1);
+
+        releaseHashing.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("{hashed}running");
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("{hashed}queued");
+    }
+
+
+    @Test
+    void encode_whenOperationIsRejected_thenCallerReceives503WithRetryAfter() throws Exception {
+        //GIVEN
+        CommonExceptionsHandler exceptionsHandler = new CommonExceptionsHandler(mock(MessageSourceHelper.class));
+
+        CompletableFuture.runAsync(() -> passwordEncoder.encode("running"));
+        assertThat(hashingStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture.runAsync(() -> passwordEncoder.encode("queued"));
+        await(() -> this.queueSize() == 1);
+
+        PasswordHashingOverloadedException rejection = catchThrowableOfType(
+                PasswordHashingOverloadedException.class, () -> passwordEncoder.matches("rejected", "{hashed}rejected")
+        );
+
+        //WHEN
+        ResponseEntity<Problem> directResponse = exceptionsHandler.handlePasswordHashingOverloadedException(rejection);
+        ResponseEntity<Problem> authenticationResponse = exceptionsHandler.handleInternalAuthenticationServiceException(
+                new InternalAuthenticationServiceException("", rejection)
+        );
+
+        //THEN
+        assertThat(rejection).isNotNull();
+        assertThat(directResponse.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(directResponse.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(authenticationResponse.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(authenticationResponse.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    }
+
+
+    private double rejectedOperations() {
+        return meterRegistry.get(BoundedExecutorPasswordEncoder.REJECTED_COUNTER_NAME).counter().count();
+    }
+
+    private double queueSize() {
+        return meterRegistry.get("executor.queued")
+                .tag("name", BoundedExecutorPasswordEncoder.EXECUTOR_NAME)
+                .gauge()
+                .value();
+    }
+
+    private static void await(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline)
+                fail("Условие не выполнилось за 5 секунд");
+
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Имитирует длительное хэширование: операция не завершается, пока тест ее не отпустит
+     */
+    private class BlockingPasswordEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            hashingStarted.countDown();
+
+            try {
+                releaseHashing.await();
+            }
+            catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+
+            return "{hashed}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return this.encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package me.stinper.jwtauth.core.security.password;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Unit Tests for CalibratedPasswordEncoderFactory class")
+class CalibratedPasswordEncoderFactoryUnitTest {
+    private static final String RAW_PASSWORD = "Password-123";
+
+    /**
+     * Время хэширования фиктивного кодировщика на единицу стоимости. Шаг выбран заметно больше погрешности
+     * {@link Thread#sleep(long)}, чтобы результат калибровки не зависел от загрузки машины
+     */
+    private static final long HASH_MILLIS_PER_COST = 40;
+
+
+    @Test
+    @DisplayName("[#calibrate]: Checks that the largest cost whose hashing time fits into the latency budget is selected")
+    void calibrate_whenBudgetFitsSeveralCosts_thenSelectsLargestCostWithinBudget() {
+        //GIVEN
+        Duration latencyBudget = Duration.ofMillis(HASH_MILLIS_PER_COST * 3 + HASH_MILLIS_PER_COST / 2);
+
+        //WHEN
+        int cost = CalibratedPasswordEncoderFactory.calibrate(
+                "test cost", 1, 10, latencyBudget, SleepingPasswordEncoder::new
+        );
+
+        //THEN
+        assertThat(cost).isEqualTo(3);
+        assertThat(Duration.ofMillis(HASH_MILLIS_PER_COST * cost)).isLessThanOrEqualTo(latencyBudget);
+    }
+
+
+    @Test
+    @DisplayName("[#calibrate]: Checks that the maximum cost is selected when every cost fits into the latency budget")
+    void calibrate_whenBudgetFitsEveryCost_thenSelectsMaxCost() {
+        //GIVEN
+        Duration latencyBudget = Duration.ofSeconds(10);
+
+        //WHEN
+        int cost = CalibratedPasswordEncoderFactory.calibrate(
+                "test cost", 1, 2, latencyBudget, SleepingPasswordEncoder::new
+        );
+
+        //THEN
+        assertThat(cost).isEqualTo(2);
+    }
+
+
+    @Test
+    @DisplayName("[#calibrate]: Checks that the cost never drops below the minimum even if the minimum exceeds the latency budget")
+    void calibrate_whenMinCostExceedsBudget_thenSelectsMinCost() {
+        //GIVEN
+        Duration latencyBudget = Duration.ofMillis(1);
+
+        //WHEN
+        int cost = CalibratedPasswordEncoderFactory.calibrate(
+                "test cost", 2, 10, latencyBudget, SleepingPasswordEncoder::new
+        );
+
+        //THEN
+        assertThat(cost).isEqualTo(2);
+    }
+
+
+    @Test
+    @DisplayName("[#create]: Checks that BCrypt hashes are created with the calibrated strength and a stored hash with a lower strength is marked for upgrade")
+    void create_whenBcryptIsSelected_thenLowerStrengthHashesRequireUpgrade() {
+        //GIVEN
+        PasswordEncoder passwordEncoder = CalibratedPasswordEncoderFactory.create(
+                PasswordHashingAlgorithm.BCRYPT, Duration.ofMillis(1)
+        );
+        String outdatedHash = "{bcrypt}" + new BCryptPasswordEncoder(4).encode(RAW_PASSWORD);
+        String legacyUnprefixedHash = new BCryptPasswordEncoder(4).encode(RAW_PASSWORD);
+
+        //WHEN
+        String currentHash = passwordEncoder.encode(RAW_PASSWORD);
+
+        //THEN
+        assertThat(currentHash).startsWith("{bcrypt}$2a$%02d$".formatted(CalibratedPasswordEncoderFactory.MIN_BCRYPT_STRENGTH));
+        assertThat(passwordEncoder.upgradeEncoding(currentHash)).isFalse();
+
+        assertThat(passwordEncoder.matches(RAW_PASSWORD, outdatedHash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(outdatedHash)).isTrue();
+
+        assertThat(passwordEncoder.matches(RAW_PASSWORD, legacyUnprefixedHash)).isTrue();
+        assertThat(passwordEncoder.upgradeEncoding(legacyUnprefixedHash)).isTrue();
+    }
+
+
+    /**
+     * Кодировщик, время хэширования которого пропорционально стоимости
+     */
+    private record SleepingPasswordEncoder(int cost) implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            try {
+                Thread.sleep(HASH_MILLIS_PER_COST * cost);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package me.stinper.jwtauth.mapping.impl;
+
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureAlgorithm;
+import me.stinper.jwtauth.core.security.jwt.JwtSigningKey;
+import me.stinper.jwtauth.dto.JwksDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Unit Tests for JwkMapperImpl class")
+class JwkMapperImplUnitTest {
+    private JwkMapperImpl jwkMapper;
+
+    @BeforeEach
+    void setUp() {
+        this.jwkMapper = new JwkMapperImpl();
+    }
+
+    @Test
+    void toKeyBody_whenRsaKey_thenReturnsUnsignedModulusAndExponent() throws Exception {
+        //GIVEN
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        RSAPublicKey publicKey = (RSAPublicKey) keyPairGenerator.generateKeyPair().getPublic();
+
+        //WHEN
+        JwksDto.KeyBody keyBody = jwkMapper.toKeyBody(new JwtSigningKey("key-1", JwtSignatureAlgorithm.RS256, publicKey, null));
+
+        //THEN
+        assertThat(keyBody.getKty()).isEqualTo("RSA");
+        assertThat(keyBody.getKid()).isEqualTo("key-1");
+        assertThat(keyBody.getAlg()).isEqualTo("RS256");
+        assertThat(decode(keyBody.getN())).hasSize(256);
+        assertThat(new BigInteger(1, decode(keyBody.getN()))).isEqualTo(publicKey.getModulus());
+        assertThat(new BigInteger(1, decode(keyBody.getE()))).isEqualTo(publicKey.getPublicExponent());
+        assertThat(keyBody.getCrv()).isNull();
+        assertThat(keyBody.getX()).isNull();
+        assertThat(keyBody.getY()).isNull();
+    }
+
+    @Test
+    void toKeyBody_whenEcKey_thenReturnsFixedLengthCoordinates() throws Exception {
+        //GIVEN
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        ECPublicKey publicKey = (ECPublicKey) keyPairGenerator.generateKeyPair().getPublic();
+
+        //WHEN
+        JwksDto.KeyBody keyBody = jwkMapper.toKeyBody(new JwtSigningKey("key-1", JwtSignatureAlgorithm.ES256, publicKey, null));
+
+        //THEN
+        assertThat(keyBody.getKty()).isEqualTo("EC");
+        assertThat(keyBody.getKid()).isEqualTo("key-1");
+        assertThat(keyBody.getAlg()).isEqualTo("ES256");
+        assertThat(keyBody.getCrv()).isEqualTo("P-256");
+        assertThat(decode(keyBody.getX())).hasSize(32);
+        assertThat(decode(keyBody.getY())).hasSize(32);
+        assertThat(new BigInteger(1, decode(keyBody.getX()))).isEqualTo(publicKey.getW().getAffineX());
+        assertThat(new BigInteger(1, decode(keyBody.getY()))).isEqualTo(publicKey.getW().getAffineY());
+        assertThat(keyBody.getN()).isNull();
+        assertThat(keyBody.getE()).isNull();
+    }
+
+    @Test
+    void toKeyBody_whenEd25519Key_thenReturnsRawPublicKey() throws Exception {
+        //GIVEN
+        PublicKey publicKey = KeyPairGenerator.getInstance("Ed25519").generateKeyPair().getPublic();
+        byte[] encodedKey = publicKey.getEncoded();
+
+        //WHEN
+        JwksDto.KeyBody keyBody = jwkMapper.toKeyBody(new JwtSigningKey("key-1", JwtSignatureAlgorithm.EdDSA, publicKey, null));
+
+        //THEN
+        assertThat(keyBody.getKty()).isEqualTo("OKP");
+        assertThat(keyBody.getKid()).isEqualTo("key-1");
+        assertThat(keyBody.getAlg()).isEqualTo("EdDSA");
+        assertThat(keyBody.getCrv()).isEqualTo("Ed25519");
+        assertThat(decode(keyBody.getX())).isEqualTo(Arrays.copyOfRange(encodedKey, encodedKey.length - 32, encodedKey.length));
+        assertThat(keyBody.getY()).isNull();
+    }
+
+    private static byte[] decode(String base64Url) {
+        assertThat(base64Url).doesNotContain("=");
+        return Base64.getUrlDecoder().decode(base64Url);
+    }
+}
@@ -0,0 +1,156 @@
+package me.stinper.jwtauth.repository;
+
+import me.stinper.jwtauth.core.idempotency.JpaIdempotencyStore;
+import me.stinper.jwtauth.entity.IdempotencyKey;
+import me.stinper.jwtauth.entity.IdempotencyKeyStatus;
+import me.stinper.jwtauth.testutils.TestContainersUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED) //Каждый вызов репозитория фиксируется в собственной транзакции
+@Import(JpaIdempotencyStore.class)
+class IdempotencyKeyRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = TestContainersUtils.initPostgreSQLContainer();
+
+    @Autowired
+    IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Autowired
+    JpaIdempotencyStore jpaIdempotencyStore;
+
+    @Test
+    void insertIfAbsent_whenKeyIsClaimedTwice_thenOnlyFirstCallClaimsKey() {
+        //GIVEN
+        final UUID key = UUID.randomUUID();
+        final Instant notBefore = Instant.now().minus(Duration.ofMinutes(20));
+
+        //WHEN
+        Optional<Long> firstClaim = idempotencyKeyRepository.insertIfAbsent(key, Instant.now(), notBefore);
+        Optional<Long> secondClaim = idempotencyKeyRepository.insertIfAbsent(key, Instant.now(), notBefore);
+
+        //THEN
+        assertThat(firstClaim).isPresent();
+        assertThat(secondClaim).isEmpty();
+        assertThat(idempotencyKeyRepository.findByKey(key, notBefore))
+                .hasValueSatisfying(k -> {
+                    assertThat(k.getStatus()).isEqualTo(IdempotencyKeyStatus.PENDING);
+                    assertThat(k.getResponsePayload()).isNull();
+                });
+    }
+
+    @Test
+    void insertIfAbsent_whenKeyWasIssuedBeforeRetentionWindow_thenClaimsKeyAgain() {
+        //GIVEN
+        final UUID key = UUID.randomUUID();
+        final Instant now = Instant.now();
+        idempotencyKeyRepository.insertIfAbsent(key, now.minus(Duration.ofMinutes(30)), now.minus(Duration.ofMinutes(40)));
+
+        //WHEN
+        Optional<Long> claim = idempotencyKeyRepository.insertIfAbsent(key, now, now.minus(Duration.ofMinutes(20)));
+
+        //THEN
+        assertThat(claim).isPresent();
+        assertThat(idempotencyKeyRepository.findByKey(key, now.minus(Duration.ofMinutes(20))))
+                .hasValueSatisfying(k -> assertThat(k.getId()).isEqualTo(claim.get()));
+    }
+
+    @Test
+    void claim_whenKeyIsClaimedConcurrently_thenExactlyOneCallClaimsKey() throws Exception {
+        //GIVEN
+        final UUID key = UUID.randomUUID();
+        final int threads = 16;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> claims = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++)
+                claims.add(executor.submit(() -> {
+                    start.await();
+                    return jpaIdempotencyStore.claim(key, Instant.now());
+                }));
+
+            //WHEN
+            start.countDown();
+
+            //THEN
+            long successfulClaims = 0;
+            for (Future<Boolean> claim : claims)
+                if (claim.get(10, TimeUnit.SECONDS))
+                    successfulClaims++;
+
+            assertThat(successfulClaims).isEqualTo(1);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void complete_whenKeyIsPending_thenStoresResponseData() {
+        //GIVEN
+        final UUID key = UUID.randomUUID();
+        final Instant notBefore = Instant.now().minus(Duration.ofMinutes(20));
+        idempotencyKeyRepository.insertIfAbsent(key, Instant.now(), notBefore);
+
+        //WHEN
+        int firstCompletion = idempotencyKeyRepository.complete(key, notBefore, new byte[] {1}, "application/json");
+        int secondCompletion = idempotencyKeyRepository.complete(key, notBefore, new byte[] {2}, "application/json");
+
+        //THEN
+        assertThat(firstCompletion).isEqualTo(1);
+        assertThat(secondCompletion).isZero();
+
+        IdempotencyKey idempotencyKey = idempotencyKeyRepository.findByKey(key, notBefore).orElseThrow();
+        assertThat(idempotencyKey.getStatus()).isEqualTo(IdempotencyKeyStatus.COMPLETED);
+        assertThat(idempotencyKey.getResponsePayload()).containsExactly(1);
+        assertThat(idempotencyKey.getContentType()).isEqualTo("application/json");
+    }
+
+    @Test
+    void release_whenKeyIsCompleted_thenKeepsKey() {
+        //GIVEN
+        final UUID pendingKey = UUID.randomUUID(), completedKey = UUID.randomUUID();
+        final Instant notBefore = Instant.now().minus(Duration.ofMinutes(20));
+
+        idempotencyKeyRepository.insertIfAbsent(pendingKey, Instant.now(), notBefore);
+        idempotencyKeyRepository.insertIfAbsent(completedKey, Instant.now(), notBefore);
+        idempotencyKeyRepository.complete(completedKey, notBefore, new byte[] {1}, "application/json");
+
+        //WHEN
+        int releasedPending = idempotencyKeyRepository.release(pendingKey, notBefore);
+        int releasedCompleted = idempotencyKeyRepository.release(completedKey, notBefore);
+
+        //THEN
+        assertThat(releasedPending).isEqualTo(1);
+        assertThat(releasedCompleted).isZero();
+        assertThat(idempotencyKeyRepository.findByKey(pendingKey, notBefore)).isEmpty();
+        assertThat(idempotencyKeyRepository.findByKey(completedKey, notBefore)).isPresent();
+    }
+}
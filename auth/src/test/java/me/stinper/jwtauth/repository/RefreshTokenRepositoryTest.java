@@ -0,0 +1,191 @@
+package me.stinper.jwtauth.repository;
+
+import me.stinper.jwtauth.entity.RefreshToken;
+import me.stinper.jwtauth.entity.User;
+import me.stinper.jwtauth.testutils.TestContainersUtils;
+import me.stinper.jwtauth.utils.TokenDigestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class RefreshTokenRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = TestContainersUtils.initPostgreSQLContainer();
+
+    @Autowired
+    RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        this.user = userRepository.save(
+                User.builder()
+                        .email("user@gmail.com")
+                        .password("123")
+                        .roles(Collections.emptySet())
+                        .build()
+        );
+    }
+
+    @Test
+    void findByTokenHash_whenTokenIsStored_thenReturnsTokenWithUser() {
+        //GIVEN
+        final String token = "header.payload.signature";
+
+        refreshTokenRepository.save(
+                RefreshToken.builder()
+                        .user(user)
+                        .tokenHash(TokenDigestUtils.sha256(token))
+                        .familyId(UUID.randomUUID())
+                        .expiresAt(Instant.now().plus(Duration.ofDays(14)))
+                        .build()
+        );
+
+        //WHEN
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(TokenDigestUtils.sha256(token)).orElse(null);
+
+        //THEN
+        assertThat(refreshToken).isNotNull();
+        assertThat(refreshToken.getTokenHash()).hasSize(32);
+        assertThat(refreshToken.getUser().getEmail()).isEqualTo(user.getEmail());
+    }
+
+    @Test
+    void findByTokenHash_whenTokenIsNotStored_thenReturnsEmptyOptional() {
+        //GIVEN
+        refreshTokenRepository.save(
+                RefreshToken.builder()
+                        .user(user)
+                        .tokenHash(TokenDigestUtils.sha256("stored.refresh.token"))
+                        .familyId(UUID.randomUUID())
+                        .expiresAt(Instant.now().plus(Duration.ofDays(14)))
+                        .build()
+        );
+
+        //WHEN & THEN
+        assertThat(refreshTokenRepository.findByTokenHash(TokenDigestUtils.sha256("other.refresh.token"))).isEmpty();
+    }
+
+    @Test
+    void markConsumed_whenCalledTwice_thenOnlyFirstCallConsumesToken() {
+        //GIVEN
+        RefreshToken token = saveToken("refresh.token", UUID.randomUUID());
+
+        //WHEN
+        int firstAttempt = refreshTokenRepository.markConsumed(token.getId(), Instant.now());
+        int secondAttempt = refreshTokenRepository.markConsumed(token.getId(), Instant.now());
+
+        //THEN
+        assertThat(firstAttempt).isEqualTo(1);
+        assertThat(secondAttempt).isZero();
+    }
+
+    @Test
+    void deleteByFamilyId_whenCalled_thenDeletesOnlyTokensOfThatFamily() {
+        //GIVEN
+        final UUID revokedFamily = UUID.randomUUID(), otherFamily = UUID.randomUUID();
+
+        saveToken("revoked.token.1", revokedFamily);
+        saveToken("revoked.token.2", revokedFamily);
+        saveToken("other.token", otherFamily);
+
+        //WHEN
+        int deleted = refreshTokenRepository.deleteByFamilyId(revokedFamily);
+
+        //THEN
+        assertThat(deleted).isEqualTo(2);
+        assertThat(refreshTokenRepository.findByTokenHash(TokenDigestUtils.sha256("revoked.token.1"))).isEmpty();
+        assertThat(refreshTokenRepository.findByTokenHash(TokenDigestUtils.sha256("other.token"))).isPresent();
+    }
+
+    @Test
+    void deleteExpiredChunk_whenExpiredTokensExceedLimit_thenDeletesOnlyLimitedNumberOfExpiredTokens() {
+        //GIVEN
+        final Instant now = Instant.now();
+
+        for (int i = 0; i < 5; i++)
+            saveToken("expired.token." + i, UUID.randomUUID(), now.minus(Duration.ofMinutes(1)));
+
+        saveToken("active.token", UUID.randomUUID(), now.plus(Duration.ofDays(14)));
+
+        //WHEN
+        int firstChunk = refreshTokenRepository.deleteExpiredChunk(now, 3);
+        int secondChunk = refreshTokenRepository.deleteExpiredChunk(now, 3);
+        int thirdChunk = refreshTokenRepository.deleteExpiredChunk(now, 3);
+
+        //THEN
+        assertThat(firstChunk).isEqualTo(3);
+        assertThat(secondChunk).isEqualTo(2);
+        assertThat(thirdChunk).isZero();
+        assertThat(refreshTokenRepository.findByTokenHash(TokenDigestUtils.sha256("active.token"))).isPresent();
+    }
+
+    @Test
+    void deleteAllByUserUuid_whenCalled_thenDeletesOnlyTokensOfThatUser() {
+        //GIVEN
+        User otherUser = userRepository.save(
+                User.builder()
+                        .email("other@gmail.com")
+                        .password("123")
+                        .roles(Collections.emptySet())
+                        .build()
+        );
+
+        saveToken("user.token.1", UUID.randomUUID());
+        saveToken("user.token.2", UUID.randomUUID());
+
+        refreshTokenRepository.saveAndFlush(
+                RefreshToken.builder()
+                        .user(otherUser)
+                        .tokenHash(TokenDigestUtils.sha256("other.user.token"))
+                        .familyId(UUID.randomUUID())
+                        .expiresAt(Instant.now().plus(Duration.ofDays(14)))
+                        .build()
+        );
+
+        //WHEN
+        int deleted = refreshTokenRepository.deleteAllByUserUuid(user.getUuid());
+
+        //THEN
+        assertThat(deleted).isEqualTo(2);
+        assertThat(refreshTokenRepository.findByTokenHash(TokenDigestUtils.sha256("user.token.1"))).isEmpty();
+        assertThat(refreshTokenRepository.findByTokenHash(TokenDigestUtils.sha256("other.user.token"))).isPresent();
+    }
+
+    private RefreshToken saveToken(String token, UUID familyId) {
+        return saveToken(token, familyId, Instant.now().plus(Duration.ofDays(14)));
+    }
+
+    private RefreshToken saveToken(String token, UUID familyId, Instant expiresAt) {
+        return refreshTokenRepository.saveAndFlush(
+                RefreshToken.builder()
+                        .user(user)
+                        .tokenHash(TokenDigestUtils.sha256(token))
+                        .familyId(familyId)
+                        .expiresAt(expiresAt)
+                        .build()
+        );
+    }
+}
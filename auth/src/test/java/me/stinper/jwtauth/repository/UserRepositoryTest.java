@@ -1,23 +1,42 @@
 package me.stinper.jwtauth.repository;
 
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.core.pagination.KeysetSortFields;
+import me.stinper.jwtauth.dto.EntityScrollRequest;
 import me.stinper.jwtauth.entity.Role;
 import me.stinper.jwtauth.entity.User;
+import me.stinper.jwtauth.service.entity.support.ActiveUserFilterStrategy;
+import me.stinper.jwtauth.service.entity.support.AllUserFilterStrategy;
+import me.stinper.jwtauth.service.entity.support.UserFilterStrategy;
+import me.stinper.jwtauth.testutils.RecordingStatementInspector;
 import me.stinper.jwtauth.testutils.TestContainersUtils;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.*;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "me.stinper.jwtauth.testutils.RecordingStatementInspector")
 @Testcontainers
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 class UserRepositoryTest {
@@ -32,6 +51,9 @@ class UserRepositoryTest {
     @Autowired
     RoleRepository roleRepository;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
     @Test
     void findByEmailIgnoreCase_whenUserHasNoRoles_thenReturnsUser() {
         //GIVEN
@@ -146,4 +168,224 @@ class UserRepositoryTest {
         //THEN
         assertThat(isTableEmpty).isFalse();
     }
-}
\ No newline at end of file
+
+
+    @Test
+    void findAll_whenActiveUserSpecificationIsUsed_thenReturnsFullPagesAndCorrectTotalsOfActiveUsers() {
+        //GIVEN
+        final int usersCount = 3000, pageSize = 100;
+        final int activeUsersCount = this.seedUsers(usersCount, 4); //Каждый 4-й пользователь деактивирован
+
+        //WHEN
+        List<Page<User>> pages = this.fetchAllPages(new ActiveUserFilterStrategy(), pageSize);
+
+        //THEN
+        assertThat(pages).hasSize(23);
+        assertThat(pages).allSatisfy(page -> {
+            assertThat(page.getTotalElements()).isEqualTo(activeUsersCount);
+            assertThat(page.getTotalPages()).isEqualTo(23);
+            assertThat(page.getContent()).allMatch(user -> user.getDeactivatedAt() == null);
+        });
+        assertThat(pages.subList(0, pages.size() - 1)).allSatisfy(page -> assertThat(page.getContent()).hasSize(pageSize));
+        assertThat(pages.getLast().getContent()).hasSize(activeUsersCount % pageSize);
+
+        Set<String> fetchedEmails = new HashSet<>();
+        pages.forEach(page -> page.getContent().forEach(user -> fetchedEmails.add(user.getEmail())));
+        assertThat(fetchedEmails).hasSize(activeUsersCount);
+    }
+
+
+    @Test
+    void findAll_whenAllUserSpecificationIsUsed_thenReturnsDeactivatedUsersToo() {
+        //GIVEN
+        final int usersCount = 3000, pageSize = 100;
+        this.seedUsers(usersCount, 4);
+
+        //WHEN
+        List<Page<User>> pages = this.fetchAllPages(new AllUserFilterStrategy(), pageSize);
+
+        //THEN
+        assertThat(pages).hasSize(usersCount / pageSize);
+        assertThat(pages).allSatisfy(page -> {
+            assertThat(page.getTotalElements()).isEqualTo(usersCount);
+            assertThat(page.getContent()).hasSize(pageSize);
+        });
+        assertThat(pages)
+                .flatMap(Page::getContent)
+                .filteredOn(user -> user.getDeactivatedAt() != null)
+                .hasSize(usersCount / 4);
+    }
+
+
+    @Test
+    void findBy_whenScrollingActiveUsersByCursor_thenReturnsEveryActiveUserOnceInSortOrder() {
+        //GIVEN
+        final int usersCount = 3000, scrollSize = 100;
+        final int activeUsersCount = this.seedUsers(usersCount, 4);
+
+        //WHEN
+        List<Window<User>> windows = this.scrollAll(new ActiveUserFilterStrategy(), "email", Sort.Direction.DESC, scrollSize);
+
+        //THEN
+        assertThat(windows).hasSize(23);
+        assertThat(windows.subList(0, windows.size() - 1)).allSatisfy(window -> {
+            assertThat(window.getContent()).hasSize(scrollSize);
+            assertThat(window.hasNext()).isTrue();
+        });
+        assertThat(windows.getLast().hasNext()).isFalse();
+
+        List<User> fetchedUsers = windows.stream()
+                .flatMap(Window::stream)
+                .toList();
+
+        assertThat(fetchedUsers).allMatch(user -> user.getDeactivatedAt() == null);
+        assertThat(fetchedUsers)
+                .extracting(User::getEmail)
+                .hasSize(activeUsersCount)
+                .doesNotHaveDuplicates()
+                .isSortedAccordingTo(Comparator.reverseOrder());
+    }
+
+
+    @Test
+    void findBy_whenScrollingAllUsersByDefaultSort_thenReturnsEveryUserOnce() {
+        //GIVEN
+        final int usersCount = 3000, scrollSize = 100;
+        this.seedUsers(usersCount, 4);
+
+        //WHEN
+        List<Window<User>> windows = this.scrollAll(new AllUserFilterStrategy(), null, null, scrollSize);
+
+        //THEN
+        assertThat(windows).hasSize(usersCount / scrollSize);
+        assertThat(windows)
+                .flatMap(Window::getContent)
+                .extracting(user -> user.getUuid().toString()) //Строковое представление упорядочено так же, как uuid в PostgreSQL
+                .hasSize(usersCount)
+                .doesNotHaveDuplicates()
+                .isSorted();
+    }
+
+
+    @Test
+    void findBy_whenScrollingToDeepPortion_thenSelectsPortionByIndexRangeOfSortKey() {
+        //GIVEN
+        final int usersCount = 3000, scrollSize = 100;
+        this.seedUsers(usersCount, 4);
+
+        RecordingStatementInspector.clear();
+
+        //WHEN
+        List<Window<User>> windows = this.scrollAll(new AllUserFilterStrategy(), "email", Sort.Direction.ASC, scrollSize);
+
+        //THEN
+        assertThat(windows).hasSize(usersCount / scrollSize);
+
+        String deepestPortionQuery = RecordingStatementInspector.statements().stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains(" from users ") && sql.contains(" where "))
+                .reduce((first, second) -> second)
+                .orElseThrow();
+
+        //Условие по ключу последней записи - одно сравнение, без дополнения идентификатором через OR
+        String whereClause = deepestPortionQuery.substring(deepestPortionQuery.indexOf(" where "));
+        assertThat(whereClause)
+                .containsPattern("email\\s*>\\s*\\?")
+                .doesNotContainIgnoringCase(" or ");
+
+        List<String> plan = this.explainGenericPlan(deepestPortionQuery);
+
+        assertThat(plan).anySatisfy(line -> assertThat(line).contains("Index Cond").contains("email"));
+        assertThat(plan).noneMatch(line -> line.contains("Filter"));
+    }
+
+
+    /**
+     * @return количество не деактивированных пользователей
+     */
+    private int seedUsers(int usersCount, int everyNthDeactivated) {
+        List<User> users = new ArrayList<>(usersCount);
+        int activeUsersCount = 0;
+
+        for (int i = 0; i < usersCount; i++) {
+            boolean deactivated = i % everyNthDeactivated == 0;
+
+            users.add(User.builder()
+                    .email(String.format("user%05d@gmail.com", i))
+                    .password("123")
+                    .deactivatedAt(deactivated ? Instant.now() : null)
+                    .build()
+            );
+
+            if (!deactivated)
+                activeUsersCount++;
+        }
+
+        userRepository.saveAllAndFlush(users);
+        return activeUsersCount;
+    }
+
+    private List<Page<User>> fetchAllPages(UserFilterStrategy filterStrategy, int pageSize) {
+        List<Page<User>> pages = new ArrayList<>();
+        Pageable pageable = PageRequest.of(0, pageSize, Sort.by("email"));
+
+        Page<User> page;
+        do {
+            page = userRepository.findAll(filterStrategy.toSpecification(), pageable);
+            pages.add(page);
+            pageable = pageable.next();
+        }
+        while (page.hasNext());
+
+        return pages;
+    }
+
+    /**
+     * Строит обобщенный план запроса ({@code EXPLAIN (GENERIC_PLAN)}, PostgreSQL 16+), не зависящий от значений
+     * параметров. Последовательное сканирование запрещено, чтобы на небольшой таблице план показывал, может ли
+     * условие запроса быть выполнено по индексу
+     */
+    private List<String> explainGenericPlan(String sql) {
+        StringBuilder numberedSql = new StringBuilder();
+        int parameterIndex = 0;
+
+        for (char symbol : sql.toCharArray()) {
+            if (symbol == '?')
+                numberedSql.append('$').append(++parameterIndex);
+            else
+                numberedSql.append(symbol);
+        }
+
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+
+        return jdbcTemplate.queryForList("EXPLAIN (GENERIC_PLAN) " + numberedSql, String.class);
+    }
+
+    /**
+     * Обходит пользователей по курсору так же, как это делает клиент: курсор каждой порции передается
+     * в запрос следующей порции в закодированном виде
+     */
+    private List<Window<User>> scrollAll(UserFilterStrategy filterStrategy, String sortBy, Sort.Direction direction, int scrollSize) {
+        List<Window<User>> windows = new ArrayList<>();
+        String cursor = null;
+
+        Window<User> window;
+        do {
+            KeysetScrollQuery scrollQuery = new EntityScrollRequest(scrollSize, sortBy, direction, cursor, null)
+                    .buildScrollQueryFromRequest(KeysetSortFields.USERS);
+
+            window = scrollQuery.toWindow(userRepository.findBy(
+                    scrollQuery.applyTo(filterStrategy.toSpecification()),
+                    query -> query
+                            .sortBy(scrollQuery.sort())
+                            .limit(scrollQuery.limit())
+                            .all()
+            ));
+            windows.add(window);
+            cursor = scrollQuery.nextCursor(window);
+        }
+        while (window.hasNext());
+
+        return windows;
+    }
+}
@@ -0,0 +1,84 @@
+package me.stinper.jwtauth.service.authentication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.stinper.jwtauth.core.security.jwt.JwtKeyRing;
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureAlgorithm;
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureKeysProvider;
+import me.stinper.jwtauth.core.security.jwt.JwtSigningKey;
+import me.stinper.jwtauth.dto.JwksDocument;
+import me.stinper.jwtauth.dto.JwksDto;
+import me.stinper.jwtauth.mapping.JwkMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Unit Test for JwksServiceImpl class")
+class JwksServiceImplUnitTest {
+    @Mock private JwtSignatureKeysProvider signatureKeysProvider;
+    @Mock private JwkMapper jwkMapper;
+
+    private JwksServiceImpl jwksService;
+
+    @BeforeEach
+    void setUp() {
+        this.jwksService = new JwksServiceImpl(signatureKeysProvider, jwkMapper, new ObjectMapper());
+    }
+
+    @Test
+    @DisplayName("[#getJwksDocument]: Checks that the document is built once per key ring version")
+    void getJwksDocument_whenKeyRingVersionIsUnchanged_thenReturnsSameDocument() {
+        //GIVEN
+        JwtKeyRing keyRing = keyRing(1, "key-1");
+
+        when(signatureKeysProvider.keyRing()).thenReturn(keyRing);
+        when(jwkMapper.toKeyBody(keyRing.activeKey())).thenReturn(JwksDto.KeyBody.builder().kty("EC").kid("key-1").build());
+
+        //WHEN
+        JwksDocument firstDocument = jwksService.getJwksDocument();
+        JwksDocument secondDocument = jwksService.getJwksDocument();
+
+        //THEN
+        assertThat(secondDocument).isSameAs(firstDocument);
+        assertThat(new String(firstDocument.content())).isEqualTo("{\"keys\":[{\"kty\":\"EC\",\"kid\":\"key-1\"}]}");
+        assertThat(firstDocument.eTag()).startsWith("\"").endsWith("\"");
+
+        verify(jwkMapper, times(1)).toKeyBody(any());
+    }
+
+    @Test
+    @DisplayName("[#getJwksDocument]: Checks that the document and its ETag are rebuilt when the key ring changes")
+    void getJwksDocument_whenKeyRingVersionChanges_thenRebuildsDocument() {
+        //GIVEN
+        JwtKeyRing initialKeyRing = keyRing(1, "key-1"),
+                rotatedKeyRing = keyRing(2, "key-2");
+
+        when(signatureKeysProvider.keyRing()).thenReturn(initialKeyRing, rotatedKeyRing);
+        when(jwkMapper.toKeyBody(initialKeyRing.activeKey())).thenReturn(JwksDto.KeyBody.builder().kid("key-1").build());
+        when(jwkMapper.toKeyBody(rotatedKeyRing.activeKey())).thenReturn(JwksDto.KeyBody.builder().kid("key-2").build());
+
+        //WHEN
+        JwksDocument initialDocument = jwksService.getJwksDocument();
+        JwksDocument rotatedDocument = jwksService.getJwksDocument();
+
+        //THEN
+        assertThat(rotatedDocument.keyRingVersion()).isEqualTo(2);
+        assertThat(rotatedDocument.eTag()).isNotEqualTo(initialDocument.eTag());
+    }
+
+    private static JwtKeyRing keyRing(long version, String kid) {
+        return JwtKeyRing.of(
+                version,
+                new JwtSigningKey(kid, JwtSignatureAlgorithm.ES256, mock(PublicKey.class), mock(PrivateKey.class))
+        );
+    }
+}
@@ -1,13 +1,17 @@
 package me.stinper.jwtauth.service.authentication;
 
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import me.stinper.jwtauth.core.security.jwt.service.JwtCreationService;
-import me.stinper.jwtauth.core.security.jwt.service.JwtVerificationService;
+import me.stinper.jwtauth.core.security.refresh.RefreshTokenProvider;
 import me.stinper.jwtauth.dto.JwtResponse;
 import me.stinper.jwtauth.dto.RefreshAccessTokenRequest;
 import me.stinper.jwtauth.entity.RefreshToken;
 import me.stinper.jwtauth.entity.User;
 import me.stinper.jwtauth.repository.RefreshTokenRepository;
+import me.stinper.jwtauth.utils.TokenDigestUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -17,6 +21,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.Arrays;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -27,29 +32,32 @@ import static org.mockito.Mockito.*;
 @DisplayName("Unit Test for JwtServiceImpl class")
 class JwtServiceImplUnitTest {
     @Mock private RefreshTokenRepository refreshTokenRepository;
-    @Mock private JwtVerificationService jwtVerificationService;
     @Mock private JwtCreationService jwtCreationService;
+    @Mock private RefreshTokenProvider refreshTokenProvider;
     private final Duration refreshTokenExpiration = Duration.ofDays(14);
 
+    private MeterRegistry meterRegistry;
     private JwtServiceImpl jwtService;
 
     @BeforeEach
     void setUp() {
-        this.jwtService = new JwtServiceImpl(refreshTokenRepository, jwtVerificationService, jwtCreationService);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.jwtService = new JwtServiceImpl(refreshTokenRepository, jwtCreationService, refreshTokenProvider, meterRegistry);
         jwtService.setRefreshTokenExpiration(refreshTokenExpiration);
     }
 
 
     @Test
-    @DisplayName("[#refreshAccessToken]: Checks that the method generates a new access token if the request is valid")
-    void refreshAccessToken_whenRequestIsValid_thenRefreshesAccessToken() {
+    @DisplayName("[#refreshAccessToken]: Checks that the method consumes the presented refresh token and issues a successor in the same family")
+    void refreshAccessToken_whenRequestIsValid_thenRotatesRefreshToken() {
         //GIVEN
         RefreshAccessTokenRequest validRefreshAccessTokenRequest = new RefreshAccessTokenRequest(
                 "REFRESH_TOKEN"
         );
 
         final String refreshTokenFromRequest = validRefreshAccessTokenRequest.refreshToken(),
-                newAccessToken = "NEW_ACCESS_TOKEN";
+                newAccessToken = "NEW_ACCESS_TOKEN",
+                newRefreshToken = "NEW_REFRESH_TOKEN";
 
         User user = User.builder()
                 .uuid(UUID.randomUUID())
@@ -59,29 +67,92 @@ class JwtServiceImplUnitTest {
 
         RefreshToken refreshToken = RefreshToken.builder()
                 .id(1L)
-                .token(refreshTokenFromRequest)
+                .tokenHash(TokenDigestUtils.sha256(refreshTokenFromRequest))
+                .familyId(UUID.randomUUID())
                 .user(user)
                 .expiresAt(Instant.now().plus(this.refreshTokenExpiration))
                 .build();
 
-        //No Exception -> Verification Successful
-        doNothing()
-                .when(jwtVerificationService)
-                .verifyTokenSignature(refreshTokenFromRequest);
-
-        when(refreshTokenRepository.findByToken(refreshTokenFromRequest)).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.findByTokenHash(aryEq(TokenDigestUtils.sha256(refreshTokenFromRequest))))
+                .thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.markConsumed(eq(refreshToken.getId()), any())).thenReturn(1);
         when(jwtCreationService.createAccessToken(user)).thenReturn(newAccessToken);
+        when(refreshTokenProvider.createRefreshToken(user)).thenReturn(newRefreshToken);
 
         //WHEN
         JwtResponse jwtResponse = jwtService.refreshAccessToken(validRefreshAccessTokenRequest);
 
         //THEN
         assertThat(jwtResponse.accessToken()).isEqualTo(newAccessToken);
-        assertThat(jwtResponse.refreshToken()).isEqualTo(refreshTokenFromRequest);
+        assertThat(jwtResponse.refreshToken()).isEqualTo(newRefreshToken);
 
-        verify(jwtVerificationService).verifyTokenSignature(refreshTokenFromRequest);
-        verify(refreshTokenRepository).findByToken(refreshTokenFromRequest);
-        verify(jwtCreationService).createAccessToken(user);
+        verify(refreshTokenProvider).verifyRefreshToken(refreshTokenFromRequest);
+        verify(refreshTokenRepository).markConsumed(eq(refreshToken.getId()), any());
+        verify(refreshTokenRepository).save(
+                argThat(token -> token.getFamilyId().equals(refreshToken.getFamilyId())
+                        && token.getExpiresAt().equals(refreshToken.getExpiresAt())
+                        && Arrays.equals(token.getTokenHash(), TokenDigestUtils.sha256(newRefreshToken)))
+        );
+        verify(refreshTokenRepository, never()).deleteByFamilyId(any());
+    }
+
+
+    @Test
+    @DisplayName("[#refreshAccessToken]: Checks that presenting an already consumed refresh token revokes its family")
+    void refreshAccessToken_whenRefreshTokenIsAlreadyConsumed_thenRevokesFamilyAndThrowsException() {
+        //GIVEN
+        RefreshAccessTokenRequest reusedRefreshAccessTokenRequest = new RefreshAccessTokenRequest(
+                "CONSUMED_REFRESH_TOKEN"
+        );
+
+        RefreshToken refreshToken = RefreshToken.builder()
+                .id(1L)
+                .tokenHash(TokenDigestUtils.sha256(reusedRefreshAccessTokenRequest.refreshToken()))
+                .familyId(UUID.randomUUID())
+                .user(User.builder().uuid(UUID.randomUUID()).email("user@gmail.com").build())
+                .consumedAt(Instant.now().minusSeconds(30))
+                .expiresAt(Instant.now().plus(this.refreshTokenExpiration))
+                .build();
+
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(refreshToken));
+
+        //WHEN & THEN
+        assertThatExceptionOfType(JwtException.class)
+                .isThrownBy(() -> jwtService.refreshAccessToken(reusedRefreshAccessTokenRequest));
+
+        verify(refreshTokenRepository).deleteByFamilyId(refreshToken.getFamilyId());
+        verify(refreshTokenRepository, never()).markConsumed(any(), any());
+        verify(refreshTokenRepository, never()).save(any());
+        verifyNoInteractions(jwtCreationService);
+    }
+
+
+    @Test
+    @DisplayName("[#refreshAccessToken]: Checks that losing the conditional update to a concurrent refresh is treated as reuse")
+    void refreshAccessToken_whenConcurrentRefreshConsumedTokenFirst_thenRevokesFamilyAndThrowsException() {
+        //GIVEN
+        RefreshAccessTokenRequest refreshAccessTokenRequest = new RefreshAccessTokenRequest(
+                "REFRESH_TOKEN"
+        );
+
+        RefreshToken refreshToken = RefreshToken.builder()
+                .id(1L)
+                .tokenHash(TokenDigestUtils.sha256(refreshAccessTokenRequest.refreshToken()))
+                .familyId(UUID.randomUUID())
+                .user(User.builder().uuid(UUID.randomUUID()).email("user@gmail.com").build())
+                .expiresAt(Instant.now().plus(this.refreshTokenExpiration))
+                .build();
+
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(refreshToken));
+        when(refreshTokenRepository.markConsumed(eq(refreshToken.getId()), any())).thenReturn(0);
+
+        //WHEN & THEN
+        assertThatExceptionOfType(JwtException.class)
+                .isThrownBy(() -> jwtService.refreshAccessToken(refreshAccessTokenRequest));
+
+        verify(refreshTokenRepository).deleteByFamilyId(refreshToken.getFamilyId());
+        verify(refreshTokenRepository, never()).save(any());
+        verifyNoInteractions(jwtCreationService);
     }
 
 
@@ -98,12 +169,7 @@ class JwtServiceImplUnitTest {
                 "INVALID_REFRESH_TOKEN"
         );
 
-        //No Exception -> Verification Successful
-        doNothing()
-                .when(jwtVerificationService)
-                .verifyTokenSignature(invalidRefreshAccessTokenRequest.refreshToken());
-
-        when(refreshTokenRepository.findByToken(anyString())).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.empty());
 
         //WHEN & THEN
         assertThatExceptionOfType(JwtException.class)
@@ -113,6 +179,31 @@ class JwtServiceImplUnitTest {
     }
 
 
+    @Test
+    @DisplayName("[#refreshAccessToken]: Checks that the method rejects a refresh token that is expired according to the database")
+    void refreshAccessToken_whenStoredRefreshTokenIsExpired_thenThrowsExpiredJwtException() {
+        //GIVEN
+        RefreshAccessTokenRequest expiredRefreshAccessTokenRequest = new RefreshAccessTokenRequest(
+                "EXPIRED_REFRESH_TOKEN"
+        );
+
+        RefreshToken refreshToken = RefreshToken.builder()
+                .id(1L)
+                .tokenHash(TokenDigestUtils.sha256(expiredRefreshAccessTokenRequest.refreshToken()))
+                .user(User.builder().uuid(UUID.randomUUID()).email("user@gmail.com").build())
+                .expiresAt(Instant.now().minusSeconds(1))
+                .build();
+
+        when(refreshTokenRepository.findByTokenHash(any())).thenReturn(Optional.of(refreshToken));
+
+        //WHEN & THEN
+        assertThatExceptionOfType(ExpiredJwtException.class)
+                .isThrownBy(() -> jwtService.refreshAccessToken(expiredRefreshAccessTokenRequest));
+
+        verifyNoInteractions(jwtCreationService);
+    }
+
+
     @Test
     @DisplayName(
             """
@@ -127,9 +218,7 @@ class JwtServiceImplUnitTest {
         );
 
         //Exception -> Verification Failed
-        doThrow(JwtException.class)
-                .when(jwtVerificationService)
-                .verifyTokenSignature(invalidRefreshAccessTokenRequest.refreshToken());
+        doThrow(JwtException.class).when(refreshTokenProvider).verifyRefreshToken(invalidRefreshAccessTokenRequest.refreshToken());
 
 
         //WHEN & THEN
@@ -153,7 +242,7 @@ class JwtServiceImplUnitTest {
                 .build();
 
         when(jwtCreationService.createAccessToken(user)).thenReturn(accessToken);
-        when(jwtCreationService.createRefreshToken(user)).thenReturn(refreshToken);
+        when(refreshTokenProvider.createRefreshToken(user)).thenReturn(refreshToken);
 
         //WHEN
         JwtResponse jwtResponse = jwtService.generateTokensPair(user);
@@ -163,10 +252,12 @@ class JwtServiceImplUnitTest {
         assertThat(jwtResponse.refreshToken()).isEqualTo(refreshToken);
 
         verify(refreshTokenRepository).save(
-                argThat(token -> token.getUser().equals(user) && token.getToken().equals(refreshToken))
+                argThat(token -> token.getUser().equals(user)
+                        && token.getFamilyId() != null
+                        && Arrays.equals(token.getTokenHash(), TokenDigestUtils.sha256(refreshToken)))
         );
         verify(jwtCreationService).createAccessToken(user);
-        verify(jwtCreationService).createRefreshToken(user);
+        verify(refreshTokenProvider).createRefreshToken(user);
     }
 
 
@@ -179,10 +270,16 @@ class JwtServiceImplUnitTest {
                 .password("123")
                 .build();
 
+        when(refreshTokenRepository.deleteAllByUserUuid(user.getUuid())).thenReturn(3);
+
         //WHEN
-        jwtService.invalidateRefreshTokens(user);
+        int revokedTokens = jwtService.invalidateRefreshTokens(user);
 
         //THEN
-        verify(refreshTokenRepository).deleteByUser_Email(user.getEmail());
+        assertThat(revokedTokens).isEqualTo(3);
+        assertThat(meterRegistry.get("refresh.tokens.revoked").tag("reason", "invalidation").counter().count())
+                .isEqualTo(3);
+
+        verify(refreshTokenRepository).deleteAllByUserUuid(user.getUuid());
     }
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package me.stinper.jwtauth.service.entity;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.stinper.jwtauth.core.idempotency.IdempotencyPayloadCodec;
+import me.stinper.jwtauth.core.idempotency.IdempotencyStore;
+import me.stinper.jwtauth.core.idempotency.JpaIdempotencyStore;
+import me.stinper.jwtauth.core.idempotency.TieredIdempotencyStore;
+import me.stinper.jwtauth.dto.JwtResponse;
+import me.stinper.jwtauth.testutils.TestContainersUtils;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest
+@Testcontainers
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({
+        IdempotencyServiceImpl.class,
+        IdempotencyPayloadCodec.class,
+        JpaIdempotencyStore.class,
+        TieredIdempotencyStore.class,
+        JacksonAutoConfiguration.class,
+        IdempotencyServiceImplConcurrencyTest.MetricsConfig.class
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceImplConcurrencyTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = TestContainersUtils.initPostgreSQLContainer();
+
+    @Autowired
+    IdempotencyServiceImpl idempotencyService;
+
+    @Autowired
+    JpaIdempotencyStore jpaIdempotencyStore;
+
+    @Autowired
+    IdempotencyPayloadCodec payloadCodec;
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    void process_whenSameKeyIsProcessedConcurrentlyOnSeveralNodes_thenOperationIsExecutedExactlyOnce() throws Exception {
+        //GIVEN
+        final UUID idempotencyKey = UUID.randomUUID();
+        final int threads = 32;
+        final AtomicInteger executions = new AtomicInteger();
+
+        //Каждый экземпляр сервиса имеет собственную карту выполняющихся запросов и имитирует отдельный узел
+        final List<IdempotencyServiceImpl> nodes = List.of(idempotencyService, this.newNode(), this.newNode());
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<JwtResponse>> responses = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < threads; i++) {
+                IdempotencyServiceImpl node = nodes.get(i % nodes.size());
+
+                responses.add(executor.submit(() -> {
+                    start.await();
+
+                    return node.process(idempotencyKey, () -> {
+                        int execution = executions.incrementAndGet();
+                        sleepQuietly(200); //Имитация проверки пароля и подписи токенов
+                        return new JwtResponse("ACCESS_TOKEN_" + execution, "REFRESH_TOKEN_" + execution);
+                    }, JwtResponse.class);
+                }));
+            }
+
+            //WHEN
+            start.countDown();
+
+            //THEN
+            List<JwtResponse> results = new ArrayList<>();
+            for (Future<JwtResponse> response : responses)
+                results.add(response.get(10, TimeUnit.SECONDS));
+
+            assertThat(executions).hasValue(1);
+            assertThat(results).containsOnly(new JwtResponse("ACCESS_TOKEN_1", "REFRESH_TOKEN_1"));
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void process_whenOperationFails_thenKeyIsReleasedAndNextRequestExecutesOperation() throws Exception {
+        //GIVEN
+        final UUID idempotencyKey = UUID.randomUUID();
+
+        assertThatIllegalStateException().isThrownBy(() ->
+                idempotencyService.process(idempotencyKey, () -> { throw new IllegalStateException(); }, JwtResponse.class)
+        );
+
+        //WHEN
+        JwtResponse response = idempotencyService.process(
+                idempotencyKey, () -> new JwtResponse("ACCESS_TOKEN", "REFRESH_TOKEN"), JwtResponse.class
+        );
+
+        //THEN
+        assertThat(response).isEqualTo(new JwtResponse("ACCESS_TOKEN", "REFRESH_TOKEN"));
+    }
+
+    private IdempotencyServiceImpl newNode() {
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        IdempotencyStore store = new TieredIdempotencyStore(
+                jpaIdempotencyStore, Duration.ofMinutes(10), DataSize.ofMegabytes(1), meterRegistry
+        );
+
+        IdempotencyServiceImpl node = new IdempotencyServiceImpl(store, payloadCodec, meterRegistry);
+        node.setIdempotencyPeriod(Duration.ofMinutes(10));
+        node.setWaitTimeout(Duration.ofSeconds(2));
+        node.setPollInterval(Duration.ofMillis(50));
+        return node;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        }
+        catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
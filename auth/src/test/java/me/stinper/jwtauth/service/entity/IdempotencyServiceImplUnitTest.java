@@ -1,11 +1,16 @@
 package me.stinper.jwtauth.service.entity;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import me.stinper.jwtauth.entity.IdempotencyKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import me.stinper.jwtauth.core.idempotency.IdempotencyPayload;
+import me.stinper.jwtauth.core.idempotency.IdempotencyPayloadCodec;
+import me.stinper.jwtauth.core.idempotency.IdempotencyRecord;
+import me.stinper.jwtauth.core.idempotency.IdempotencyStore;
+import me.stinper.jwtauth.entity.IdempotencyKeyStatus;
 import me.stinper.jwtauth.exception.IdempotencyKeyExpiredException;
+import me.stinper.jwtauth.exception.IdempotencyKeyInProgressException;
 import me.stinper.jwtauth.exception.ObjectValueValidationException;
-import me.stinper.jwtauth.repository.IdempotencyKeyRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -19,6 +24,7 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.*;
 import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.*;
@@ -28,18 +34,22 @@ import static org.mockito.Mockito.*;
 @DisplayName("Unit Tests for IdempotencyServiceImpl class")
 class IdempotencyServiceImplUnitTest {
     @Mock
-    private IdempotencyKeyRepository idempotencyKeyRepository;
+    private IdempotencyStore idempotencyStore;
     @Mock
-    private ObjectMapper objectMapper;
+    private IdempotencyPayloadCodec payloadCodec;
 
     private final Duration idempotencyPeriod = Duration.ofDays(1);
 
+    private MeterRegistry meterRegistry;
     private IdempotencyServiceImpl idempotencyService;
 
     @BeforeEach
     void setUp() {
-        this.idempotencyService = new IdempotencyServiceImpl(idempotencyKeyRepository, objectMapper);
+        this.meterRegistry = new SimpleMeterRegistry();
+        this.idempotencyService = new IdempotencyServiceImpl(idempotencyStore, payloadCodec, meterRegistry);
         idempotencyService.setIdempotencyPeriod(idempotencyPeriod);
+        idempotencyService.setWaitTimeout(Duration.ofMillis(100));
+        idempotencyService.setPollInterval(Duration.ofMillis(10));
     }
 
 
@@ -47,16 +57,16 @@ class IdempotencyServiceImplUnitTest {
     void process_whenIdempotencyKeyExistsAndNotExpired_thenReturnsSavedResultAndNeverInvokesService() throws JsonProcessingException {
         //GIVEN
         final UUID idempotencyKey = UUID.fromString("bd4620ef-cb3c-4da8-b10e-47b100489d5b");
-        final String contentData = "CONTENT_DATA";
+        final IdempotencyPayload contentData = new IdempotencyPayload(new byte[] {1, 2, 3}, IdempotencyPayloadCodec.SMILE_DEFLATE);
 
         final Person person = new Person("Ivan", "Ivanov");
 
-        final IdempotencyKey key = IdempotencyKey.builder()
-                .id(1L)
-                .key(idempotencyKey)
-                .issuedAt(Instant.now())
-                .responseData(contentData)
-                .build();
+        final IdempotencyRecord key = new IdempotencyRecord(
+                idempotencyKey,
+                IdempotencyKeyStatus.COMPLETED,
+                Instant.now(),
+                contentData
+        );
 
         /*
             Imitating service operation which should NOT be called
@@ -69,8 +79,9 @@ class IdempotencyServiceImplUnitTest {
             }
         });
 
-        when(idempotencyKeyRepository.findByKey(idempotencyKey)).thenReturn(Optional.of(key));
-        when(objectMapper.readValue(contentData, Person.class)).thenReturn(person);
+        when(idempotencyStore.claim(eq(idempotencyKey), any())).thenReturn(false);
+        when(idempotencyStore.find(idempotencyKey)).thenReturn(Optional.of(key));
+        when(payloadCodec.decode(contentData, Person.class)).thenReturn(person);
 
         //WHEN
         Person response = idempotencyService.process(idempotencyKey, serviceOperation, Person.class);
@@ -78,10 +89,11 @@ class IdempotencyServiceImplUnitTest {
         //THEN
         assertThat(response).isEqualTo(person);
 
-        verify(idempotencyKeyRepository).findByKey(idempotencyKey);
-        verify(objectMapper).readValue(contentData, Person.class);
+        verify(idempotencyStore).claim(eq(idempotencyKey), any());
+        verify(idempotencyStore).find(idempotencyKey);
+        verify(payloadCodec).readValue(contentData, Person.class);
 
-        verifyNoMoreInteractions(idempotencyKeyRepository, objectMapper);
+        verifyNoMoreInteractions(idempotencyStore, payloadCodec);
         verifyNoInteractions(serviceOperation);
     }
 
@@ -91,11 +103,12 @@ class IdempotencyServiceImplUnitTest {
         //GIVEN
         final UUID idempotencyKey = UUID.fromString("bd4620ef-cb3c-4da8-b10e-47b100489d5b");
 
-        final IdempotencyKey key = IdempotencyKey.builder()
-                .id(1L)
-                .key(idempotencyKey)
-                .issuedAt(Instant.now().minus(idempotencyPeriod.multipliedBy(2))) //Expired
-                .build();
+        final IdempotencyRecord key = new IdempotencyRecord(
+                idempotencyKey,
+                IdempotencyKeyStatus.COMPLETED,
+                Instant.now().minus(idempotencyPeriod.multipliedBy(2)), //Expired
+                null
+        );
 
         /*
             Imitating service operation which should NOT be called
@@ -108,7 +121,8 @@ class IdempotencyServiceImplUnitTest {
             }
         });
 
-        when(idempotencyKeyRepository.findByKey(idempotencyKey)).thenReturn(Optional.of(key));
+        when(idempotencyStore.claim(eq(idempotencyKey), any())).thenReturn(false);
+        when(idempotencyStore.find(idempotencyKey)).thenReturn(Optional.of(key));
 
         //WHEN & THEN
         assertThatExceptionOfType(IdempotencyKeyExpiredException.class)
@@ -118,19 +132,20 @@ class IdempotencyServiceImplUnitTest {
                     assertThat(ex.getArgs()).containsExactly(idempotencyKey);
                 });
 
-        verify(idempotencyKeyRepository).findByKey(idempotencyKey);
-        verifyNoMoreInteractions(idempotencyKeyRepository);
+        verify(idempotencyStore).claim(eq(idempotencyKey), any());
+        verify(idempotencyStore).find(idempotencyKey);
+        verifyNoMoreInteractions(idempotencyStore);
 
-        verifyNoInteractions(objectMapper, serviceOperation);
+        verifyNoInteractions(payloadCodec, serviceOperation);
     }
 
 
     @Test
-    void process_whenIdempotencyKeyDoesNotExist_thenInvokesServiceAndSavesKey() throws JsonProcessingException {
+    void process_whenIdempotencyKeyIsClaimed_thenInvokesServiceAndCompletesKey() throws JsonProcessingException {
         //GIVEN
         final UUID idempotencyKey = UUID.fromString("bd4620ef-cb3c-4da8-b10e-47b100489d5b");
         final Person person = new Person("Ivan", "Ivanov");
-        final String jsonValue = "JSON_VALUE";
+        final IdempotencyPayload jsonValue = new IdempotencyPayload(new byte[] {1, 2, 3}, IdempotencyPayloadCodec.SMILE_DEFLATE);
 
         /*
             Imitating service operation which should be called
@@ -143,8 +158,9 @@ class IdempotencyServiceImplUnitTest {
             }
         });
 
-        when(idempotencyKeyRepository.findByKey(idempotencyKey)).thenReturn(Optional.empty());
-        when(objectMapper.writeValueAsString(person)).thenReturn(jsonValue);
+        when(idempotencyStore.claim(eq(idempotencyKey), any())).thenReturn(true);
+        when(payloadCodec.encode(person)).thenReturn(jsonValue);
+        when(idempotencyStore.complete(eq(idempotencyKey), any(), eq(jsonValue))).thenReturn(true);
 
         //WHEN
         Person response = idempotencyService.process(idempotencyKey, serviceOperation, Person.class);
@@ -152,16 +168,198 @@ class IdempotencyServiceImplUnitTest {
         //THEN
         assertThat(response).isEqualTo(person);
 
-        verify(idempotencyKeyRepository).findByKey(idempotencyKey);
-        verify(idempotencyKeyRepository).save(
-                argThat(arg -> arg.getKey().equals(idempotencyKey) && arg.getResponseData().equals(jsonValue))
-        );
+        verify(idempotencyStore).claim(eq(idempotencyKey), any());
+        verify(idempotencyStore).complete(eq(idempotencyKey), any(), eq(jsonValue));
+        verify(idempotencyStore, never()).find(any());
 
-        verify(objectMapper).writeValueAsString(person);
+        verify(payloadCodec).writeValueAsString(person);
 
         verify(serviceOperation).get();
     }
 
 
+    @Test
+    void process_whenServiceOperationFails_thenReleasesKeyAndRethrowsException() {
+        //GIVEN
+        final UUID idempotencyKey = UUID.fromString("bd4620ef-cb3c-4da8-b10e-47b100489d5b");
+
+        when(idempotencyStore.claim(eq(idempotencyKey), any())).thenReturn(true);
+
+        //WHEN & THEN
+        assertThatIllegalStateException()
+                .isThrownBy(() -> idempotencyService.process(idempotencyKey, () -> { throw new IllegalStateException(); }, Person.class));
+
+        verify(idempotencyStore).release(idempotencyKey);
+        verify(idempotencyStore, never()).complete(any(), any(), any());
+        verifyNoInteractions(payloadCodec);
+    }
+
+
+    @Test
+    void process_whenKeyStaysPendingLongerThanWaitTimeout_thenThrowsExceptionAndNeverInvokesService() {
+        //GIVEN
+        final UUID idempotencyKey = UUID.fromString("bd4620ef-cb3c-4da8-b10e-47b100489d5b");
+
+        final IdempotencyRecord key = new IdempotencyRecord(
+                idempotencyKey,
+                IdempotencyKeyStatus.PENDING,
+                Instant.now(),
+                null
+        );
+
+        /*
+            Imitating service operation which should NOT be called
+            !!! DO NOT REPLACE THIS WITH LAMBDA, LAMBDAS ARE FINAL, AND SPY() NEEDS TO CREATE A PROXY, IT WILL NOT WORK !!!
+         */
+        final Supplier<Person> serviceOperation = spy(new Supplier<>() {
+            @Override
+            public Person get() {
+                throw new IllegalStateException();
+            }
+        });
+
+        when(idempotencyStore.claim(eq(idempotencyKey), any())).thenReturn(false);
+        when(idempotencyStore.find(idempotencyKey)).thenReturn(Optional.of(key));
+
+        //WHEN & THEN
+        assertThatExceptionOfType(IdempotencyKeyInProgressException.class)
+                .isThrownBy(() -> idempotencyService.process(idempotencyKey, serviceOperation, Person.class))
+                .satisfies(ex -> {
+                    assertThat(ex.getErrorMessageCode()).isEqualTo("messages.idempotency-key.in-progress");
+                    assertThat(ex.getArgs()).containsExactly(idempotencyKey);
+                });
+
+        verify(idempotencyStore, never()).complete(any(), any(), any());
+        verifyNoInteractions(payloadCodec, serviceOperation);
+    }
+
+
+    @Test
+    void process_whenKeyIsNeitherClaimedNorFound_thenRetriesWithPauseUntilWaitTimeout() {
+        //GIVEN
+        final UUID idempotencyKey = UUID.fromString("bd4620ef-cb3c-4da8-b10e-47b100489d5b");
+
+        /*
+            Imitating service operation which should NOT be called
+            !!! DO NOT REPLACE THIS WITH LAMBDA, LAMBDAS ARE FINAL, AND SPY() NEEDS TO CREATE A PROXY, IT WILL NOT WORK !!!
+         */
+        final Supplier<Person> serviceOperation = spy(new Supplier<>() {
+            @Override
+            public Person get() {
+                throw new IllegalStateException();
+            }
+        });
+
+        //Захват не удается, а запись уже удалена: владелец освобождает ключ одновременно с каждой попыткой
+        when(idempotencyStore.claim(eq(idempotencyKey), any())).thenReturn(false);
+        when(idempotencyStore.find(idempotencyKey)).thenReturn(Optional.empty());
+
+        //WHEN & THEN
+        assertThatExceptionOfType(IdempotencyKeyInProgressException.class)
+                .isThrownBy(() -> idempotencyService.process(idempotencyKey, serviceOperation, Person.class));
+
+        //Ожидание 100 мс с паузой 10 мс между попытками
+        verify(idempotencyStore, atLeast(2)).claim(eq(idempotencyKey), any());
+        verify(idempotencyStore, atMost(12)).claim(eq(idempotencyKey), any());
+        verifyNoInteractions(payloadCodec, serviceOperation);
+    }
+
+
+    @Test
+    void process_whenKeyIsCompletedWhileWaiting_thenReturnsSavedResultAndNeverInvokesService() throws JsonProcessingException {
+        //GIVEN
+        final UUID idempotencyKey = UUID.fromString("bd4620ef-cb3c-4da8-b10e-47b100489d5b");
+        final IdempotencyPayload contentData = new IdempotencyPayload(new byte[] {1, 2, 3}, IdempotencyPayloadCodec.SMILE_DEFLATE);
+        final Person person = new Person("Ivan", "Ivanov");
+
+        final IdempotencyRecord pendingKey = new IdempotencyRecord(
+                idempotencyKey,
+                IdempotencyKeyStatus.PENDING,
+                Instant.now(),
+                null
+        );
+
+        final IdempotencyRecord completedKey = new IdempotencyRecord(
+                idempotencyKey,
+                IdempotencyKeyStatus.COMPLETED,
+                Instant.now(),
+                contentData
+        );
+
+        when(idempotencyStore.claim(eq(idempotencyKey), any())).thenReturn(false);
+        when(idempotencyStore.find(idempotencyKey))
+                .thenReturn(Optional.of(pendingKey))
+                .thenReturn(Optional.of(completedKey));
+        when(payloadCodec.decode(contentData, Person.class)).thenReturn(person);
+
+        //WHEN
+        Person response = idempotencyService.process(idempotencyKey, () -> { throw new IllegalStateException(); }, Person.class);
+
+        //THEN
+        assertThat(response).isEqualTo(person);
+
+        verify(idempotencyStore, times(2)).find(idempotencyKey);
+        verify(idempotencyStore, never()).complete(any(), any(), any());
+    }
+
+
+    @Test
+    void process_whenSameKeyIsAlreadyInFlightOnNode_thenFollowerReceivesLeaderResultWithoutDatabaseAccess() throws Exception {
+        //GIVEN
+        final UUID idempotencyKey = UUID.fromString("bd4620ef-cb3c-4da8-b10e-47b100489d5b");
+        final Person person = new Person("Ivan", "Ivanov");
+
+        idempotencyService.setWaitTimeout(Duration.ofSeconds(5));
+
+        CountDownLatch leaderStarted = new CountDownLatch(1), releaseLeader = new CountDownLatch(1);
+
+        when(idempotencyStore.claim(eq(idempotencyKey), any())).thenReturn(true);
+        when(payloadCodec.encode(person)).thenReturn(new IdempotencyPayload(new byte[] {1, 2, 3}, IdempotencyPayloadCodec.SMILE_DEFLATE));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Person> leader = executor.submit(() -> idempotencyService.process(idempotencyKey, () -> {
+                leaderStarted.countDown();
+                awaitQuietly(releaseLeader);
+                return person;
+            }, Person.class));
+
+            leaderStarted.await();
+
+            Future<Person> follower = executor.submit(() -> idempotencyService.process(
+                    idempotencyKey, () -> { throw new IllegalStateException(); }, Person.class
+            ));
+
+            //WHEN
+            while (meterRegistry.get("idempotency.requests.coalesced").counter().count() < 1)
+                Thread.onSpinWait();
+
+            releaseLeader.countDown();
+
+            //THEN
+            assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(person);
+            assertThat(follower.get(5, TimeUnit.SECONDS)).isSameAs(person);
+
+            verify(idempotencyStore, times(1)).claim(eq(idempotencyKey), any());
+            verify(idempotencyStore, never()).find(any());
+            assertThat(meterRegistry.get("idempotency.requests.in-flight").gauge().value()).isZero();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        }
+        catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
     private record Person(String firstName, String lastName) {}
 }
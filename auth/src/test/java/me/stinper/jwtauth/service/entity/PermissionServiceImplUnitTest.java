@@ -1,6 +1,10 @@
 package me.stinper.jwtauth.service.entity;
 
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.core.pagination.KeysetSortFields;
 import me.stinper.jwtauth.dto.EntityPaginationRequest;
+import me.stinper.jwtauth.dto.EntityScrollRequest;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.permission.PermissionCreationRequest;
 import me.stinper.jwtauth.dto.permission.PermissionDto;
 import me.stinper.jwtauth.entity.Permission;
@@ -22,6 +26,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.data.util.TypeInformation;
 import org.springframework.validation.Errors;
@@ -94,6 +99,31 @@ class PermissionServiceImplUnitTest {
                 );
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void scroll_whenLastPortion_thenReturnsNoCursorAndDoesNotCountTotal() {
+        //GIVEN
+        final KeysetScrollQuery scrollQuery = new EntityScrollRequest(10, null, null, null, null)
+                .buildScrollQueryFromRequest(KeysetSortFields.PERMISSIONS);
+
+        final List<Permission> permissions = List.of(testData.READ_PERMISSION, testData.WRITE_PERMISSION);
+
+        when(permissionRepository.findBy(any(Specification.class), any())).thenReturn(permissions);
+        when(permissionMapper.toPermissionDto(testData.READ_PERMISSION)).thenReturn(testData.READ_PERMISSION_DTO);
+        when(permissionMapper.toPermissionDto(testData.WRITE_PERMISSION)).thenReturn(testData.WRITE_PERMISSION_DTO);
+
+        //WHEN
+        ScrollResponse<PermissionDto> result = permissionService.scroll(scrollQuery);
+
+        //THEN
+        assertThat(result.content()).containsExactly(testData.READ_PERMISSION_DTO, testData.WRITE_PERMISSION_DTO);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+        assertThat(result.totalElements()).isNull();
+
+        verify(permissionRepository, never()).count();
+    }
+
     @Test
     void findById_whenCorrectId_thenReturnsPermission() {
         //GIVEN
@@ -1,6 +1,11 @@
 package me.stinper.jwtauth.service.entity;
 
+import me.stinper.jwtauth.core.pagination.KeysetCursor;
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.core.pagination.KeysetSortFields;
 import me.stinper.jwtauth.dto.EntityPaginationRequest;
+import me.stinper.jwtauth.dto.EntityScrollRequest;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.permission.PermissionDto;
 import me.stinper.jwtauth.dto.role.RoleCreationRequest;
 import me.stinper.jwtauth.dto.role.RoleDto;
@@ -24,6 +29,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.data.util.TypeInformation;
 import org.springframework.validation.Errors;
@@ -31,6 +37,7 @@ import org.springframework.validation.SimpleErrors;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -113,6 +120,77 @@ class RoleServiceImplUnitTest {
     }
 
 
+    @Test
+    @DisplayName(
+            """
+            [#scroll]: Checks that the method returns a portion of roles along with a cursor built from
+             the sort key of the last role, loads permissions of the portion by a separate query
+             and counts the total number of roles only on request
+            """
+    )
+    @SuppressWarnings("unchecked")
+    void scroll_whenHasNextPortion_thenReturnsCursorOfLastRole() {
+        //GIVEN
+        final KeysetScrollQuery scrollQuery = new EntityScrollRequest(2, "roleName", null, null, true)
+                .buildScrollQueryFromRequest(KeysetSortFields.ROLES);
+
+        //Выбирается на одну роль больше размера порции - признак наличия следующей порции
+        when(roleRepository.findBy(any(Specification.class), any())).thenReturn(
+                List.of(testData.ADMIN_ROLE, testData.MANAGER_ROLE, testData.USER_ROLE)
+        );
+        when(roleRepository.findAllByIdIn(List.of(testData.ADMIN_ROLE.getId(), testData.MANAGER_ROLE.getId())))
+                .thenReturn(List.of(testData.MANAGER_ROLE, testData.ADMIN_ROLE));
+        when(roleRepository.count()).thenReturn(3L);
+        when(roleMapper.toRoleDto(testData.ADMIN_ROLE)).thenReturn(testData.ADMIN_ROLE_DTO);
+        when(roleMapper.toRoleDto(testData.MANAGER_ROLE)).thenReturn(testData.MANAGER_ROLE_DTO);
+
+        //WHEN
+        ScrollResponse<RoleDto> result = roleService.scroll(scrollQuery);
+
+        //THEN
+        assertThat(result.content()).containsExactly(testData.ADMIN_ROLE_DTO, testData.MANAGER_ROLE_DTO);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(result.totalElements()).isEqualTo(3L);
+        assertThat(KeysetCursor.decode(result.nextCursor(), KeysetSortFields.ROLES).keys())
+                .isEqualTo(Map.of("roleName", testData.MANAGER_ROLE.getRoleName()));
+
+        verify(roleRepository).count();
+    }
+
+
+    @Test
+    @DisplayName(
+            """
+            [#scroll]: Checks that a role deleted between selecting the portion and loading its permissions
+             is skipped and the cursor still points past it
+            """
+    )
+    @SuppressWarnings("unchecked")
+    void scroll_whenRoleIsDeletedBeforePermissionsAreLoaded_thenSkipsRole() {
+        //GIVEN
+        final KeysetScrollQuery scrollQuery = new EntityScrollRequest(2, "roleName", null, null, null)
+                .buildScrollQueryFromRequest(KeysetSortFields.ROLES);
+
+        when(roleRepository.findBy(any(Specification.class), any())).thenReturn(
+                List.of(testData.ADMIN_ROLE, testData.MANAGER_ROLE, testData.USER_ROLE)
+        );
+        when(roleRepository.findAllByIdIn(List.of(testData.ADMIN_ROLE.getId(), testData.MANAGER_ROLE.getId())))
+                .thenReturn(List.of(testData.ADMIN_ROLE));
+        when(roleMapper.toRoleDto(testData.ADMIN_ROLE)).thenReturn(testData.ADMIN_ROLE_DTO);
+
+        //WHEN
+        ScrollResponse<RoleDto> result = roleService.scroll(scrollQuery);
+
+        //THEN
+        assertThat(result.content()).containsExactly(testData.ADMIN_ROLE_DTO);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(KeysetCursor.decode(result.nextCursor(), KeysetSortFields.ROLES).keys())
+                .isEqualTo(Map.of("roleName", testData.MANAGER_ROLE.getRoleName()));
+
+        verify(roleMapper, never()).toRoleDto(null);
+    }
+
+
     @Test
     @DisplayName(
             """
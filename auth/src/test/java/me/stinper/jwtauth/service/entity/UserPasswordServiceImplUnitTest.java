@@ -1,5 +1,6 @@
 package me.stinper.jwtauth.service.entity;
 
+import me.stinper.jwtauth.core.security.jwt.JwtClaimsUserDetails;
 import me.stinper.jwtauth.dto.user.PasswordChangeRequest;
 import me.stinper.jwtauth.entity.User;
 import me.stinper.jwtauth.exception.EntityValidationException;
@@ -17,6 +18,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.validation.Errors;
 import org.springframework.validation.SimpleErrors;
 
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -87,6 +90,35 @@ class UserPasswordServiceImplUnitTest {
     }
 
 
+    @Test
+    @DisplayName("Checks that the method loads the user from the database when the principal is built from token claims")
+    void changePassword_whenPrincipalIsBuiltFromTokenClaims_thenLoadsUserAndChangesPassword() {
+        //GIVEN
+        final String oldPassword = "123", newPassword = "1234";
+
+        PasswordChangeRequest validPasswordChangeRequest = new PasswordChangeRequest(
+                oldPassword, newPassword, newPassword
+        );
+
+        JwtClaimsUserDetails principal = new JwtClaimsUserDetails(
+                testData.TARGET_USER.getUuid(), testData.TARGET_USER.getEmail(), Set.of(), Set.of()
+        );
+
+        when(passwordChangeValidator.validateObject(validPasswordChangeRequest)).thenReturn(new SimpleErrors(validPasswordChangeRequest));
+        when(userRepository.findById(principal.getUuid())).thenReturn(Optional.of(testData.TARGET_USER));
+        when(passwordEncoder.encode(newPassword)).thenReturn("$2y$10$yK6JXIp0H/rGL4tsXRP0GuxNh603JWnF5ybuPhnHRAt1y7xCA07ri");
+
+        //WHEN
+        userPasswordService.changePassword(validPasswordChangeRequest, principal);
+
+        //THEN
+        assertThat(testData.TARGET_USER.getPassword()).isEqualTo("$2y$10$yK6JXIp0H/rGL4tsXRP0GuxNh603JWnF5ybuPhnHRAt1y7xCA07ri");
+
+        verify(userRepository).save(testData.TARGET_USER);
+        verify(jwtService).invalidateRefreshTokens(testData.TARGET_USER);
+    }
+
+
     private static class TestData {
         final User TARGET_USER = User.builder()
                 .uuid(UUID.randomUUID())
@@ -1,6 +1,10 @@
 package me.stinper.jwtauth.service.entity;
 
+import me.stinper.jwtauth.core.pagination.KeysetScrollQuery;
+import me.stinper.jwtauth.core.pagination.KeysetSortFields;
 import me.stinper.jwtauth.dto.EntityPaginationRequest;
+import me.stinper.jwtauth.dto.EntityScrollRequest;
+import me.stinper.jwtauth.dto.ScrollResponse;
 import me.stinper.jwtauth.dto.permission.PermissionDto;
 import me.stinper.jwtauth.dto.role.RoleDto;
 import me.stinper.jwtauth.dto.user.UserCreationRequest;
@@ -26,6 +30,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.mapping.PropertyReferenceException;
 import org.springframework.data.util.TypeInformation;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -71,19 +76,16 @@ class UserServiceImplUnitTest {
         final Pageable pageable = testData.NO_SORT_PAGINATION_REQUEST;
         final UserFilterStrategy userFilterStrategy = mock(UserFilterStrategy.class);
 
-        final Page<User> userPage = new PageImpl<>(
-                List.of(testData.SIMPLE_USER, testData.USER_WITH_ROLES),
-                pageable,
-                2
-        );
+        final Specification<User> specification = mock(Specification.class);
+
         final Page<User> filteredUserPage = new PageImpl<>(
                 List.of(testData.SIMPLE_USER, testData.USER_WITH_ROLES),
                 pageable,
                 2
         );
 
-        when(userRepository.findAll(pageable)).thenReturn(userPage);
-        when(userFilterStrategy.filterUsersPage(userPage)).thenReturn(filteredUserPage);
+        when(userFilterStrategy.toSpecification()).thenReturn(specification);
+        when(userRepository.findAll(specification, pageable)).thenReturn(filteredUserPage);
 
         //WHEN
         Page<UserDto> users = userService.findAll(pageable, userFilterStrategy);
@@ -94,7 +96,9 @@ class UserServiceImplUnitTest {
                 .containsAll(List.of(testData.SIMPLE_USER_DTO, testData.USER_WITH_ROLES_DTO))
                 .doesNotContain(testData.DEACTIVATED_USER_DTO);
 
-        verify(userRepository).findAll(pageable);
+        assertThat(users.getTotalElements()).isEqualTo(2);
+
+        verify(userRepository).findAll(specification, pageable);
     }
 
 
@@ -107,20 +111,61 @@ class UserServiceImplUnitTest {
     )
     void findAll_whenSortByNotExistentProperty_thenThrowsException() {
         //GIVEN
-        when(userRepository.findAll(any(Pageable.class)))
+        final UserFilterStrategy userFilterStrategy = mock(UserFilterStrategy.class);
+
+        when(userFilterStrategy.toSpecification()).thenReturn(mock(Specification.class));
+        when(userRepository.findAll(any(Specification.class), any(Pageable.class)))
                 .thenThrow(
                         new PropertyReferenceException("nonExistentProperty", TypeInformation.OBJECT, Collections.emptyList())
                 );
 
         //WHEN & THEN
         assertThatExceptionOfType(NoSuchPropertyException.class)
-                .isThrownBy(() -> userService.findAll(mock(Pageable.class), mock(UserFilterStrategy.class)))
+                .isThrownBy(() -> userService.findAll(mock(Pageable.class), userFilterStrategy))
                 .satisfies(ex -> assertThat(
                         ex.getPropertyReferenceException().getPropertyName()).isEqualTo("nonExistentProperty")
                 );
     }
 
 
+    @Test
+    @DisplayName(
+            """
+            [#scroll]: Checks that the method filters users by the specification of the strategy
+             both when selecting a portion and when counting the total number of users
+            """
+    )
+    @SuppressWarnings("unchecked")
+    void scroll_whenTotalRequested_thenCountsUsersBySameSpecification() {
+        //GIVEN
+        final KeysetScrollQuery scrollQuery = new EntityScrollRequest(10, "email", null, null, true)
+                .buildScrollQueryFromRequest(KeysetSortFields.USERS);
+
+        final UserFilterStrategy userFilterStrategy = mock(UserFilterStrategy.class);
+        final Specification<User> specification = mock(Specification.class);
+
+        final List<User> users = List.of(testData.SIMPLE_USER, testData.USER_WITH_ROLES);
+
+        when(userFilterStrategy.toSpecification()).thenReturn(specification);
+        when(userRepository.findBy(eq(specification), any())).thenReturn(users);
+        when(userRepository.count(specification)).thenReturn(2L);
+        when(userMapper.toUserDto(testData.SIMPLE_USER)).thenReturn(testData.SIMPLE_USER_DTO);
+        when(userMapper.toUserDto(testData.USER_WITH_ROLES)).thenReturn(testData.USER_WITH_ROLES_DTO);
+
+        //WHEN
+        ScrollResponse<UserDto> result = userService.scroll(scrollQuery, userFilterStrategy);
+
+        //THEN
+        assertThat(result.content()).containsExactly(testData.SIMPLE_USER_DTO, testData.USER_WITH_ROLES_DTO);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+        assertThat(result.totalElements()).isEqualTo(2L);
+
+        verify(userRepository).findBy(eq(specification), any());
+        verify(userRepository).count(specification);
+    }
+
+
     @Test
     @DisplayName(
             """
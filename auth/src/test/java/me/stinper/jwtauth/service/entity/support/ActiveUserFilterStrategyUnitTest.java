@@ -1,15 +1,14 @@
 package me.stinper.jwtauth.service.entity.support;
 
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import me.stinper.jwtauth.entity.User;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
-
-import java.time.Instant;
-import java.util.List;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -24,56 +23,23 @@ class ActiveUserFilterStrategyUnitTest {
     }
 
     @Test
-    void filterUsersPage_whenInputPageContainsDeactivatedUsers_thenReturnsPageWithoutThem() {
-        //GIVEN
-        final User firstUser = User.builder()
-                .email("firstUser@gmail.com")
-                .deactivatedAt(Instant.now())
-                .build();
-
-        final User secondUser = User.builder()
-                .email("secondUser@gmail.com")
-                .build();
-        final Pageable pageable = mock(Pageable.class);
-
-        Page<User> pageToFilter = new PageImpl<>(
-                List.of(firstUser, secondUser),
-                pageable,
-                2
-        );
-
-        //WHEN
-        Page<User> filteredPage = activeUserFilterStrategy.filterUsersPage(pageToFilter);
-
-        //THEN
-        assertThat(filteredPage.getContent())
-                .containsExactlyInAnyOrder(secondUser)
-                .doesNotContain(firstUser);
-
-        assertThat(filteredPage.getPageable()).isEqualTo(pageable);
-        assertThat(filteredPage.getTotalElements()).isEqualTo(1);
-    }
-
-
-    @Test
-    void filterUsersPage_whenInputPageDoesNotContainsDeactivatedUsers_thenReturnsSamePage() {
+    @SuppressWarnings("unchecked")
+    void toSpecification_thenRestrictsUsersToNotDeactivatedOnes() {
         //GIVEN
-        final User firstUser = User.builder().build();
-        final User secondUser = User.builder().build();
-        final Pageable pageable = mock(Pageable.class);
+        final Root<User> root = mock(Root.class);
+        final CriteriaQuery<?> query = mock(CriteriaQuery.class);
+        final CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class);
+        final Path<Object> deactivatedAt = mock(Path.class);
+        final Predicate isNullPredicate = mock(Predicate.class);
 
-        Page<User> pageToFilter = new PageImpl<>(
-                List.of(firstUser, secondUser),
-                pageable,
-                2
-        );
+        when(root.get("deactivatedAt")).thenReturn(deactivatedAt);
+        when(criteriaBuilder.isNull(deactivatedAt)).thenReturn(isNullPredicate);
 
         //WHEN
-        Page<User> filteredPage = activeUserFilterStrategy.filterUsersPage(pageToFilter);
+        Predicate predicate = activeUserFilterStrategy.toSpecification().toPredicate(root, query, criteriaBuilder);
 
         //THEN
-        assertThat(filteredPage.getContent()).containsExactlyInAnyOrder(firstUser, secondUser);
-        assertThat(filteredPage.getPageable()).isEqualTo(pageable);
-        assertThat(filteredPage.getTotalElements()).isEqualTo(2);
+        assertThat(predicate).isEqualTo(isNullPredicate);
+        verify(criteriaBuilder).isNull(deactivatedAt);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package me.stinper.jwtauth.testutils;
+
+import me.stinper.jwtauth.core.security.jwt.JwtSignatureAlgorithm;
+import me.stinper.jwtauth.core.security.jwt.JwtSigningKey;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+
+public final class JwtSigningKeySupport {
+    private JwtSigningKeySupport() {}
+
+    /**
+     * Генерирует пару ключей Ed25519 - самый дешевый в генерации из поддерживаемых алгоритмов
+     */
+    public static KeyPair generateKeyPair() {
+        try {
+            return KeyPairGenerator.getInstance(JwtSignatureAlgorithm.EdDSA.getKeyFactoryAlgorithm()).generateKeyPair();
+        }
+        catch (GeneralSecurityException gse) {
+            throw new IllegalStateException(gse);
+        }
+    }
+
+    public static JwtSigningKey signingKey(String kid, KeyPair keyPair) {
+        return new JwtSigningKey(kid, JwtSignatureAlgorithm.EdDSA, keyPair.getPublic(), keyPair.getPrivate());
+    }
+
+    public static JwtSigningKey verificationOnlyKey(String kid, KeyPair keyPair) {
+        return new JwtSigningKey(kid, JwtSignatureAlgorithm.EdDSA, keyPair.getPublic(), null);
+    }
+
+    /**
+     * Записывает ключ в директорию в формате, который ожидает
+     * {@link me.stinper.jwtauth.core.security.jwt.DirectoryJwtSignatureKeysProvider}
+     * @param withPrivateKey записывать ли приватный ключ (ключ, которым можно подписывать токены)
+     */
+    public static void writeKeyFiles(Path directory, String kid, KeyPair keyPair, boolean withPrivateKey) throws IOException {
+        Files.writeString(directory.resolve(kid + ".pub"), toPem("PUBLIC KEY", keyPair.getPublic()), StandardCharsets.US_ASCII);
+
+        if (withPrivateKey)
+            Files.writeString(directory.resolve(kid + ".key"), toPem("PRIVATE KEY", keyPair.getPrivate()), StandardCharsets.US_ASCII);
+    }
+
+    private static String toPem(String type, Key key) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, "\n".getBytes(StandardCharsets.US_ASCII)).encodeToString(key.getEncoded())
+                + "\n-----END " + type + "-----\n";
+    }
+}
@@ -0,0 +1,29 @@
+package me.stinper.jwtauth.testutils;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Запоминает SQL-запросы, сформированные Hibernate, чтобы тесты могли проверить их вид и план выполнения.
+ * Подключается свойством {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}: Hibernate
+ * создает экземпляр сам, поэтому запросы хранятся в статическом списке
+ */
+public class RecordingStatementInspector implements StatementInspector {
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+}
@@ -4,6 +4,7 @@ import me.stinper.jwtauth.core.error.UserErrorCode;
 import me.stinper.jwtauth.dto.user.PasswordChangeRequest;
 import me.stinper.jwtauth.entity.User;
 import me.stinper.jwtauth.exception.ValidatorUnsupportedTypeException;
+import me.stinper.jwtauth.repository.UserRepository;
 import me.stinper.jwtauth.utils.MessageSourceHelper;
 import me.stinper.jwtauth.utils.SecurityUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -29,6 +30,7 @@ import static org.mockito.Mockito.*;
 public class PasswordChangeValidatorUnitTest {
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private MessageSourceHelper messageSourceHelper;
+    @Mock private UserRepository userRepository;
 
     @InjectMocks
     private PasswordChangeValidator passwordChangeValidator;
@@ -185,7 +187,7 @@ public class PasswordChangeValidatorUnitTest {
 
     private void withMockedCurrentUser(Runnable runnable) {
         try(MockedStatic<SecurityUtils> mockedSecurityUtils = mockStatic(SecurityUtils.class)) {
-            mockedSecurityUtils.when(SecurityUtils::getCurrentUser).thenReturn(testData.CURRENT_USER);
+            mockedSecurityUtils.when(SecurityUtils::getCurrentUserDetails).thenReturn(testData.CURRENT_USER);
 
             runnable.run();
         }
@@ -0,0 +1,66 @@
+// Нагрузочный тест сервиса аутентификации (https://k6.io)
+//
+// Запуск:
+//   k6 run -e BASE_URL=http://localhost:8080 -e ADMIN_EMAIL=... -e ADMIN_PASSWORD=... -e VUS=500 load-tests/auth-load-test.js
+//
+// Сценарий соответствует основному профилю нагрузки: запросы, заблокированные на JDBC
+// (загрузка пользователя по Access-токену, чтение пользователей, обновление Access-токена по Refresh-токену).
+// Для сравнения режимов выполните тест дважды с одинаковыми параметрами: без профиля и с профилем virtual-threads
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { uuidv4 } from 'https://jslib.k6.io/k6-utils/1.4.0/index.js';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '500');
+
+export const options = {
+    scenarios: {
+        authenticated_reads: {
+            executor: 'constant-vus',
+            vus: VUS,
+            duration: __ENV.DURATION || '2m',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+// Токены текущего VU: у каждого VU собственный экземпляр модуля, поэтому VU не делят между собой Refresh-токен.
+// Refresh-токены одноразовые (ротация с обнаружением повторного предъявления), поэтому после каждого обновления
+// используется пара токенов из ответа, а при ошибке VU входит заново
+let tokens = null;
+
+function login() {
+    const response = http.post(
+        `${BASE_URL}/api/v1/jwt-auth/login`,
+        JSON.stringify({ email: __ENV.ADMIN_EMAIL, password: __ENV.ADMIN_PASSWORD }),
+        { headers: { 'Content-Type': 'application/json', 'X-Idempotency-Key': uuidv4() } },
+    );
+
+    check(response, { 'login succeeded': (r) => r.status === 200 });
+
+    return response.status === 200 ? response.json() : null;
+}
+
+export default function () {
+    if (tokens === null) {
+        tokens = login();
+
+        if (tokens === null)
+            return;
+    }
+
+    const authorization = { headers: { Authorization: `Bearer ${tokens.access_token}` } };
+
+    const users = http.get(`${BASE_URL}/api/v1/jwt-auth/users?page=0&size=20`, authorization);
+    check(users, { 'users listed': (r) => r.status === 200 });
+
+    const refreshed = http.post(
+        `${BASE_URL}/api/v1/jwt-auth/tokens/refresh-access-token`,
+        JSON.stringify({ refresh_token: tokens.refresh_token }),
+        { headers: { 'Content-Type': 'application/json' } },
+    );
+    check(refreshed, { 'access token refreshed': (r) => r.status === 200 });
+
+    tokens = refreshed.status === 200 ? refreshed.json() : null;
+}